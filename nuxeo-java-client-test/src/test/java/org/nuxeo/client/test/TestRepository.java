@@ -193,12 +193,15 @@ public class TestRepository extends TestBase {
         documentUpdated = nuxeoClient.repository().updateDocument(documentUpdated);
         assertEquals("note updated", documentUpdated.get("dc:title"));
 
-        // Retrieve again this document within cache
+        // The update evicted the entries of this document
+        assertTrue(nuxeoClient.getNuxeoCache().size() == 0);
         document = nuxeoClient.repository().fetchDocumentByPath("/folder_1/note_3");
-        assertEquals("Note 3", document.get("dc:title"));
-        assertTrue(nuxeoClient.getNuxeoCache().size() == 2);
+        assertEquals("note updated", document.get("dc:title"));
+        assertTrue(nuxeoClient.getNuxeoCache().size() == 1);
 
-        // Refresh the cache and check the update has been recovered.
+        // Refresh the cache
+        nuxeoClient.repository().fetchDocumentByPath("/folder_1/note_0");
+        assertTrue(nuxeoClient.getNuxeoCache().size() == 2);
         document = nuxeoClient.repository().refreshCache().fetchDocumentByPath("/folder_1/note_3");
         assertEquals("note updated", document.get("dc:title"));
         assertTrue(nuxeoClient.getNuxeoCache().size() == 1);
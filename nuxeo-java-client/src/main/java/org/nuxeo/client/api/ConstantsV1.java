@@ -57,6 +57,16 @@ public class ConstantsV1 {
 
     public static final String HEADER_DEPTH = "depth";
 
+    public static final String HEADER_ETAG = "ETag";
+
+    public static final String HEADER_LAST_MODIFIED = "Last-Modified";
+
+    public static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+
+    public static final String HEADER_IF_MODIFIED_SINCE = "If-Modified-Since";
+
+    public static final String HEADER_RANGE = "Range";
+
     public static final String ENTITY_TYPE_DOCUMENTS = "documents";
 
     public static final String ENTITY_TYPE_AUDIT = "logEntries";
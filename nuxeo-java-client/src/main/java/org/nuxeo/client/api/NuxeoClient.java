@@ -17,6 +17,8 @@
 package org.nuxeo.client.api;
 
 import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import okhttp3.Interceptor;
@@ -35,19 +37,53 @@ import org.nuxeo.client.internals.spi.NuxeoClientException;
 import org.nuxeo.client.api.cache.NuxeoResponseCache;
 import org.nuxeo.client.api.cache.ResultCacheInMemory;
 import org.nuxeo.client.api.objects.Operation;
+import org.nuxeo.client.api.objects.operation.OperationExecutor;
 import org.nuxeo.client.api.objects.Repository;
 import org.nuxeo.client.api.objects.upload.BatchUpload;
 import org.nuxeo.client.api.objects.user.UserManager;
+import org.nuxeo.client.internals.spi.ClientCallFactory;
+import org.nuxeo.client.internals.spi.ClientInterceptor;
 import org.nuxeo.client.internals.spi.auth.BasicAuthInterceptor;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import retrofit2.Retrofit;
 
 /**
+ * Client of the Nuxeo Platform REST APIs.
+ * <p>
+ * A client can be shared by many threads, platform or virtual ones, through its blocking calls (the methods without
+ * callback nor future, running the http call in the calling thread), provided that:
+ * <ul>
+ * <li>the client headers, authentication and cache are set up before, as changing them affects the calls of all the
+ * threads. Per call headers are given with {@link RequestOptions}, see {@link Repository#withOptions(RequestOptions)},
+ * which are bound to the calling thread only.</li>
+ * <li>an {@link Operation} is set up and executed by a single thread, {@link #automation()} returning a new one on
+ * each call. Operations can also be executed from immutable
+ * {@link org.nuxeo.client.api.objects.operation.OperationRequest requests}, which can be shared by the threads, see
+ * {@link Operation#execute(org.nuxeo.client.api.objects.operation.OperationRequest)}.</li>
+ * <li>the repository name is set up before, or given to a repository of the thread.</li>
+ * </ul>
+ * These calls share no mutable request state and hold no monitor while waiting for the server. The callback and
+ * future methods run the http call in the threads of the {@link Transport#getDispatcher() dispatcher}, bounded by its
+ * maximum number of requests.
+ *
  * @since 0.1
  */
 public class NuxeoClient implements Client {
 
-    protected final OkHttpClient.Builder okhttpBuilder;
+    protected final ClientInterceptor clientInterceptor;
+
+    protected final ClientCallFactory callFactory;
+
+    protected final Transport transport;
+
+    /**
+     * @since 2.6
+     */
+    protected final ExecutorService blockingExecutor;
+
+    protected final Retrofit retrofit;
 
     protected final Repository repository;
 
@@ -63,30 +99,43 @@ public class NuxeoClient implements Client {
 
     protected final NuxeoConverterFactory converterFactory;
 
-    protected final Retrofit.Builder retrofitBuilder;
-
     protected CurrentUser currentUser;
 
     protected NuxeoResponseCache nuxeoCache;
 
-    protected Retrofit retrofit;
-
     public NuxeoClient(String url, String userName, String password) {
-        // okhttp builder
-        okhttpBuilder = new OkHttpClient.Builder();
-        if (okhttpBuilder.interceptors().isEmpty()) {
-            if (userName != null && password != null) {
-                setAuthenticationMethod(new BasicAuthInterceptor(userName, password));
-            } else {
-                throw new NuxeoClientException("Define credentials");
-            }
+        this(new Builder().url(url).authentication(userName, password));
+    }
+
+    /**
+     * @since 2.6
+     */
+    protected NuxeoClient(Builder builder) {
+        if (builder.url == null) {
+            throw new NuxeoClientException("Define url");
+        }
+        if (builder.authentication == null) {
+            throw new NuxeoClientException("Define credentials");
         }
-        // retrofit builder
+        // http stack, built once
+        clientInterceptor = new ClientInterceptor();
+        clientInterceptor.setAuthentication(builder.authentication);
+        clientInterceptor.setHeaders(builder.headers.build().getHeaders());
+        if (builder.transport != null) {
+            builder.okhttpBuilder.connectionPool(builder.transport.getConnectionPool())
+                                 .dispatcher(builder.transport.getDispatcher());
+        }
+        OkHttpClient okHttpClient = builder.okhttpBuilder.addInterceptor(clientInterceptor).build();
+        callFactory = new ClientCallFactory(okHttpClient);
+        transport = new Transport(okHttpClient.connectionPool(), okHttpClient.dispatcher());
+        blockingExecutor = builder.blockingExecutor == null ? newBlockingExecutor() : builder.blockingExecutor;
+        // retrofit, built once
         converterFactory = NuxeoConverterFactory.create();
-        retrofitBuilder = new Retrofit.Builder().baseUrl(url + ConstantsV1.API_PATH).addConverterFactory(
-                converterFactory);
-        // client builder
-        retrofit();
+        retrofit = new Retrofit.Builder().baseUrl(builder.url + ConstantsV1.API_PATH)
+                                         .addConverterFactory(converterFactory)
+                                         .callFactory(callFactory)
+                                         .build();
+        nuxeoCache = builder.cache;
         // nuxeo builders
         automation = new Operation(this);
         repository = new Repository(this);
@@ -112,8 +161,8 @@ public class NuxeoClient implements Client {
     }
 
     public void logout() {
-        okhttpBuilder.interceptors().clear();
-        retrofit();
+        clientInterceptor.setAuthentication(null);
+        clientInterceptor.clearHeaders();
     }
 
     public NuxeoConverterFactory getConverterFactory() {
@@ -122,13 +171,7 @@ public class NuxeoClient implements Client {
 
     @Override
     public NuxeoClient header(String header, String value) {
-        okhttpBuilder.interceptors().add(chain -> {
-            Request request = chain.request();
-            request = request.newBuilder().addHeader(header, value).build();
-            Response response = chain.proceed(request);
-            return response;
-        });
-        retrofit();
+        clientInterceptor.addHeader(header, value);
         return this;
     }
 
@@ -177,25 +220,25 @@ public class NuxeoClient implements Client {
 
     @Override
     public NuxeoClient setAuthenticationMethod(Interceptor interceptor) {
-        okhttpBuilder.interceptors().add(interceptor);
-        if (retrofitBuilder != null) {
-            retrofit();
-        }
+        clientInterceptor.setAuthentication(interceptor);
         return this;
     }
 
     @Override
     public NuxeoClient timeout(long timeout) {
-        okhttpBuilder.connectTimeout(timeout, TimeUnit.SECONDS);
-        okhttpBuilder.readTimeout(timeout, TimeUnit.SECONDS);
-        retrofit();
+        // derived client shares the connection pool and the dispatcher
+        callFactory.setOkHttpClient(callFactory.getOkHttpClient()
+                                               .newBuilder()
+                                               .connectTimeout(timeout, TimeUnit.SECONDS)
+                                               .readTimeout(timeout, TimeUnit.SECONDS)
+                                               .build());
         return this;
     }
 
     @Override
-    public NuxeoClient readTimeout(long timeout){
-        okhttpBuilder.readTimeout(timeout, TimeUnit.SECONDS);
-        retrofit();
+    public NuxeoClient readTimeout(long timeout) {
+        callFactory.setOkHttpClient(
+                callFactory.getOkHttpClient().newBuilder().readTimeout(timeout, TimeUnit.SECONDS).build());
         return this;
     }
 
@@ -213,9 +256,52 @@ public class NuxeoClient implements Client {
         return retrofit;
     }
 
-    protected void retrofit() {
-        OkHttpClient okHttpClient = okhttpBuilder.build();
-        retrofit = retrofitBuilder.callFactory(okHttpClient).build();
+    /**
+     * @since 2.6
+     */
+    public ClientCallFactory getCallFactory() {
+        return callFactory;
+    }
+
+    /**
+     * @since 2.6
+     */
+    public ClientInterceptor getClientInterceptor() {
+        return clientInterceptor;
+    }
+
+    /**
+     * @since 2.6
+     */
+    public OkHttpClient getOkHttpClient() {
+        return callFactory.getOkHttpClient();
+    }
+
+    /**
+     * @return the connection pool and the dispatcher used by this client, possibly shared with other clients.
+     * @since 2.6
+     */
+    public Transport getTransport() {
+        return transport;
+    }
+
+    /**
+     * @return the executor running the blocking calls of the concurrent methods of this client (query prefetch,
+     *         concurrent uploads and downloads, bulk writes, operation executors), apart from the dispatcher threads
+     *         of the transport which run the callback and future calls.
+     * @since 2.6
+     */
+    public ExecutorService getBlockingExecutor() {
+        return blockingExecutor;
+    }
+
+    /**
+     * @return an unbounded pool of daemon threads, the concurrency of each method being bounded by its own settings.
+     * @since 2.6
+     */
+    protected static ExecutorService newBlockingExecutor() {
+        return Executors.newCachedThreadPool(
+                new ThreadFactoryBuilder().setNameFormat("Nuxeo Client Blocking %d").setDaemon(true).build());
     }
 
     @Override
@@ -252,13 +338,28 @@ public class NuxeoClient implements Client {
         return repository;
     }
 
+    /**
+     * @return a new operation request, since 2.6 one per call so that the requests of different threads do not share
+     *         their input, parameters and context.
+     */
     public Operation automation() {
-        return automation;
+        return automation.newOperation(null);
     }
 
+    /**
+     * @return a new operation request of the given id, see {@link #automation()}.
+     */
     public Operation automation(String operationId) {
-        automation.setOperationId(operationId);
-        return automation;
+        return automation.newOperation(operationId);
+    }
+
+    /**
+     * @param maxInFlight the maximum number of operations executed at a time.
+     * @return an executor of operation requests over this client, see {@link OperationExecutor}.
+     * @since 2.6
+     */
+    public OperationExecutor automationExecutor(int maxInFlight) {
+        return new OperationExecutor(new Operation(this), blockingExecutor, maxInFlight);
     }
 
     public UserManager getUserManager() {
@@ -339,4 +440,140 @@ public class NuxeoClient implements Client {
         return batchUpload;
     }
 
+    /**
+     * Builds a {@link NuxeoClient} whose http client is created once.
+     * <p>
+     * The headers given here are sent with every request, use {@link RequestOptions} to override them for a given
+     * call.
+     *
+     * @since 2.6
+     */
+    public static class Builder {
+
+        protected final OkHttpClient.Builder okhttpBuilder = new OkHttpClient.Builder();
+
+        protected final RequestOptions.Builder headers = RequestOptions.builder();
+
+        protected String url;
+
+        protected Interceptor authentication;
+
+        protected NuxeoResponseCache cache;
+
+        protected Transport transport;
+
+        protected ExecutorService blockingExecutor;
+
+        public Builder url(String url) {
+            this.url = url;
+            return this;
+        }
+
+        public Builder authentication(String userName, String password) {
+            if (userName == null || password == null) {
+                throw new NuxeoClientException("Define credentials");
+            }
+            return authentication(new BasicAuthInterceptor(userName, password));
+        }
+
+        /**
+         * @see Client#setAuthenticationMethod(Interceptor)
+         */
+        public Builder authentication(Interceptor authentication) {
+            this.authentication = authentication;
+            return this;
+        }
+
+        /**
+         * @param timeout connect and read timeout in seconds.
+         */
+        public Builder timeout(long timeout) {
+            okhttpBuilder.connectTimeout(timeout, TimeUnit.SECONDS);
+            okhttpBuilder.readTimeout(timeout, TimeUnit.SECONDS);
+            return this;
+        }
+
+        /**
+         * @param timeout read timeout in seconds.
+         */
+        public Builder readTimeout(long timeout) {
+            okhttpBuilder.readTimeout(timeout, TimeUnit.SECONDS);
+            return this;
+        }
+
+        public Builder header(String header, String value) {
+            headers.header(header, value);
+            return this;
+        }
+
+        public Builder enrichers(String... enrichers) {
+            headers.enrichers(enrichers);
+            return this;
+        }
+
+        public Builder voidOperation(boolean value) {
+            headers.voidOperation(value);
+            return this;
+        }
+
+        public Builder transactionTimeout(long timeout) {
+            headers.transactionTimeout(timeout);
+            return this;
+        }
+
+        public Builder fetch(String... fetchs) {
+            headers.fetch(fetchs);
+            return this;
+        }
+
+        public Builder depth(String value) {
+            headers.depth(value);
+            return this;
+        }
+
+        public Builder version(String value) {
+            headers.version(value);
+            return this;
+        }
+
+        public Builder schemas(String... properties) {
+            headers.schemas(properties);
+            return this;
+        }
+
+        /**
+         * @param transport the connection pool and the dispatcher to share with other clients, a transport with
+         *            OkHttp defaults is created for this client otherwise.
+         */
+        public Builder transport(Transport transport) {
+            this.transport = transport;
+            return this;
+        }
+
+        /**
+         * @param blockingExecutor the executor running the blocking calls of the concurrent methods, an unbounded
+         *            pool of daemon threads otherwise. These calls are not limited by the maximum number of requests
+         *            of the transport, bound this executor to bound them. The concurrent methods never wait in a task
+         *            of this executor for other tasks of it.
+         * @since 2.6
+         */
+        public Builder blockingExecutor(ExecutorService blockingExecutor) {
+            this.blockingExecutor = blockingExecutor;
+            return this;
+        }
+
+        public Builder cache(NuxeoResponseCache cache) {
+            this.cache = cache;
+            return this;
+        }
+
+        public Builder enableDefaultCache() {
+            return cache(new ResultCacheInMemory());
+        }
+
+        public NuxeoClient build() {
+            return new NuxeoClient(this);
+        }
+    }
+
 }
@@ -0,0 +1,124 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api;
+
+import org.apache.commons.lang3.StringUtils;
+
+import okhttp3.Headers;
+
+/**
+ * Immutable set of headers overriding the client ones for the calls of an entity, see
+ * {@link org.nuxeo.client.api.objects.Repository#withOptions(RequestOptions)} and
+ * {@link org.nuxeo.client.api.objects.Operation#withOptions(RequestOptions)}.
+ * <p>
+ * A header defined in the options replaces all the values the client defines for the same header name.
+ *
+ * @since 2.6
+ */
+public final class RequestOptions {
+
+    public static final RequestOptions NONE = new Builder().build();
+
+    protected final Headers headers;
+
+    protected RequestOptions(Headers headers) {
+        this.headers = headers;
+    }
+
+    public Headers getHeaders() {
+        return headers;
+    }
+
+    public boolean isEmpty() {
+        return headers.size() == 0;
+    }
+
+    /**
+     * @return a builder initialized with these options.
+     */
+    public Builder newBuilder() {
+        return new Builder(headers);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public String toString() {
+        return headers.toString();
+    }
+
+    public static final class Builder {
+
+        protected final Headers.Builder headers;
+
+        protected Builder() {
+            headers = new Headers.Builder();
+        }
+
+        protected Builder(Headers headers) {
+            this.headers = headers.newBuilder();
+        }
+
+        /**
+         * Adds a header value, several values can be given for the same header.
+         */
+        public Builder header(String header, String value) {
+            headers.add(header, value);
+            return this;
+        }
+
+        public Builder enrichers(String... enrichers) {
+            return header(ConstantsV1.HEADER_ENRICHERS, StringUtils.join(enrichers, ","));
+        }
+
+        public Builder voidOperation(boolean value) {
+            return header(ConstantsV1.HEADER_VOID_OPERATION, Boolean.toString(value));
+        }
+
+        public Builder transactionTimeout(long timeout) {
+            return header(ConstantsV1.HEADER_TX_TIMEOUT, String.valueOf(timeout));
+        }
+
+        public Builder fetch(String... fetchs) {
+            for (String fetch : fetchs) {
+                header(ConstantsV1.HEADER_FETCH, fetch);
+            }
+            return this;
+        }
+
+        public Builder depth(String value) {
+            return header(ConstantsV1.HEADER_DEPTH, value);
+        }
+
+        public Builder version(String value) {
+            return header(ConstantsV1.HEADER_VERSIONING, value);
+        }
+
+        public Builder schemas(String... properties) {
+            return header(ConstantsV1.HEADER_PROPERTIES, StringUtils.join(properties, ","));
+        }
+
+        public RequestOptions build() {
+            return new RequestOptions(headers.build());
+        }
+    }
+
+}
@@ -0,0 +1,220 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.nuxeo.client.internals.spi.NuxeoClientException;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+
+/**
+ * The connection pool and the dispatcher of the http stack, which can be shared by several {@link NuxeoClient}, for
+ * instance one client per tenant, to bound the sockets and the threads of the JVM:
+ *
+ * <pre>
+ * Transport transport = Transport.builder().maxIdleConnections(10).maxRequestsPerHost(20).build();
+ * NuxeoClient client = new NuxeoClient.Builder().url(url).authentication(user, password).transport(transport).build();
+ * </pre>
+ *
+ * @since 2.6
+ */
+public class Transport {
+
+    /**
+     * OkHttp defaults.
+     */
+    public static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+
+    public static final long DEFAULT_KEEP_ALIVE_DURATION = TimeUnit.MINUTES.toMillis(5);
+
+    public static final int DEFAULT_MAX_REQUESTS = 64;
+
+    public static final int DEFAULT_MAX_REQUESTS_PER_HOST = 5;
+
+    protected final ConnectionPool connectionPool;
+
+    protected final Dispatcher dispatcher;
+
+    /**
+     * Wraps an existing connection pool and dispatcher, their settings are left untouched.
+     */
+    public Transport(ConnectionPool connectionPool, Dispatcher dispatcher) {
+        if (connectionPool == null || dispatcher == null) {
+            throw new NuxeoClientException("Define connection pool and dispatcher");
+        }
+        this.connectionPool = connectionPool;
+        this.dispatcher = dispatcher;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public ConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
+    public Dispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * @return a snapshot of the pool and dispatcher counters.
+     */
+    public Stats getStats() {
+        int connections = connectionPool.connectionCount();
+        int idleConnections = connectionPool.idleConnectionCount();
+        return new Stats(idleConnections, Math.max(0, connections - idleConnections),
+                dispatcher.runningCallsCount(), dispatcher.queuedCallsCount());
+    }
+
+    /**
+     * Cancels the calls, closes the idle connections and stops the dispatcher threads. The clients using this
+     * transport can't be used afterwards.
+     */
+    public void shutdown() {
+        dispatcher.cancelAll();
+        dispatcher.executorService().shutdown();
+        connectionPool.evictAll();
+    }
+
+    public static class Builder {
+
+        protected int maxIdleConnections = DEFAULT_MAX_IDLE_CONNECTIONS;
+
+        protected long keepAliveDuration = DEFAULT_KEEP_ALIVE_DURATION;
+
+        protected int maxRequests = DEFAULT_MAX_REQUESTS;
+
+        protected int maxRequestsPerHost = DEFAULT_MAX_REQUESTS_PER_HOST;
+
+        protected ExecutorService executorService;
+
+        protected Builder() {
+        }
+
+        /**
+         * @param maxIdleConnections the maximum number of idle connections kept in the pool.
+         */
+        public Builder maxIdleConnections(int maxIdleConnections) {
+            if (maxIdleConnections < 0) {
+                throw new NuxeoClientException("maxIdleConnections < 0: " + maxIdleConnections);
+            }
+            this.maxIdleConnections = maxIdleConnections;
+            return this;
+        }
+
+        /**
+         * @param keepAliveDuration the duration an idle connection is kept in the pool.
+         */
+        public Builder keepAliveDuration(long keepAliveDuration, TimeUnit unit) {
+            if (keepAliveDuration <= 0) {
+                throw new NuxeoClientException("keepAliveDuration <= 0: " + keepAliveDuration);
+            }
+            this.keepAliveDuration = unit.toMillis(keepAliveDuration);
+            return this;
+        }
+
+        /**
+         * @param maxRequests the maximum number of asynchronous calls executed concurrently, the others are queued.
+         */
+        public Builder maxRequests(int maxRequests) {
+            if (maxRequests < 1) {
+                throw new NuxeoClientException("maxRequests < 1: " + maxRequests);
+            }
+            this.maxRequests = maxRequests;
+            return this;
+        }
+
+        /**
+         * @param maxRequestsPerHost the maximum number of asynchronous calls executed concurrently against a host.
+         */
+        public Builder maxRequestsPerHost(int maxRequestsPerHost) {
+            if (maxRequestsPerHost < 1) {
+                throw new NuxeoClientException("maxRequestsPerHost < 1: " + maxRequestsPerHost);
+            }
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        /**
+         * @param executorService the executor running the asynchronous calls, OkHttp's cached thread pool otherwise.
+         */
+        public Builder executorService(ExecutorService executorService) {
+            this.executorService = executorService;
+            return this;
+        }
+
+        public Transport build() {
+            ConnectionPool connectionPool = new ConnectionPool(maxIdleConnections, keepAliveDuration,
+                    TimeUnit.MILLISECONDS);
+            Dispatcher dispatcher = executorService == null ? new Dispatcher() : new Dispatcher(executorService);
+            dispatcher.setMaxRequests(maxRequests);
+            dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+            return new Transport(connectionPool, dispatcher);
+        }
+    }
+
+    /**
+     * Counters of a {@link Transport} at a given time.
+     */
+    public static final class Stats {
+
+        protected final int idleConnections;
+
+        protected final int activeConnections;
+
+        protected final int runningCalls;
+
+        protected final int queuedCalls;
+
+        public Stats(int idleConnections, int activeConnections, int runningCalls, int queuedCalls) {
+            this.idleConnections = idleConnections;
+            this.activeConnections = activeConnections;
+            this.runningCalls = runningCalls;
+            this.queuedCalls = queuedCalls;
+        }
+
+        public int getIdleConnections() {
+            return idleConnections;
+        }
+
+        public int getActiveConnections() {
+            return activeConnections;
+        }
+
+        public int getRunningCalls() {
+            return runningCalls;
+        }
+
+        public int getQueuedCalls() {
+            return queuedCalls;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("idleConnections=%d, activeConnections=%d, runningCalls=%d, queuedCalls=%d",
+                    idleConnections, activeConnections, runningCalls, queuedCalls);
+        }
+    }
+
+}
@@ -0,0 +1,226 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.nuxeo.client.api.ConstantsV1;
+import org.nuxeo.client.api.marshaller.NuxeoConverterFactory;
+import org.nuxeo.client.api.objects.Document;
+import org.nuxeo.client.api.objects.NuxeoEntity;
+import org.nuxeo.client.api.objects.blob.Blob;
+import org.nuxeo.client.api.objects.blob.Blobs;
+import org.nuxeo.client.internals.spi.ResponseCapture;
+
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import okhttp3.Headers;
+import okhttp3.HttpUrl;
+
+/**
+ * Value of the {@link NuxeoResponseCache} entries.
+ * <p>
+ * An entry holds the raw json of the response body, as captured by {@link ResponseCapture}, or the decoded body
+ * marshalled back when it was not captured, and only the response headers that describe it: ETag, Last-Modified and
+ * Content-Type. The json is parsed once, on the first {@link #getBody()}, into tokens which each call unmarshalls into
+ * a new copy, so callers mutating a cached {@link org.nuxeo.client.api.objects.Document} don't alter the cache.
+ * <p>
+ * Once stale, see {@link IndexedResponseCache#isFresh(Object)}, an entry with validators is revalidated with a
+ * conditional request; a 304 Not Modified response serves it again without downloading the body.
+ *
+ * @since 2.6
+ */
+public class CacheEntry {
+
+    private static final Logger logger = LogManager.getLogger(CacheEntry.class);
+
+    protected static final String[] KEPT_HEADERS = { ConstantsV1.HEADER_ETAG, ConstantsV1.HEADER_LAST_MODIFIED,
+            "Content-Type" };
+
+    protected final NuxeoConverterFactory converterFactory;
+
+    protected final Class<?> type;
+
+    protected final byte[] content;
+
+    // the parsed content, on the first read of the body
+    protected volatile TokenBuffer tokens;
+
+    protected final Headers headers;
+
+    protected final List<String> names;
+
+    protected final List<String> related;
+
+    // System.nanoTime() of the last response or revalidation of the server
+    protected volatile long validatedAt;
+
+    // System.nanoTime() of the response, kept when the entry moves between cache tiers
+    protected long writtenAt;
+
+    protected CacheEntry(NuxeoConverterFactory converterFactory, Class<?> type, byte[] content, Headers headers,
+            List<String> names, List<String> related) {
+        this.converterFactory = converterFactory;
+        this.type = type;
+        this.content = content;
+        this.headers = headers;
+        this.names = names;
+        this.related = related;
+        validatedAt = System.nanoTime();
+        writtenAt = validatedAt;
+    }
+
+    /**
+     * @return whether the decoded body can be cached: json strings and entities, except blobs which are backed by
+     *         files.
+     */
+    public static boolean isCacheable(Object body) {
+        return body instanceof String
+                || body instanceof NuxeoEntity && !(body instanceof Blob) && !(body instanceof Blobs);
+    }
+
+    /**
+     * @param body a cacheable body, see {@link #isCacheable(Object)}.
+     * @param headers the response headers.
+     * @param url the request url, to index the entry, see {@link CacheIndex}.
+     * @return the entry, null if the body can't be marshalled back, see {@link #of(NuxeoConverterFactory, Object,
+     *         byte[], Headers, HttpUrl)}.
+     */
+    public static CacheEntry of(NuxeoConverterFactory converterFactory, Object body, Headers headers, HttpUrl url) {
+        return of(converterFactory, body, null, headers, url);
+    }
+
+    /**
+     * @param body a cacheable body, see {@link #isCacheable(Object)}.
+     * @param json the raw json the body was decoded from, see {@link ResponseCapture}, or null to marshall the body
+     *            back.
+     * @param headers the response headers.
+     * @param url the request url, to index the entry, see {@link CacheIndex}.
+     * @return the entry, null if the body can't be marshalled back, for instance with a read only
+     *         {@link org.nuxeo.client.api.marshaller.NuxeoMarshaller}: the response is then not cached.
+     */
+    public static CacheEntry of(NuxeoConverterFactory converterFactory, Object body, byte[] json, Headers headers,
+            HttpUrl url) {
+        byte[] content = json;
+        if (content == null && body instanceof String) {
+            content = ((String) body).getBytes(StandardCharsets.UTF_8);
+        } else if (content == null) {
+            try {
+                content = converterFactory.writeBytes(body);
+            } catch (RuntimeException reason) {
+                logger.debug("Response of " + url + " not cached, its body can't be written", reason);
+                return null;
+            }
+        }
+        Headers.Builder kept = new Headers.Builder();
+        for (String name : KEPT_HEADERS) {
+            String value = headers.get(name);
+            if (value != null) {
+                kept.add(name, value);
+            }
+        }
+        List<String> related = body instanceof Document ? CacheIndex.of((Document) body)
+                : Collections.<String> emptyList();
+        return new CacheEntry(converterFactory, body.getClass(), content, kept.build(), CacheIndex.of(url, body),
+                related);
+    }
+
+    /**
+     * @return a new copy of the cached body.
+     */
+    public Object getBody() {
+        if (type == String.class) {
+            return getRaw();
+        }
+        TokenBuffer parsed = tokens;
+        if (parsed == null) {
+            // racing readers parse the same content
+            parsed = converterFactory.readTokens(content);
+            tokens = parsed;
+        }
+        return converterFactory.readTokens(parsed, type);
+    }
+
+    /**
+     * @return the cached body as json.
+     */
+    public String getRaw() {
+        return new String(content, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return whether the server gave validators to send in conditional requests.
+     */
+    public boolean hasValidators() {
+        return getETag() != null || getLastModified() != null;
+    }
+
+    public String getETag() {
+        return headers.get(ConstantsV1.HEADER_ETAG);
+    }
+
+    public String getLastModified() {
+        return headers.get(ConstantsV1.HEADER_LAST_MODIFIED);
+    }
+
+    /**
+     * Marks the entry as validated by the server, after a 304 Not Modified response.
+     */
+    public void revalidated() {
+        validatedAt = System.nanoTime();
+    }
+
+    /**
+     * @return the nanoseconds elapsed since the entry was stored or revalidated.
+     */
+    public long getAge() {
+        return System.nanoTime() - validatedAt;
+    }
+
+    /**
+     * @return the names of the documents the entry depends on, see {@link CacheIndex}.
+     */
+    public List<String> getNames() {
+        return names;
+    }
+
+    /**
+     * @return the names to evict with the entry, such as the children listing of the parent of a cached document.
+     */
+    public List<String> getRelated() {
+        return related;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public Headers getHeaders() {
+        return headers;
+    }
+
+    public int getLength() {
+        return content.length;
+    }
+
+}
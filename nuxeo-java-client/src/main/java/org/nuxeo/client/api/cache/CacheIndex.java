@@ -0,0 +1,222 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.nuxeo.client.api.objects.Document;
+import org.nuxeo.client.api.objects.Documents;
+
+import okhttp3.HttpUrl;
+
+/**
+ * Names of the secondary index of the {@link NuxeoResponseCache}, mapping documents to the keys of the entries
+ * depending on them.
+ * <p>
+ * A document is indexed by its uid and its path. The entries of a document, its ACLs, audit, blobs and workflows share
+ * its names, its children listing is indexed apart so that changing a child only evicts the listing of its parent.
+ *
+ * @since 2.6
+ */
+public final class CacheIndex {
+
+    protected static final String ID = "id:";
+
+    protected static final String PATH = "path:";
+
+    protected static final String CHILDREN_ADAPTER = "@children";
+
+    protected static final String CHILDREN = "/" + CHILDREN_ADAPTER;
+
+    protected static final String ADAPTER_PREFIX = "@";
+
+    protected static final String DOC_REF_PREFIX = "doc:";
+
+    protected static final String DOC_REFS_PREFIX = "docs:";
+
+    protected static final String API = "api";
+
+    protected static final String VERSION = "v1";
+
+    protected static final String REPO = "repo";
+
+    protected static final String ID_SEGMENT = "id";
+
+    protected static final String PATH_SEGMENT = "path";
+
+    private CacheIndex() {
+        // utility class
+    }
+
+    public static String id(String uid) {
+        return ID + uid;
+    }
+
+    public static String path(String path) {
+        if (path.length() > 1 && path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        return PATH + (path.startsWith("/") ? path : "/" + path);
+    }
+
+    /**
+     * @param ref a document uid or a document path, starting with '/'.
+     */
+    public static String ref(String ref) {
+        return ref.startsWith("/") ? path(ref) : id(ref);
+    }
+
+    public static String children(String name) {
+        return name + CHILDREN;
+    }
+
+    /**
+     * @return the names of the document itself and of its parent children listing, to evict when it changes, followed
+     *         by the given names.
+     */
+    public static List<String> of(Document document, String... names) {
+        List<String> all = new ArrayList<>(4 + names.length);
+        if (document != null) {
+            addChanged(all, document);
+        }
+        Collections.addAll(all, names);
+        return all;
+    }
+
+    /**
+     * @return the names to evict when the document is deleted, its own children listing included.
+     */
+    public static List<String> ofDeleted(Document document) {
+        List<String> names = of(document);
+        if (document.getId() != null) {
+            names.add(children(id(document.getId())));
+        }
+        if (document.getPath() != null) {
+            names.add(children(path(document.getPath())));
+        }
+        return names;
+    }
+
+    /**
+     * Adds the names to evict for the documents of an operation input or result: documents, or document references
+     * such as {@code doc:uid} or {@code docs:path1,path2}.
+     */
+    public static void addChanged(List<String> names, Object documents) {
+        if (documents instanceof Document) {
+            addChanged(names, (Document) documents);
+        } else if (documents instanceof Documents) {
+            for (Document document : ((Documents) documents).getDocuments()) {
+                addChanged(names, document);
+            }
+        } else if (documents instanceof String) {
+            String refs = (String) documents;
+            if (refs.startsWith(DOC_REF_PREFIX) || refs.startsWith(DOC_REFS_PREFIX)) {
+                refs = refs.substring(refs.indexOf(':') + 1);
+            }
+            for (String ref : refs.split(",")) {
+                ref = ref.trim();
+                if (!ref.isEmpty()) {
+                    names.add(ref(ref));
+                }
+            }
+        }
+    }
+
+    protected static void addChanged(List<String> names, Document document) {
+        if (document.getId() != null) {
+            names.add(id(document.getId()));
+        }
+        if (document.getParentRef() != null) {
+            names.add(children(id(document.getParentRef())));
+        }
+        String path = document.getPath();
+        if (path != null) {
+            names.add(path(path));
+            int index = path.lastIndexOf('/', path.length() - 2);
+            if (index >= 0) {
+                names.add(children(path(path.substring(0, index + 1))));
+            }
+        }
+    }
+
+    /**
+     * @return the names of an entry, from the document it was requested from and the documents of its body.
+     */
+    public static List<String> of(HttpUrl url, Object body) {
+        List<String> names = new ArrayList<>(4);
+        String name = ofUrl(url);
+        if (name != null) {
+            names.add(name);
+        }
+        if (body instanceof Document) {
+            addDocument(names, (Document) body);
+        } else if (body instanceof Documents) {
+            for (Document document : ((Documents) body).getDocuments()) {
+                addDocument(names, document);
+            }
+        }
+        return names;
+    }
+
+    protected static void addDocument(List<String> names, Document document) {
+        if (document.getId() != null) {
+            names.add(id(document.getId()));
+        }
+        if (document.getPath() != null) {
+            names.add(path(document.getPath()));
+        }
+    }
+
+    /**
+     * @return the name of the document of the url, such as {@code [repo/{name}/]id/{uid}[/@adapter]} or
+     *         {@code [repo/{name}/]path/{path}[/@adapter]}, null for other urls.
+     */
+    protected static String ofUrl(HttpUrl url) {
+        List<String> segments = url.pathSegments();
+        int size = segments.size();
+        int i = segments.indexOf(API) + 2;
+        if (i < 2 || i >= size || !VERSION.equals(segments.get(i - 1))) {
+            return null;
+        }
+        if (REPO.equals(segments.get(i))) {
+            i += 2;
+        }
+        if (i + 1 >= size) {
+            return null;
+        }
+        String name;
+        int adapter;
+        if (ID_SEGMENT.equals(segments.get(i))) {
+            name = id(segments.get(i + 1));
+            adapter = i + 2;
+        } else if (PATH_SEGMENT.equals(segments.get(i))) {
+            StringBuilder path = new StringBuilder();
+            for (adapter = i + 1; adapter < size && !segments.get(adapter).startsWith(ADAPTER_PREFIX); adapter++) {
+                path.append('/').append(segments.get(adapter));
+            }
+            name = path(path.toString());
+        } else {
+            return null;
+        }
+        return adapter < size && CHILDREN_ADAPTER.equals(segments.get(adapter)) ? children(name) : name;
+    }
+
+}
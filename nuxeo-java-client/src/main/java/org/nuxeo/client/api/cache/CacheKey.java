@@ -0,0 +1,164 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.nuxeo.client.api.ConstantsV1;
+import org.nuxeo.client.api.RequestOptions;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import okhttp3.Headers;
+import okhttp3.Request;
+
+/**
+ * Key of the {@link NuxeoResponseCache} entries.
+ * <p>
+ * A key is the 128 bits murmur3 hash of the request method, its canonical url, the repository name and the headers the
+ * response varies on: {@link ConstantsV1#HEADER_PROPERTIES}, {@link ConstantsV1#HEADER_DEPTH} and the enrichers and
+ * fetch headers of any entity type. These header values are taken from the request, from the client headers and from
+ * the {@link RequestOptions} carried by the request tag, as the client interceptor would send them. Components are
+ * hashed char by char, without building intermediate strings, each one prefixed by its length so that ("ab", "c") and
+ * ("a", "bc") do not collide.
+ *
+ * @since 2.6
+ */
+public final class CacheKey {
+
+    protected static final String HEADER_ENRICHERS_PREFIX = "X-NXenrichers.";
+
+    protected static final String HEADER_FETCH_PREFIX = "X-NXfetch.";
+
+    protected static final HashFunction MURMUR3 = Hashing.murmur3_128();
+
+    protected final long high;
+
+    protected final long low;
+
+    public CacheKey(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    /**
+     * @param request the request as built by retrofit.
+     * @param repositoryName the repository name of the entity, may be null.
+     * @param clientHeaders the headers the client adds to every request.
+     */
+    public static CacheKey compute(Request request, String repositoryName, Headers clientHeaders) {
+        Hasher hash = MURMUR3.newHasher();
+        putString(hash, request.method());
+        // HttpUrl keeps its canonical form
+        putString(hash, request.url().toString());
+        putString(hash, repositoryName == null ? "" : repositoryName);
+        putVaryHeaders(hash, request.headers(), null);
+        Headers optionHeaders = request.tag() instanceof RequestOptions
+                ? ((RequestOptions) request.tag()).getHeaders() : null;
+        putVaryHeaders(hash, clientHeaders, optionHeaders);
+        if (optionHeaders != null) {
+            putVaryHeaders(hash, optionHeaders, null);
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(hash.hash().asBytes()).order(ByteOrder.LITTLE_ENDIAN);
+        return new CacheKey(bytes.getLong(0), bytes.getLong(8));
+    }
+
+    /**
+     * @return whether the responses of the Nuxeo server vary on this header.
+     */
+    public static boolean isVaryHeader(String name) {
+        return ConstantsV1.HEADER_PROPERTIES.equalsIgnoreCase(name) || ConstantsV1.HEADER_DEPTH.equalsIgnoreCase(name)
+                || name.regionMatches(true, 0, HEADER_ENRICHERS_PREFIX, 0, HEADER_ENRICHERS_PREFIX.length())
+                || name.regionMatches(true, 0, HEADER_FETCH_PREFIX, 0, HEADER_FETCH_PREFIX.length());
+    }
+
+    /**
+     * Hashes the vary headers, except the overridden ones.
+     */
+    protected static void putVaryHeaders(Hasher hash, Headers headers, Headers overridden) {
+        for (int i = 0; i < headers.size(); i++) {
+            String name = headers.name(i);
+            if (isVaryHeader(name) && (overridden == null || overridden.get(name) == null)) {
+                // header names are case insensitive
+                putLowerCase(hash, name);
+                putString(hash, headers.value(i));
+            }
+        }
+    }
+
+    protected static void putString(Hasher hash, String value) {
+        hash.putInt(value.length()).putUnencodedChars(value);
+    }
+
+    protected static void putLowerCase(Hasher hash, String value) {
+        int size = value.length();
+        hash.putInt(size);
+        for (int i = 0; i < size; i++) {
+            hash.putChar(Character.toLowerCase(value.charAt(i)));
+        }
+    }
+
+    public long getHigh() {
+        return high;
+    }
+
+    public long getLow() {
+        return low;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof CacheKey)) {
+            return false;
+        }
+        CacheKey other = (CacheKey) obj;
+        return high == other.high && low == other.low;
+    }
+
+    @Override
+    public int hashCode() {
+        // bits are already well distributed
+        return (int) low;
+    }
+
+    /**
+     * @return the key as 32 hexadecimal characters.
+     */
+    @Override
+    public String toString() {
+        char[] chars = new char[32];
+        toHex(high, chars, 0);
+        toHex(low, chars, 16);
+        return new String(chars);
+    }
+
+    protected static void toHex(long value, char[] chars, int offset) {
+        for (int i = 15; i >= 0; i--) {
+            chars[offset + i] = Character.forDigit((int) (value & 0xF), 16);
+            value >>>= 4;
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.cache;
+
+/**
+ * Sink of the {@link NuxeoResponseCache} metrics, by API method name such as {@code fetchDocumentById}, see
+ * {@link InMemoryCacheMetrics} which can also be exposed through JMX.
+ * <p>
+ * Implementations are called on the calling threads and must be thread safe.
+ *
+ * @since 2.6
+ */
+public interface CacheMetrics {
+
+    CacheMetrics NONE = new CacheMetrics() {
+
+        @Override
+        public void recordHit(String method) {
+        }
+
+        @Override
+        public void recordMiss(String method) {
+        }
+
+        @Override
+        public void recordLoad(String method, long nanos) {
+        }
+
+        @Override
+        public void recordEviction() {
+        }
+    };
+
+    /**
+     * A response has been served from the cache, a revalidated entry included.
+     */
+    void recordHit(String method);
+
+    /**
+     * A response has not been found in the cache, or the cache has been refreshed.
+     */
+    void recordMiss(String method);
+
+    /**
+     * A response has been loaded from the server, after a miss or to revalidate an entry.
+     */
+    void recordLoad(String method, long nanos);
+
+    /**
+     * An entry has been evicted from the cache, by size or expiration.
+     */
+    void recordEviction();
+
+}
@@ -0,0 +1,180 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.cache;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.nuxeo.client.internals.spi.NuxeoClientException;
+
+/**
+ * Registry of the cache metrics kept in memory, by API method. It can be exposed through JMX with
+ * {@link #registerMBean(String)}.
+ *
+ * @since 2.6
+ */
+public class InMemoryCacheMetrics implements CacheMetrics, CacheMetricsMXBean {
+
+    public static final String OBJECT_NAME = "org.nuxeo.client:type=CacheMetrics,name=";
+
+    protected final ConcurrentMap<String, Counters> methods = new ConcurrentHashMap<>();
+
+    protected final LongAdder evictions = new LongAdder();
+
+    protected Counters counters(String method) {
+        String name = method == null ? "unknown" : method;
+        // get first: on java 8 computeIfAbsent locks the bin even when the counters are there, on each call
+        Counters counters = methods.get(name);
+        return counters != null ? counters : methods.computeIfAbsent(name, k -> new Counters());
+    }
+
+    @Override
+    public void recordHit(String method) {
+        counters(method).hits.increment();
+    }
+
+    @Override
+    public void recordMiss(String method) {
+        counters(method).misses.increment();
+    }
+
+    @Override
+    public void recordLoad(String method, long nanos) {
+        Counters counters = counters(method);
+        counters.loads.increment();
+        counters.loadNanos.add(nanos);
+    }
+
+    @Override
+    public void recordEviction() {
+        evictions.increment();
+    }
+
+    /**
+     * @return the metrics of the given API method.
+     */
+    public MethodMetrics getMethod(String method) {
+        Counters counters = methods.get(method);
+        return counters == null ? new MethodMetrics(0, 0, 0, 0) : counters.snapshot();
+    }
+
+    @Override
+    public Map<String, MethodMetrics> getMethods() {
+        Map<String, MethodMetrics> snapshot = new TreeMap<>();
+        for (Map.Entry<String, Counters> entry : methods.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return snapshot;
+    }
+
+    /**
+     * @return the metrics of all the API methods.
+     */
+    public MethodMetrics getTotal() {
+        long hits = 0;
+        long misses = 0;
+        long loads = 0;
+        long loadNanos = 0;
+        for (Counters counters : methods.values()) {
+            hits += counters.hits.sum();
+            misses += counters.misses.sum();
+            loads += counters.loads.sum();
+            loadNanos += counters.loadNanos.sum();
+        }
+        return new MethodMetrics(hits, misses, loads, loadNanos);
+    }
+
+    @Override
+    public long getHitCount() {
+        return getTotal().getHitCount();
+    }
+
+    @Override
+    public long getMissCount() {
+        return getTotal().getMissCount();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    @Override
+    public double getHitRatio() {
+        return getTotal().getHitRatio();
+    }
+
+    @Override
+    public double getAverageLoadMillis() {
+        return getTotal().getAverageLoadMillis();
+    }
+
+    @Override
+    public void reset() {
+        methods.clear();
+        evictions.reset();
+    }
+
+    /**
+     * Registers these metrics in the platform MBean server.
+     *
+     * @param name the name of the cache, to distinguish several clients.
+     * @return the object name of the registered MBean.
+     */
+    public ObjectName registerMBean(String name) {
+        try {
+            ObjectName objectName = new ObjectName(OBJECT_NAME + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            return objectName;
+        } catch (JMException reason) {
+            throw new NuxeoClientException("Unable to register cache metrics " + name, reason);
+        }
+    }
+
+    public void unregisterMBean(ObjectName objectName) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException reason) {
+            throw new NuxeoClientException("Unable to unregister cache metrics " + objectName, reason);
+        }
+    }
+
+    protected static class Counters {
+
+        protected final LongAdder hits = new LongAdder();
+
+        protected final LongAdder misses = new LongAdder();
+
+        protected final LongAdder loads = new LongAdder();
+
+        protected final LongAdder loadNanos = new LongAdder();
+
+        protected MethodMetrics snapshot() {
+            return new MethodMetrics(hits.sum(), misses.sum(), loads.sum(), loadNanos.sum());
+        }
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.cache;
+
+import java.util.Collection;
+
+/**
+ * A {@link NuxeoResponseCache} keyed by {@link CacheKey}, indexing its {@link CacheEntry} values by document, telling
+ * stale entries apart and recording metrics, such as {@link ResultCacheInMemory}.
+ * <p>
+ * The client detects this interface: other caches are given the keys as strings, their entries are always served, all
+ * of them are evicted on writes and no metrics are recorded.
+ *
+ * @since 2.6
+ */
+public interface IndexedResponseCache extends NuxeoResponseCache {
+
+    /**
+     * @param key a {@link CacheKey}.
+     * @param value a {@link CacheEntry}, indexed under its {@link CacheEntry#getNames()}.
+     */
+    void put(Object key, Object value);
+
+    /**
+     * Evicts the entries indexed under the given names, see {@link CacheIndex}.
+     */
+    void invalidate(Collection<String> names);
+
+    /**
+     * @param value a cached value, as returned by {@link #getResponse(Object)}.
+     * @return whether the value can be served without revalidating it with the server.
+     */
+    boolean isFresh(Object value);
+
+    /**
+     * @return the sink of the metrics of this cache, {@link CacheMetrics#NONE} when they are not recorded.
+     */
+    CacheMetrics getMetrics();
+
+}
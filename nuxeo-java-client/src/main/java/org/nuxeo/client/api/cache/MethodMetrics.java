@@ -0,0 +1,80 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.cache;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Snapshot of the cache metrics of an API method, see {@link InMemoryCacheMetrics}.
+ *
+ * @since 2.6
+ */
+public class MethodMetrics {
+
+    protected final long hitCount;
+
+    protected final long missCount;
+
+    protected final long loadCount;
+
+    protected final long totalLoadNanos;
+
+    @ConstructorProperties({ "hitCount", "missCount", "loadCount", "totalLoadNanos" })
+    public MethodMetrics(long hitCount, long missCount, long loadCount, long totalLoadNanos) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.loadCount = loadCount;
+        this.totalLoadNanos = totalLoadNanos;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getLoadCount() {
+        return loadCount;
+    }
+
+    public long getTotalLoadNanos() {
+        return totalLoadNanos;
+    }
+
+    /**
+     * @return the ratio of requests served from the cache, 1 when there was no request.
+     */
+    public double getHitRatio() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    public double getAverageLoadMillis() {
+        return loadCount == 0 ? 0.0 : totalLoadNanos / 1e6 / loadCount;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d, misses=%d, hitRatio=%.3f, loads=%d, averageLoadMillis=%.3f", hitCount,
+                missCount, getHitRatio(), loadCount, getAverageLoadMillis());
+    }
+
+}
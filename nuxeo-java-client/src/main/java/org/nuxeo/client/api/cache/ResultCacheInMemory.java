@@ -18,22 +18,29 @@
  */
 package org.nuxeo.client.api.cache;
 
-import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
-import org.nuxeo.client.internals.spi.NuxeoClientException;
-
-import retrofit2.Response;
-
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
 
 /**
+ * Cache of {@link CacheEntry} values, indexed by the documents they depend on so that a change of a document only
+ * evicts its entries, see {@link CacheIndex}.
+ *
  * @since 0.1
  */
-public class ResultCacheInMemory implements NuxeoResponseCache {
+public class ResultCacheInMemory implements IndexedResponseCache {
 
-    protected final Cache<String, Object> cache;
+    protected final Cache<Object, Object> cache;
 
     protected static final Integer CACHE_CONCURRENCY_LEVEL = 10;
 
@@ -41,25 +48,56 @@ public class ResultCacheInMemory implements NuxeoResponseCache {
 
     protected static final Integer CACHE_TIMEOUT = 10;
 
-    public Cache<String, Object> getCache() {
+    protected static final long NO_REVALIDATION = -1;
+
+    /**
+     * Nanoseconds after which an entry is revalidated with the server, entries are served until they expire when
+     * negative.
+     *
+     * @since 2.6
+     */
+    protected final long revalidateAfter;
+
+    /**
+     * Keys of the entries by document, see {@link CacheIndex}.
+     *
+     * @since 2.6
+     */
+    protected final ConcurrentMap<String, Set<Object>> index = new ConcurrentHashMap<>();
+
+    /**
+     * @since 2.6
+     */
+    protected volatile CacheMetrics metrics = CacheMetrics.NONE;
+
+    public Cache<Object, Object> getCache() {
         return cache;
     }
 
     public ResultCacheInMemory() {
-        cache = CacheBuilder.newBuilder()
-                            .concurrencyLevel(CACHE_CONCURRENCY_LEVEL)
-                            .maximumSize(CACHE_MAXIMUM_SIZE)
-                            .expireAfterWrite(CACHE_TIMEOUT, TimeUnit.MINUTES)
-                            .build();
+        this(CACHE_CONCURRENCY_LEVEL, CACHE_MAXIMUM_SIZE, CACHE_TIMEOUT, NO_REVALIDATION, TimeUnit.MINUTES);
     }
 
     public ResultCacheInMemory(int cache_concurrency_level, long cache_maximum_size, long cache_timeout,
             TimeUnit time_unit) {
+        this(cache_concurrency_level, cache_maximum_size, cache_timeout, NO_REVALIDATION, time_unit);
+    }
+
+    /**
+     * @param cache_revalidate_after the duration after which entries are revalidated with conditional requests, they
+     *            are kept until cache_timeout as long as the server answers 304 Not Modified.
+     * @since 2.6
+     */
+    public ResultCacheInMemory(int cache_concurrency_level, long cache_maximum_size, long cache_timeout,
+            long cache_revalidate_after, TimeUnit time_unit) {
         cache = CacheBuilder.newBuilder()
                             .concurrencyLevel(cache_concurrency_level)
                             .maximumSize(cache_maximum_size)
                             .expireAfterWrite(cache_timeout, time_unit)
+                            .removalListener(this::unindex)
+                            .recordStats()
                             .build();
+        revalidateAfter = cache_revalidate_after < 0 ? NO_REVALIDATION : time_unit.toNanos(cache_revalidate_after);
     }
 
     @Override
@@ -69,7 +107,51 @@ public class ResultCacheInMemory implements NuxeoResponseCache {
 
     @Override
     public void put(String key, Object value) {
+        put((Object) key, value);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
         cache.put(key, value);
+        if (value instanceof CacheEntry) {
+            index(key, ((CacheEntry) value).getNames());
+        }
+    }
+
+    protected void unindex(RemovalNotification<Object, Object> notification) {
+        if (notification.wasEvicted()) {
+            metrics.recordEviction();
+        }
+        // a replacing entry is indexed with the same key
+        if (notification.getCause() != RemovalCause.REPLACED && notification.getValue() instanceof CacheEntry) {
+            unindex(notification.getKey(), ((CacheEntry) notification.getValue()).getNames());
+        }
+    }
+
+    /**
+     * @since 2.6
+     */
+    protected void index(Object key, List<String> names) {
+        for (String name : names) {
+            // sets are only mutated under the lock of their bin, an unmapped one is never changed again
+            index.compute(name, (k, keys) -> {
+                Set<Object> indexed = keys == null ? Collections.newSetFromMap(new ConcurrentHashMap<>()) : keys;
+                indexed.add(key);
+                return indexed;
+            });
+        }
+    }
+
+    /**
+     * @since 2.6
+     */
+    protected void unindex(Object key, List<String> names) {
+        for (String name : names) {
+            index.computeIfPresent(name, (k, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
     }
 
     @Override
@@ -79,28 +161,81 @@ public class ResultCacheInMemory implements NuxeoResponseCache {
 
     @Override
     public Object getRaw(Object key) {
-        Object result = cache.getIfPresent(key);
+        Object result = getResponse(key);
         if (result == null) {
             return null;
         }
-        try {
-            return ((Response) result).raw().body().string();
-        } catch (IOException reason) {
-            throw new NuxeoClientException(reason);
-        }
+        return ((CacheEntry) result).getRaw();
     }
 
     @Override
     public Object getBody(Object key) {
-        Object result = cache.getIfPresent(key);
+        Object result = getResponse(key);
         if (result == null) {
             return null;
         }
-        return ((Response) result).body();
+        return ((CacheEntry) result).getBody();
     }
 
     @Override
     public void invalidateAll() {
         cache.invalidateAll();
     }
+
+    @Override
+    public void invalidate(Collection<String> names) {
+        Set<String> related = new HashSet<>();
+        for (String name : names) {
+            Set<Object> keys = index.remove(name);
+            if (keys != null) {
+                for (Object key : keys) {
+                    related.addAll(getRelated(key));
+                    invalidateKey(key);
+                }
+            }
+        }
+        for (String name : related) {
+            Set<Object> keys = index.remove(name);
+            if (keys != null) {
+                for (Object key : keys) {
+                    invalidateKey(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the names to evict with the entry of the key, see {@link CacheEntry#getRelated()}.
+     * @since 2.6
+     */
+    protected List<String> getRelated(Object key) {
+        Object value = cache.getIfPresent(key);
+        return value instanceof CacheEntry ? ((CacheEntry) value).getRelated() : Collections.<String> emptyList();
+    }
+
+    /**
+     * @since 2.6
+     */
+    protected void invalidateKey(Object key) {
+        cache.invalidate(key);
+    }
+
+    @Override
+    public CacheMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @param metrics the sink of the metrics of this cache, such as {@link InMemoryCacheMetrics}.
+     * @since 2.6
+     */
+    public ResultCacheInMemory setMetrics(CacheMetrics metrics) {
+        this.metrics = metrics == null ? CacheMetrics.NONE : metrics;
+        return this;
+    }
+
+    @Override
+    public boolean isFresh(Object value) {
+        return revalidateAfter < 0 || ((CacheEntry) value).getAge() < revalidateAfter;
+    }
 }
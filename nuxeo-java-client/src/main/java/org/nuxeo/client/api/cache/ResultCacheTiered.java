@@ -0,0 +1,280 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.nuxeo.client.api.marshaller.NuxeoConverterFactory;
+import org.nuxeo.client.internals.spi.NuxeoClientException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+
+import okhttp3.Headers;
+
+/**
+ * Two tiers cache: a small on-heap tier of {@link CacheEntry} values, as {@link ResultCacheInMemory}, backed by a
+ * larger overflow tier storing the entries evicted from the first one as serialized bytes in direct (off-heap)
+ * buffers.
+ * <p>
+ * The overflow tier has a byte budget and evicts the least recently used entries by size when it is exceeded. An entry
+ * found in the overflow tier is moved back to the on-heap tier. Entries keep the time of their response when moving
+ * between tiers, those older than the cache timeout are dropped instead of being moved. Hits, misses and evictions are
+ * recorded per tier, see {@link #getHotStats()} and {@link #getOverflowStats()}.
+ *
+ * @since 2.6
+ */
+public class ResultCacheTiered extends ResultCacheInMemory {
+
+    protected static final long CACHE_OVERFLOW_MAXIMUM_BYTES = 64L * 1024 * 1024;
+
+    // on-heap bookkeeping of an overflow entry
+    protected static final int OVERFLOW_ENTRY_OVERHEAD = 128;
+
+    protected final Cache<Object, OverflowEntry> overflow;
+
+    protected final long overflowMaximumBytes;
+
+    protected final AtomicLong overflowBytes = new AtomicLong();
+
+    protected final long timeout;
+
+    public ResultCacheTiered() {
+        this(CACHE_CONCURRENCY_LEVEL, CACHE_MAXIMUM_SIZE, CACHE_OVERFLOW_MAXIMUM_BYTES, CACHE_TIMEOUT,
+                NO_REVALIDATION, TimeUnit.MINUTES);
+    }
+
+    /**
+     * @param cache_maximum_size the number of entries of the on-heap tier.
+     * @param cache_overflow_maximum_bytes the byte budget of the overflow tier.
+     */
+    public ResultCacheTiered(int cache_concurrency_level, long cache_maximum_size, long cache_overflow_maximum_bytes,
+            long cache_timeout, long cache_revalidate_after, TimeUnit time_unit) {
+        super(cache_concurrency_level, cache_maximum_size, cache_timeout, cache_revalidate_after, time_unit);
+        overflowMaximumBytes = cache_overflow_maximum_bytes;
+        timeout = time_unit.toNanos(cache_timeout);
+        overflow = CacheBuilder.newBuilder()
+                               .concurrencyLevel(cache_concurrency_level)
+                               .maximumWeight(cache_overflow_maximum_bytes)
+                               .weigher((Object key, OverflowEntry value) -> value.getWeight())
+                               .expireAfterWrite(cache_timeout, time_unit)
+                               .removalListener(this::overflowRemoved)
+                               .recordStats()
+                               .build();
+    }
+
+    @Override
+    public Object getResponse(Object key) {
+        Object value = cache.getIfPresent(key);
+        if (value instanceof CacheEntry && isExpired(((CacheEntry) value).writtenAt)) {
+            // a promoted entry, the on-heap tier only expires it a timeout after its promotion
+            cache.asMap().remove(key, value);
+            return null;
+        } else if (value != null) {
+            return value;
+        }
+        OverflowEntry overflowed = overflow.getIfPresent(key);
+        if (overflowed == null) {
+            return null;
+        } else if (isExpired(overflowed.writtenAt)) {
+            // the removal unindexes the entry
+            overflow.asMap().remove(key, overflowed);
+            return null;
+        }
+        // indexed again before leaving the overflow tier, for a concurrent invalidation to find it in either tier
+        CacheEntry entry = overflowed.toEntry();
+        put(key, entry);
+        overflowed.promoted = true;
+        if (!overflow.asMap().remove(key, overflowed)) {
+            // invalidated or promoted by another thread meanwhile, the removal unindexes the entry
+            cache.asMap().remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * @param writtenAt the {@link System#nanoTime()} of the response of an entry.
+     * @return whether the entry is older than the cache timeout.
+     */
+    protected boolean isExpired(long writtenAt) {
+        return System.nanoTime() - writtenAt >= timeout;
+    }
+
+    /**
+     * Moves the entries evicted from the on-heap tier by size to the overflow tier, they stay indexed and are not
+     * recorded as evicted.
+     */
+    @Override
+    protected void unindex(RemovalNotification<Object, Object> notification) {
+        if (notification.getCause() == RemovalCause.SIZE && notification.getValue() instanceof CacheEntry
+                && !isExpired(((CacheEntry) notification.getValue()).writtenAt)) {
+            OverflowEntry overflowed = new OverflowEntry((CacheEntry) notification.getValue());
+            overflowBytes.addAndGet(overflowed.getWeight());
+            overflow.put(notification.getKey(), overflowed);
+        } else {
+            super.unindex(notification);
+        }
+    }
+
+    protected void overflowRemoved(RemovalNotification<Object, OverflowEntry> notification) {
+        OverflowEntry overflowed = notification.getValue();
+        overflowBytes.addAndGet(-overflowed.getWeight());
+        if (notification.wasEvicted()) {
+            metrics.recordEviction();
+        }
+        // a replacing or promoted entry is indexed with the same key
+        if (notification.getCause() != RemovalCause.REPLACED && !overflowed.promoted) {
+            unindex(notification.getKey(), overflowed.names);
+        }
+    }
+
+    @Override
+    protected List<String> getRelated(Object key) {
+        OverflowEntry overflowed = overflow.getIfPresent(key);
+        return overflowed == null ? super.getRelated(key) : overflowed.related;
+    }
+
+    @Override
+    protected void invalidateKey(Object key) {
+        cache.invalidate(key);
+        overflow.invalidate(key);
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.invalidateAll();
+        overflow.invalidateAll();
+    }
+
+    @Override
+    public int size() {
+        return cache.asMap().size() + overflow.asMap().size();
+    }
+
+    /**
+     * @return the statistics of the on-heap tier, its evictions are the entries moved to the overflow tier.
+     */
+    public CacheStats getHotStats() {
+        return cache.stats();
+    }
+
+    /**
+     * @return the statistics of the overflow tier, its evictions are the entries dropped from the cache.
+     */
+    public CacheStats getOverflowStats() {
+        return overflow.stats();
+    }
+
+    /**
+     * @return the bytes used by the overflow tier, serialized entries and their bookkeeping.
+     */
+    public long getOverflowBytes() {
+        return overflowBytes.get();
+    }
+
+    public long getOverflowMaximumBytes() {
+        return overflowMaximumBytes;
+    }
+
+    /**
+     * Entry of the overflow tier: the headers and content of a {@link CacheEntry} in a direct buffer.
+     */
+    protected static class OverflowEntry {
+
+        protected final NuxeoConverterFactory converterFactory;
+
+        protected final Class<?> type;
+
+        protected final List<String> names;
+
+        protected final List<String> related;
+
+        protected final long validatedAt;
+
+        protected final long writtenAt;
+
+        // set before the entry moves back to the on-heap tier
+        protected volatile boolean promoted;
+
+        protected final ByteBuffer buffer;
+
+        protected OverflowEntry(CacheEntry entry) {
+            converterFactory = entry.converterFactory;
+            type = entry.type;
+            names = entry.names;
+            related = entry.related;
+            validatedAt = entry.validatedAt;
+            writtenAt = entry.writtenAt;
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(entry.content.length + 64);
+            try (DataOutputStream output = new DataOutputStream(bytes)) {
+                Headers headers = entry.headers;
+                output.writeInt(headers.size());
+                for (int i = 0; i < headers.size(); i++) {
+                    output.writeUTF(headers.name(i));
+                    output.writeUTF(headers.value(i));
+                }
+                output.writeInt(entry.content.length);
+                output.write(entry.content);
+            } catch (IOException reason) {
+                throw new NuxeoClientException(reason);
+            }
+            buffer = ByteBuffer.allocateDirect(bytes.size());
+            buffer.put(bytes.toByteArray());
+            // the cast links to Buffer#flip, ByteBuffer#flip only exists since java 9
+            ((Buffer) buffer).flip();
+        }
+
+        protected int getWeight() {
+            return buffer.capacity() + OVERFLOW_ENTRY_OVERHEAD;
+        }
+
+        protected CacheEntry toEntry() {
+            byte[] bytes = new byte[buffer.capacity()];
+            buffer.duplicate().get(bytes);
+            try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+                Headers.Builder headers = new Headers.Builder();
+                for (int i = input.readInt(); i > 0; i--) {
+                    headers.add(input.readUTF(), input.readUTF());
+                }
+                byte[] content = new byte[input.readInt()];
+                input.readFully(content);
+                CacheEntry entry = new CacheEntry(converterFactory, type, content, headers.build(), names, related);
+                entry.validatedAt = validatedAt;
+                entry.writtenAt = writtenAt;
+                return entry;
+            } catch (IOException reason) {
+                throw new NuxeoClientException(reason);
+            }
+        }
+    }
+
+}
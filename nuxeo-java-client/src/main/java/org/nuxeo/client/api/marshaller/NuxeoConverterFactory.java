@@ -26,11 +26,16 @@ import java.util.concurrent.ConcurrentHashMap;
 
 import org.nuxeo.client.internals.spi.NuxeoClientException;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 
 import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
@@ -130,4 +135,78 @@ public class NuxeoConverterFactory extends Converter.Factory {
             throw new NuxeoClientException("Converter Write Issue. See NuxeoConverterFactory#writeJSON", reason);
         }
     }
+
+    /**
+     * @since 2.6
+     * @param object the pojo to marshall, with the registered marshaller of its type if any
+     * @return the json as utf-8 bytes
+     */
+    public byte[] writeBytes(Object object) {
+        NuxeoMarshaller<?> nuxeoMarshaller = marshallers.get(object.getClass());
+        try {
+            if (nuxeoMarshaller == null) {
+                return mapper.writeValueAsBytes(object);
+            }
+            ByteArrayBuilder bb = new ByteArrayBuilder();
+            try (JsonGenerator jg = mapper.getFactory().createGenerator(bb, JsonEncoding.UTF8)) {
+                nuxeoMarshaller.write(jg, object);
+            }
+            return bb.toByteArray();
+        } catch (IOException reason) {
+            throw new NuxeoClientException("Converter Write Issue. See NuxeoConverterFactory#writeBytes", reason);
+        }
+    }
+
+    /**
+     * @since 2.6
+     * @param json the json as utf-8 bytes, as written by {@link #writeBytes(Object)}
+     * @param javaType the pojo to use for unmarshalling, with its registered marshaller if any
+     * @return the pojo generated from the json
+     */
+    public <T> T readBytes(byte[] json, Class<T> javaType) {
+        try (JsonParser jp = mapper.getFactory().createParser(json)) {
+            return read(jp, javaType);
+        } catch (IOException reason) {
+            throw new NuxeoClientException("Converter Read Issue. See NuxeoConverterFactory#readBytes", reason);
+        }
+    }
+
+    /**
+     * @since 2.6
+     * @param json the json as utf-8 bytes
+     * @return the tokens of the json, to unmarshall copies of it without parsing it again, see
+     *         {@link #readTokens(TokenBuffer, Class)}
+     */
+    public TokenBuffer readTokens(byte[] json) {
+        try (JsonParser jp = mapper.getFactory().createParser(json)) {
+            TokenBuffer tokens = new TokenBuffer(jp);
+            jp.nextToken();
+            tokens.copyCurrentStructure(jp);
+            return tokens;
+        } catch (IOException reason) {
+            throw new NuxeoClientException("Converter Read Issue. See NuxeoConverterFactory#readTokens", reason);
+        }
+    }
+
+    /**
+     * @since 2.6
+     * @param tokens the tokens of the json, as read by {@link #readTokens(byte[])}, which can be read again
+     * @param javaType the pojo to use for unmarshalling, with its registered marshaller if any
+     * @return a new pojo generated from the tokens
+     */
+    public <T> T readTokens(TokenBuffer tokens, Class<T> javaType) {
+        try (JsonParser jp = tokens.asParser(mapper)) {
+            return read(jp, javaType);
+        } catch (IOException reason) {
+            throw new NuxeoClientException("Converter Read Issue. See NuxeoConverterFactory#readTokens", reason);
+        }
+    }
+
+    protected <T> T read(JsonParser jp, Class<T> javaType) throws IOException {
+        NuxeoMarshaller<?> nuxeoMarshaller = marshallers.get(javaType);
+        if (nuxeoMarshaller == null) {
+            return mapper.readValue(jp, javaType);
+        }
+        return javaType.cast(nuxeoMarshaller.read(jp));
+    }
 }
@@ -21,12 +21,7 @@ package org.nuxeo.client.api.marshaller;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.Reader;
-import java.util.Map;
-
-import javax.mail.BodyPart;
-import javax.mail.MessagingException;
-import javax.mail.internet.MimeMultipart;
-import javax.mail.util.ByteArrayDataSource;
+import java.nio.charset.StandardCharsets;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -35,12 +30,17 @@ import org.nuxeo.client.api.objects.Document;
 import org.nuxeo.client.api.objects.Documents;
 import org.nuxeo.client.api.objects.RecordSet;
 import org.nuxeo.client.api.objects.blob.Blob;
+import org.nuxeo.client.api.objects.blob.BlobPartHandler;
+import org.nuxeo.client.api.objects.blob.BlobPartHandlers;
 import org.nuxeo.client.api.objects.blob.Blobs;
+import org.nuxeo.client.api.objects.blob.StreamBlob;
 import org.nuxeo.client.internals.spi.NuxeoClientException;
 import org.nuxeo.client.internals.util.IOUtils;
 import org.nuxeo.client.internals.util.MediaType;
+import org.nuxeo.client.internals.util.MultipartReader;
 
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
@@ -55,6 +55,8 @@ public final class NuxeoResponseConverterFactory<T> implements Converter<Respons
 
     private static final Logger logger = LogManager.getLogger(NuxeoResponseConverterFactory.class);
 
+    protected static final int DEBUG_MAX_LENGTH = 4096;
+
     protected JavaType javaType;
 
     protected NuxeoMarshaller<T> nuxeoMarshaller;
@@ -78,30 +80,22 @@ public final class NuxeoResponseConverterFactory<T> implements Converter<Respons
     public T convert(ResponseBody value) throws IOException {
         // Checking custom marshallers with the type of the method clientside.
         if (nuxeoMarshaller != null) {
-            String response = extractJson(value);
-            logger.debug(response);
-            JsonParser jsonParser = objectMapper.getFactory().createParser(response);
-            return nuxeoMarshaller.read(jsonParser);
+            try (JsonParser jsonParser = createParser(value)) {
+                return nuxeoMarshaller.read(jsonParser);
+            }
         }
         // Checking if multipart outputs.
         MediaType mediaType = MediaType.parse(value.contentType().toString());
+        // Streaming the blob from the response, whatever its type.
+        if (StreamBlob.class.equals(javaType.getRawClass())) {
+            String mimeType = mediaType.type() + "/" + mediaType.subtype();
+            return (T) new StreamBlob(null, mimeType, value.byteStream(), value.contentLength());
+        }
         if (!(mediaType.type().equals(ConstantsV1.APPLICATION) && mediaType.subtype().equals(ConstantsV1.JSON))
                 && !(mediaType.type().equals(ConstantsV1.APPLICATION)
                         && mediaType.subtype().equals(ConstantsV1.JSON_NXENTITY))) {
             if (mediaType.type().equals(ConstantsV1.MULTIPART)) {
-                Blobs blobs = new Blobs();
-                try {
-                    MimeMultipart mp = new MimeMultipart(
-                            new ByteArrayDataSource(value.byteStream(), mediaType.toString()));
-                    int size = mp.getCount();
-                    for (int i = 0; i < size; i++) {
-                        BodyPart part = mp.getBodyPart(i);
-                        blobs.add(part.getFileName(), IOUtils.copyToTempFile(part.getInputStream()));
-                    }
-                } catch (MessagingException reason) {
-                    throw new IOException(reason);
-                }
-                return (T) blobs;
+                return (T) readBlobs(value, BlobPartHandlers.toTempFile());
             } else {
                 return (T) new Blob(IOUtils.copyToTempFile(value.byteStream()));
             }
@@ -112,32 +106,22 @@ public final class NuxeoResponseConverterFactory<T> implements Converter<Respons
             if (nuxeoEntity != null) {
                 switch (nuxeoEntity) {
                 case ConstantsV1.ENTITY_TYPE_DOCUMENT:
-                    return (T) readJSON(extractJson(value), Document.class);
+                    return (T) readJSON(value, Document.class);
                 case ConstantsV1.ENTITY_TYPE_DOCUMENTS:
-                    return (T) readJSON(extractJson(value), Documents.class);
+                    return (T) readJSON(value, Documents.class);
                 default:
                     return (T) value;
                 }
             } else {
-                String response = extractJson(value);
-                Object objectResponse = readJSON(response, Object.class);
-                if (objectResponse instanceof Map) {
-                    Object entityType = ((Map<String, Object>) objectResponse).get(ConstantsV1.ENTITY_TYPE);
-                    if (entityType != null) {
-                        // Handle the legacy case when no 'entity-type' header has been set in the response but
-                        // `entity-type` is written in the json payload as RecordSet objects
-                        switch ((String) entityType) {
-                        case ConstantsV1.ENTITY_TYPE_RECORDSET:
-                            return (T) readJSON(response, RecordSet.class);
-                        default:
-                            return (T) response;
-                        }
-                    }
-                    return (T) response;
-                } else {
-                    // Handle the cases when there is no `entity-type` in the json payload either in header
-                    return (T) response;
+                // the json is returned as is, unless it is a RecordSet
+                byte[] response = value.bytes();
+                logDebug(response);
+                // Handle the legacy case when no 'entity-type' header has been set in the response but
+                // `entity-type` is written in the json payload as RecordSet objects
+                if (ConstantsV1.ENTITY_TYPE_RECORDSET.equals(peekEntityType(response))) {
+                    return (T) objectMapper.readerFor(RecordSet.class).readValue(response);
                 }
+                return (T) new String(response, mediaType.charset(StandardCharsets.UTF_8));
             }
         }
         Reader reader = value.charStream();
@@ -150,12 +134,97 @@ public final class NuxeoResponseConverterFactory<T> implements Converter<Respons
         }
     }
 
+    /**
+     * Reads the blobs of the response one part after the other, each part being given to the handler while it is read
+     * from the response, the response is closed once read.
+     *
+     * @return the blobs of a multipart response, or the single blob of another response.
+     * @since 2.6
+     */
+    public static Blobs readBlobs(ResponseBody value, BlobPartHandler handler) throws IOException {
+        Blobs blobs = new Blobs();
+        try (ResponseBody body = value) {
+            String contentType = body.contentType() == null ? null : body.contentType().toString();
+            String boundary = contentType == null ? null : MultipartReader.boundary(contentType);
+            if (boundary == null) {
+                String mimeType = contentType == null ? null : contentType.replaceFirst(";.*", "").trim();
+                blobs.add(handler.handle(null, mimeType, body.source()));
+                return blobs;
+            }
+            MultipartReader reader = new MultipartReader(body.source(), boundary);
+            for (MultipartReader.Part part = reader.nextPart(); part != null; part = reader.nextPart()) {
+                blobs.add(handler.handle(part.fileName(), part.mimeType(), part.body()));
+            }
+        }
+        return blobs;
+    }
+
+    /**
+     * @deprecated since 2.6, the json is decoded from the response stream, see {@link #createParser(ResponseBody)}.
+     */
+    @Deprecated
     protected String extractJson(ResponseBody value) throws IOException {
         String response = value.string();
         logger.debug(response);
         return response;
     }
 
+    /**
+     * @return a parser on the response stream, the response is buffered to be logged in debug only.
+     * @since 2.6
+     */
+    protected JsonParser createParser(ResponseBody value) throws IOException {
+        if (logger.isDebugEnabled()) {
+            byte[] response = value.bytes();
+            logDebug(response);
+            return objectMapper.getFactory().createParser(response);
+        }
+        return objectMapper.getFactory().createParser(value.byteStream());
+    }
+
+    /**
+     * @return the value of the top level {@code entity-type} field, without decoding the other ones.
+     * @since 2.6
+     */
+    protected String peekEntityType(byte[] json) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if (ConstantsV1.ENTITY_TYPE.equals(field)) {
+                    return token == JsonToken.VALUE_STRING ? parser.getText() : null;
+                }
+                parser.skipChildren();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Logs at most {@link #DEBUG_MAX_LENGTH} bytes of the response.
+     *
+     * @since 2.6
+     */
+    protected static void logDebug(byte[] response) {
+        if (logger.isDebugEnabled()) {
+            int length = Math.min(response.length, DEBUG_MAX_LENGTH);
+            String json = new String(response, 0, length, StandardCharsets.UTF_8);
+            logger.debug(length < response.length ? json + "... (" + response.length + " bytes)" : json);
+        }
+    }
+
+    /**
+     * @since 2.6
+     */
+    protected <T> T readJSON(ResponseBody value, Class<T> javaType) throws IOException {
+        try (JsonParser jsonParser = createParser(value)) {
+            return objectMapper.readerFor(javaType).readValue(jsonParser);
+        }
+    }
+
     static void closeQuietly(Closeable closeable) {
         if (closeable == null)
             return;
@@ -23,6 +23,7 @@ import java.util.Map;
 
 import okhttp3.MultipartBody;
 import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
 
 import org.nuxeo.client.api.objects.Operation;
 import org.nuxeo.client.api.objects.operation.OperationBody;
@@ -35,6 +36,7 @@ import retrofit2.http.POST;
 import retrofit2.http.Part;
 import retrofit2.http.PartMap;
 import retrofit2.http.Path;
+import retrofit2.http.Streaming;
 
 /**
  * @since 0.1
@@ -55,6 +57,22 @@ public interface OperationAPI {
     @POST("automation/{operationId}")
     Call<Object> execute(@Path("operationId") String operationId, @Part("request") OperationBody body, @Part List<MultipartBody.Part> filePart);
 
+    /**
+     * @since 2.6
+     */
+    @Streaming
+    @POST("automation/{operationId}")
+    Call<ResponseBody> executeStream(@Path("operationId") String operationId, @Body OperationBody body);
+
+    /**
+     * @since 2.6
+     */
+    @Streaming
+    @Multipart
+    @POST("automation/{operationId}")
+    Call<ResponseBody> executeStream(@Path("operationId") String operationId, @Part("request") OperationBody body,
+            @Part List<MultipartBody.Part> filePart);
+
     @POST("upload/{batchId}/{fileIdx}/execute/{operationId}")
     Call<Object> execute(@Path("batchId") String batchId, @Path("fileIdx") String fileIdx,
             @Path("operationId") String operationId, @Body OperationBody body);
@@ -22,6 +22,7 @@ import okhttp3.ResponseBody;
 
 import org.nuxeo.client.api.objects.Document;
 import org.nuxeo.client.api.objects.blob.Blob;
+import org.nuxeo.client.api.objects.blob.StreamBlob;
 import org.nuxeo.client.api.objects.Documents;
 import org.nuxeo.client.api.objects.acl.ACP;
 import org.nuxeo.client.api.objects.audit.Audit;
@@ -38,6 +39,7 @@ import retrofit2.http.POST;
 import retrofit2.http.PUT;
 import retrofit2.http.Path;
 import retrofit2.http.Query;
+import retrofit2.http.Streaming;
 
 public interface RepositoryAPI {
 
@@ -160,6 +162,38 @@ public interface RepositoryAPI {
     @GET("repo/{repositoryName}/id/{documentId}/@blob/{fieldPath}")
     Call<Blob> fetchBlobById(@Path("documentId") String documentId, @Path(value = "fieldPath", encoded = true) String fieldPath, @Path("repositoryName") String repositoryName);
 
+    /**
+     * @since 2.6
+     */
+    @Streaming
+    @GET("path{documentPath}/@blob/{fieldPath}")
+    Call<StreamBlob> streamBlobByPath(@Path(value = "documentPath", encoded = true) String documentPath,
+            @Path(value = "fieldPath", encoded = true) String fieldPath);
+
+    /**
+     * @since 2.6
+     */
+    @Streaming
+    @GET("id/{documentId}/@blob/{fieldPath}")
+    Call<StreamBlob> streamBlobById(@Path("documentId") String documentId,
+            @Path(value = "fieldPath", encoded = true) String fieldPath);
+
+    /**
+     * @since 2.6
+     */
+    @Streaming
+    @GET("repo/{repositoryName}/path{documentPath}/@blob/{fieldPath}")
+    Call<StreamBlob> streamBlobByPath(@Path(value = "documentPath", encoded = true) String documentPath,
+            @Path(value = "fieldPath", encoded = true) String fieldPath, @Path("repositoryName") String repositoryName);
+
+    /**
+     * @since 2.6
+     */
+    @Streaming
+    @GET("repo/{repositoryName}/id/{documentId}/@blob/{fieldPath}")
+    Call<StreamBlob> streamBlobById(@Path("documentId") String documentId,
+            @Path(value = "fieldPath", encoded = true) String fieldPath, @Path("repositoryName") String repositoryName);
+
 
     /* Workflows */
 
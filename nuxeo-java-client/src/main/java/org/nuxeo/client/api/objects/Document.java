@@ -32,11 +32,13 @@ import java.util.Map.Entry;
 import okhttp3.ResponseBody;
 
 import org.nuxeo.client.api.ConstantsV1;
+import org.nuxeo.client.api.cache.CacheIndex;
 import org.nuxeo.client.api.objects.acl.ACE;
 import org.nuxeo.client.api.objects.acl.ACL;
 import org.nuxeo.client.api.objects.acl.ACP;
 import org.nuxeo.client.api.objects.audit.Audit;
 import org.nuxeo.client.api.objects.blob.Blob;
+import org.nuxeo.client.api.objects.blob.StreamBlob;
 import org.nuxeo.client.api.objects.task.Task;
 import org.nuxeo.client.api.objects.workflow.Workflow;
 import org.nuxeo.client.api.objects.workflow.Workflows;
@@ -388,7 +390,9 @@ public class Document extends NuxeoEntity {
     }
 
     public Document updateDocument() {
-        return (Document) getResponse(uid, this);
+        Document updated = (Document) fetchResponse("updateDocument", uid, this);
+        invalidateCache(CacheIndex.of(updated, CacheIndex.id(uid)));
+        return updated;
     }
 
     /* Audit Sync */
@@ -398,17 +402,17 @@ public class Document extends NuxeoEntity {
     }
 
     public Audit fetchAuditById(String documentId) {
-        return (Audit) getResponse(documentId);
+        return (Audit) fetchResponse("fetchAuditById", documentId);
     }
 
     /* Audit Async */
 
     public void fetchAudit(Callback<Audit> callback) {
-        execute(callback, uid);
+        enqueue("fetchAuditById", callback, uid);
     }
 
     public void fetchAuditById(String documentId, Callback<Audit> callback) {
-        execute(callback, documentId);
+        enqueue("fetchAuditById", callback, documentId);
     }
 
     /* ACP Sync */
@@ -418,7 +422,7 @@ public class Document extends NuxeoEntity {
     }
 
     protected ACP fetchPermissionsById(String documentId) {
-        return (ACP) getResponse(documentId);
+        return (ACP) fetchResponse("fetchPermissionsById", documentId);
     }
 
     /**
@@ -487,11 +491,11 @@ public class Document extends NuxeoEntity {
     /* ACP Async */
 
     public void fetchACP(Callback<ACP> callback) {
-        execute(callback, uid);
+        enqueue("fetchPermissionsById", callback, uid);
     }
 
     protected void fetchACPById(String documentId, Callback<ACP> callback) {
-        execute(callback, documentId);
+        enqueue("fetchPermissionsById", callback, documentId);
     }
 
     /**
@@ -530,17 +534,17 @@ public class Document extends NuxeoEntity {
     }
 
     public Documents fetchChildrenById(String parentId) {
-        return (Documents) getResponse(parentId);
+        return (Documents) fetchResponse("fetchChildrenById", parentId);
     }
 
     /* Children Async */
 
     public void fetchChildren(Callback<Documents> callback) {
-        execute(callback, uid);
+        enqueue("fetchChildrenById", callback, uid);
     }
 
     public void fetchChildrenById(String parentId, Callback<Documents> callback) {
-        execute(callback, parentId);
+        enqueue("fetchChildrenById", callback, parentId);
     }
 
     /* Blobs Sync */
@@ -554,27 +558,43 @@ public class Document extends NuxeoEntity {
     }
 
     public Blob fetchBlobById(String uid, String fieldPath) {
-        return (Blob) getResponse(uid, fieldPath);
+        return (Blob) fetchResponse("fetchBlobById", uid, fieldPath);
+    }
+
+    /**
+     * @return the main blob of the document streamed from the response, to close once read, see {@link StreamBlob}.
+     * @since 2.6
+     */
+    public StreamBlob streamBlob() {
+        return streamBlob(ConstantsV1.DEFAULT_FILE_CONTENT);
+    }
+
+    /**
+     * @return the blob of the document streamed from the response, to close once read, see {@link StreamBlob}.
+     * @since 2.6
+     */
+    public StreamBlob streamBlob(String fieldPath) {
+        return (StreamBlob) fetchResponse("streamBlobById", uid, fieldPath);
     }
 
     /* Blobs Async */
 
     public void fetchBlob(Callback<Blob> callback) {
-        execute(callback, uid, ConstantsV1.DEFAULT_FILE_CONTENT);
+        enqueue("fetchBlobById", callback, uid, ConstantsV1.DEFAULT_FILE_CONTENT);
     }
 
     public void fetchBlob(String fieldPath, Callback<Blob> callback) {
-        execute(callback, uid, fieldPath);
+        enqueue("fetchBlobById", callback, uid, fieldPath);
     }
 
     public void fetchBlobById(String uid, String fieldPath, Callback<Blob> callback) {
-        execute(callback, uid, fieldPath);
+        enqueue("fetchBlobById", callback, uid, fieldPath);
     }
 
     /* Workflows Sync */
 
     public Workflows fetchWorkflowInstances() {
-        return (Workflows) getResponse(uid);
+        return (Workflows) fetchResponse("fetchWorkflowInstances", uid);
     }
 
     public Workflow startWorkflowInstance(Workflow workflow) {
@@ -582,17 +602,17 @@ public class Document extends NuxeoEntity {
     }
 
     public Workflow startWorkflowInstanceWithDocId(Workflow workflow) {
-        return (Workflow) getResponse(uid, workflow);
+        return (Workflow) fetchResponse("startWorkflowInstanceWithDocId", uid, workflow);
     }
 
     /* Workflows Async */
 
     public void fetchWorkflowInstances(Callback<Workflows> callback) {
-        execute(callback, uid);
+        enqueue("fetchWorkflowInstances", callback, uid);
     }
 
     public void startWorkflowInstance(Workflow workflow, Callback<Workflow> callback) {
-        execute(callback, uid, workflow);
+        enqueue("startWorkflowInstanceWithDocId", callback, uid, workflow);
     }
 
     /* Task */
@@ -602,7 +622,7 @@ public class Document extends NuxeoEntity {
     }
 
     public Task fetchTaskById(String documentId) {
-        return (Task) getResponse(documentId);
+        return (Task) fetchResponse("fetchTaskById", documentId);
     }
 
     /**
@@ -0,0 +1,291 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.objects;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.nuxeo.client.internals.spi.NuxeoClientException;
+
+/**
+ * Iterator over the documents of a paginated query, fetching the pages on demand.
+ * <p>
+ * The pages are fetched asynchronously by a page fetcher, see {@link #of(IntFunction, int, boolean)}. While a page is
+ * consumed, at most {@code prefetch} following pages are fetched concurrently, so that only {@code prefetch + 1} pages
+ * are held in memory. The pages after the first one are only fanned out once the first one has given the number of
+ * pages of the query, otherwise they are fetched one after the other until a page without a next one.
+ * <p>
+ * The documents are returned in the query order, or in the order the pages are received when the iterator is not
+ * {@code ordered}. Pending fetches are cancelled on {@link #close()}, with their http calls.
+ *
+ * @since 2.6
+ */
+public class DocumentsIterator implements Iterator<Document>, AutoCloseable {
+
+    protected static final int STATUS_TOO_MANY_REQUESTS = 429;
+
+    protected static final int STATUS_SERVICE_UNAVAILABLE = 503;
+
+    protected final IntFunction<CompletableFuture<Documents>> pageFetcher;
+
+    protected final int prefetch;
+
+    protected final boolean ordered;
+
+    protected final Deque<CompletableFuture<Documents>> pending = new ArrayDeque<>();
+
+    protected Iterator<Document> current = Collections.emptyIterator();
+
+    // index of the next page to fetch
+    protected int nextPageIndex;
+
+    // number of pages of the query, -1 while unknown
+    protected int numberOfPages = -1;
+
+    protected boolean lastPage;
+
+    protected DocumentsIterator(IntFunction<CompletableFuture<Documents>> pageFetcher, int prefetch, boolean ordered) {
+        if (prefetch < 0) {
+            throw new NuxeoClientException("prefetch < 0: " + prefetch);
+        }
+        this.pageFetcher = pageFetcher;
+        this.prefetch = prefetch;
+        this.ordered = ordered;
+    }
+
+    /**
+     * @param pageFetcher the function starting the fetch of a page from its index, starting at 0, the fetch being
+     *            cancelled with its future.
+     * @param prefetch the number of pages fetched concurrently ahead of the current one.
+     * @param ordered whether the pages are returned in the query order or as soon as they are received.
+     * @return an iterator cancelling the http calls of the pending pages on {@link #close()}.
+     */
+    public static DocumentsIterator of(IntFunction<CompletableFuture<Documents>> pageFetcher, int prefetch,
+            boolean ordered) {
+        return new DocumentsIterator(pageFetcher, prefetch, ordered);
+    }
+
+    /**
+     * @param executor the executor waiting for the delays before the retries.
+     * @return a page fetcher retrying the pages refused by a busy server, with status 429 or 503, after an exponential
+     *         delay starting at {@code initialDelay} milliseconds. Cancelling a page cancels its current attempt.
+     */
+    public static IntFunction<CompletableFuture<Documents>> withBackoff(
+            IntFunction<CompletableFuture<Documents>> pageFetcher, int maxRetries, long initialDelay,
+            Executor executor) {
+        return pageIndex -> {
+            CompletableFuture<Documents> page = new CompletableFuture<>();
+            fetchWithBackoff(pageFetcher, pageIndex, page, maxRetries, initialDelay, executor);
+            return page;
+        };
+    }
+
+    protected static void fetchWithBackoff(IntFunction<CompletableFuture<Documents>> pageFetcher, int pageIndex,
+            CompletableFuture<Documents> page, int retries, long delay, Executor executor) {
+        if (page.isDone()) {
+            return;
+        }
+        CompletableFuture<Documents> attempt = pageFetcher.apply(pageIndex);
+        page.whenComplete((result, reason) -> {
+            if (page.isCancelled()) {
+                attempt.cancel(false);
+            }
+        });
+        attempt.whenComplete((result, reason) -> {
+            Throwable cause = reason instanceof CompletionException ? reason.getCause() : reason;
+            if (cause == null) {
+                page.complete(result);
+            } else if (retries <= 0 || !(cause instanceof NuxeoClientException)
+                    || !isBusy((NuxeoClientException) cause)) {
+                page.completeExceptionally(cause);
+            } else {
+                try {
+                    executor.execute(() -> {
+                        try {
+                            // jitter spreads the retries of the concurrent pages
+                            Thread.sleep(delay + ThreadLocalRandom.current().nextLong(delay / 2 + 1));
+                        } catch (InterruptedException interrupted) {
+                            Thread.currentThread().interrupt();
+                            page.completeExceptionally(
+                                    new NuxeoClientException("Interrupted while waiting to retry a page", interrupted));
+                            return;
+                        }
+                        fetchWithBackoff(pageFetcher, pageIndex, page, retries - 1, delay * 2, executor);
+                    });
+                } catch (RejectedExecutionException rejected) {
+                    page.completeExceptionally(cause);
+                }
+            }
+        });
+    }
+
+    protected static boolean isBusy(NuxeoClientException reason) {
+        return reason.getStatus() == STATUS_TOO_MANY_REQUESTS || reason.getStatus() == STATUS_SERVICE_UNAVAILABLE;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (isExhausted()) {
+                return false;
+            }
+            Documents page = nextPage();
+            if (page == null) {
+                return false;
+            }
+            current = page.getDocuments() == null ? Collections.emptyIterator() : page.getDocuments().iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public Document next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    /**
+     * @return the next page, waiting for its prefetch if needed, null when there is no more page.
+     */
+    protected Documents nextPage() {
+        Documents page;
+        if (pending.isEmpty()) {
+            page = await(pageFetcher.apply(nextPageIndex++));
+        } else {
+            page = await(ordered ? pending.poll() : pollCompleted());
+        }
+        // once the number of pages is known, the pages may be received out of order and the last one is known
+        if (page == null || (ordered || numberOfPages < 0) && !hasNextPage(page)) {
+            lastPage = true;
+            cancelPending();
+        } else if (numberOfPages < 0 && page.getNumberOfPages() > 0) {
+            numberOfPages = page.getNumberOfPages();
+        }
+        prefetch();
+        return page;
+    }
+
+    protected boolean isExhausted() {
+        return pending.isEmpty() && (lastPage || numberOfPages >= 0 && nextPageIndex >= numberOfPages);
+    }
+
+    /**
+     * @return the first pending fetch to complete, removed from the pending ones.
+     */
+    protected CompletableFuture<Documents> pollCompleted() {
+        CompletableFuture<?>[] futures = pending.toArray(new CompletableFuture<?>[pending.size()]);
+        // failures are rethrown when the failed fetch is awaited
+        CompletableFuture.anyOf(futures).exceptionally(reason -> null).join();
+        for (Iterator<CompletableFuture<Documents>> it = pending.iterator(); it.hasNext();) {
+            CompletableFuture<Documents> future = it.next();
+            if (future.isDone()) {
+                it.remove();
+                return future;
+            }
+        }
+        return pending.poll();
+    }
+
+    /**
+     * Submits the fetch of the following pages, only as far as they are known to exist.
+     */
+    protected void prefetch() {
+        while (!lastPage && pending.size() < prefetch
+                && (numberOfPages < 0 ? pending.isEmpty() : nextPageIndex < numberOfPages)) {
+            int pageIndex = nextPageIndex++;
+            pending.add(fetch(pageIndex));
+        }
+    }
+
+    /**
+     * @return the future page, fetched by the page fetcher.
+     */
+    protected CompletableFuture<Documents> fetch(int pageIndex) {
+        return pageFetcher.apply(pageIndex);
+    }
+
+    protected boolean hasNextPage(Documents page) {
+        if (page.getDocuments() == null || page.getDocuments().isEmpty()) {
+            return false;
+        }
+        Boolean isNextPageAvailable = page.getIsNextPageAvailable();
+        if (isNextPageAvailable != null) {
+            return isNextPageAvailable;
+        }
+        return page.getNumberOfPages() <= 0 || page.getCurrentPageIndex() + 1 < page.getNumberOfPages();
+    }
+
+    protected Documents await(CompletableFuture<Documents> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException reason) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new NuxeoClientException("Interrupted while fetching the next page", reason);
+        } catch (ExecutionException reason) {
+            close();
+            if (reason.getCause() instanceof NuxeoClientException) {
+                throw (NuxeoClientException) reason.getCause();
+            }
+            throw new NuxeoClientException(reason.getCause());
+        }
+    }
+
+    protected void cancelPending() {
+        for (CompletableFuture<Documents> future : pending) {
+            future.cancel(false);
+        }
+        pending.clear();
+    }
+
+    /**
+     * Cancels the pending fetches with their http calls, the iteration ends once the current page is consumed.
+     */
+    @Override
+    public void close() {
+        lastPage = true;
+        cancelPending();
+    }
+
+    /**
+     * @return a sequential stream of the documents, closing this iterator when closed.
+     */
+    public Stream<Document> stream() {
+        Spliterator<Document> spliterator = Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.objects;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.nuxeo.client.internals.spi.NuxeoClientException;
+
+/**
+ * Iterator over the documents of a NXQL query, paginated by document uid instead of page index.
+ * <p>
+ * Each page is the first page of the query restricted to the documents after the last uid received, ordered by uid, so
+ * that the server never skips over the previous pages and documents changed during the scan are neither missed nor
+ * returned twice. The {@link #getCursor() cursor} of the scan can be given to a new scroll to resume it.
+ *
+ * @since 2.6
+ */
+public class DocumentsScroll implements Iterator<Document>, AutoCloseable {
+
+    public static final String SCROLL_KEY = "ecm:uuid";
+
+    protected static final Pattern WHERE = Pattern.compile("\\bWHERE\\b", Pattern.CASE_INSENSITIVE);
+
+    protected static final Pattern ORDER_BY = Pattern.compile("\\bORDER\\s+BY\\b", Pattern.CASE_INSENSITIVE);
+
+    protected final Function<String, Documents> pageLoader;
+
+    protected Iterator<Document> current = Collections.emptyIterator();
+
+    // uid of the last document returned
+    protected String cursor;
+
+    protected boolean lastPage;
+
+    /**
+     * @param pageLoader the function fetching the page following a uid, null for the first page.
+     * @param cursor the cursor of a previous scroll to resume, null to start from the first document.
+     */
+    public DocumentsScroll(Function<String, Documents> pageLoader, String cursor) {
+        this.pageLoader = pageLoader;
+        this.cursor = cursor;
+    }
+
+    /**
+     * @return the query restricted to the documents after the given uid and ordered by uid.
+     */
+    public static String scrollQuery(String query, String after) {
+        if (ORDER_BY.matcher(query).find()) {
+            throw new NuxeoClientException("A scrolled query is ordered by " + SCROLL_KEY + ", remove its ORDER BY");
+        }
+        StringBuilder scrollQuery = new StringBuilder(query.length() + 64);
+        if (after == null) {
+            scrollQuery.append(query);
+        } else {
+            String predicate = SCROLL_KEY + " > '" + after.replace("'", "\\'") + "'";
+            Matcher where = WHERE.matcher(query);
+            if (where.find()) {
+                scrollQuery.append(query, 0, where.end())
+                           .append(" (")
+                           .append(query.substring(where.end()).trim())
+                           .append(") AND ")
+                           .append(predicate);
+            } else {
+                scrollQuery.append(query.trim()).append(" WHERE ").append(predicate);
+            }
+        }
+        return scrollQuery.append(" ORDER BY ").append(SCROLL_KEY).toString();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (lastPage) {
+                return false;
+            }
+            Documents page = pageLoader.apply(cursor);
+            List<Document> documents = page == null ? null : page.getDocuments();
+            if (documents == null || documents.isEmpty()) {
+                lastPage = true;
+                return false;
+            }
+            lastPage = Boolean.FALSE.equals(page.getIsNextPageAvailable());
+            current = documents.iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public Document next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Document document = current.next();
+        cursor = document.getId();
+        return document;
+    }
+
+    /**
+     * @return the uid of the last document returned, to resume the scroll after it, null if none was returned.
+     */
+    public String getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Ends the iteration, the cursor is left as is.
+     */
+    @Override
+    public void close() {
+        lastPage = true;
+        current = Collections.emptyIterator();
+    }
+
+    /**
+     * @return a sequential stream of the documents, closing this scroll when closed.
+     */
+    public Stream<Document> stream() {
+        Spliterator<Document> spliterator = Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
+}
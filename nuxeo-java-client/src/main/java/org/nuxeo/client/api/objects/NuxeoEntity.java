@@ -20,24 +20,35 @@ package org.nuxeo.client.api.objects;
 
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.net.URLDecoder;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import org.apache.logging.log4j.util.Strings;
 import org.nuxeo.client.api.ConstantsV1;
 import org.nuxeo.client.api.NuxeoClient;
+import org.nuxeo.client.api.RequestOptions;
+import org.nuxeo.client.api.cache.CacheEntry;
+import org.nuxeo.client.api.cache.CacheIndex;
+import org.nuxeo.client.api.cache.CacheKey;
+import org.nuxeo.client.api.cache.CacheMetrics;
+import org.nuxeo.client.api.cache.IndexedResponseCache;
+import org.nuxeo.client.api.cache.NuxeoResponseCache;
 import org.nuxeo.client.api.objects.blob.Blob;
 import org.nuxeo.client.api.objects.blob.Blobs;
+import org.nuxeo.client.internals.spi.ClientCallFactory;
 import org.nuxeo.client.internals.spi.NuxeoClientException;
+import org.nuxeo.client.internals.spi.ResponseCapture;
+import org.nuxeo.client.internals.util.APIDispatchTable;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.Function;
 
 import okhttp3.Headers;
 import okhttp3.Request;
@@ -57,6 +68,11 @@ public abstract class NuxeoEntity<T> {
     @JsonProperty("repository")
     protected String repositoryName;
 
+    /**
+     * @deprecated since 2.6, per call state shared by the threads using this entity, the cache is evicted at once by
+     *             {@link Repository#refreshCache()}.
+     */
+    @Deprecated
     @JsonIgnore
     protected boolean refreshCache = false;
 
@@ -69,6 +85,21 @@ public abstract class NuxeoEntity<T> {
     @JsonIgnore
     protected Class<Object> apiClass;
 
+    /**
+     * @since 2.6
+     */
+    @JsonIgnore
+    protected RequestOptions requestOptions;
+
+    /**
+     * The executor completing the futures of the async calls, null to complete them in the thread receiving the
+     * response.
+     *
+     * @since 2.6
+     */
+    @JsonIgnore
+    protected Executor asyncExecutor;
+
     /**
      * For Serialization purpose.
      */
@@ -89,50 +120,386 @@ public abstract class NuxeoEntity<T> {
         return entityType;
     }
 
+    /**
+     * @since 2.6
+     */
+    public RequestOptions getRequestOptions() {
+        return requestOptions;
+    }
+
+    /**
+     * @since 2.6
+     */
+    public Executor getAsyncExecutor() {
+        return asyncExecutor;
+    }
+
     /**
      * Handle invocation of API Methods Asynchronously. Results will be returned in the given callback.
+     *
+     * @deprecated since 2.6, the API method is resolved from the caller name through a stack walk, use
+     *             {@link #enqueue(String, Callback, Object...)} instead.
      */
+    @Deprecated
     public void execute(Callback<T> callback, Object... parametersArray) {
+        enqueue(getCurrentMethodName(), callback, parametersArray);
+    }
+
+    /**
+     * Handle invocation of the API method named methodName Asynchronously. Results will be returned in the given
+     * callback.
+     *
+     * @since 2.6
+     */
+    protected void enqueue(String methodName, Callback<T> callback, Object... parametersArray) {
+        if (nuxeoClient == null) {
+            throw new NuxeoClientException("You should pass to your Nuxeo object the client instance");
+        }
         if (api == null) {
             api = nuxeoClient.getRetrofit().create(apiClass);
         }
-        if (nuxeoClient == null) {
-            throw new NuxeoClientException("You should pass to your Nuxeo object the client instance");
+        ClientCallFactory callFactory = nuxeoClient.getCallFactory();
+        RequestOptions previous = callFactory.bind(requestOptions);
+        try {
+            Call<T> methodResult = getCall(api, methodName, parametersArray);
+            methodResult.enqueue(callback);
+        } finally {
+            callFactory.restore(previous);
         }
-        String method = getCurrentMethodName();
-        Call<T> methodResult = getCall(api, method, parametersArray);
-        methodResult.enqueue(callback);
     }
 
     /**
      * Handle cache and invocation of API methods.
      *
      * @return the response as business objects.
+     * @deprecated since 2.6, the API method is resolved from the caller name through a stack walk, use
+     *             {@link #fetchResponse(String, Object...)} instead.
      */
+    @Deprecated
     protected Object getResponse(Object... parametersArray) {
+        return fetchResponse(getCurrentMethodName(), parametersArray);
+    }
+
+    /**
+     * Handle cache and invocation of the API method named methodName.
+     *
+     * @return the response as business objects.
+     * @since 2.6
+     */
+    protected Object fetchResponse(String methodName, Object... parametersArray) {
         if (nuxeoClient == null) {
             throw new NuxeoClientException("You should pass to your Nuxeo object the client instance");
         }
         if (api == null) {
             api = nuxeoClient.getRetrofit().create(apiClass);
         }
-        String method = getCurrentMethodName();
-        Call<?> methodResult = getCall(api, method, parametersArray);
-        String cacheKey = Strings.EMPTY;
-        if (nuxeoClient.isCacheEnabled()) {
-            if (refreshCache) {
-                this.refreshCache = false;
-                nuxeoClient.getNuxeoCache().invalidateAll();
-            } else {
-                cacheKey = computeCacheKey(methodResult);
-                NuxeoEntity result = (NuxeoEntity) nuxeoClient.getNuxeoCache().getBody(cacheKey);
-                if (result != null) {
-                    return result;
+        // the http call is created by retrofit on first access to the request or on execution
+        ClientCallFactory callFactory = nuxeoClient.getCallFactory();
+        RequestOptions previous = callFactory.bind(requestOptions);
+        try {
+            return fetchResponse(getCall(api, methodName, parametersArray), methodName);
+        } finally {
+            callFactory.restore(previous);
+        }
+    }
+
+    /**
+     * Same as {@link #fetchResponse(String, Object...)}, bypassing the client cache, for the responses not worth
+     * caching such as the pages of a large query.
+     *
+     * @since 2.6
+     */
+    protected Object fetchUncached(String methodName, Object... parametersArray) {
+        if (nuxeoClient == null) {
+            throw new NuxeoClientException("You should pass to your Nuxeo object the client instance");
+        }
+        if (api == null) {
+            api = nuxeoClient.getRetrofit().create(apiClass);
+        }
+        ClientCallFactory callFactory = nuxeoClient.getCallFactory();
+        RequestOptions previous = callFactory.bind(requestOptions);
+        try {
+            return fetchResponse(getCall(api, methodName, parametersArray), new CachedFetch(methodName, false));
+        } finally {
+            callFactory.restore(previous);
+        }
+    }
+
+    /**
+     * @param methodName the API method name, for the cache metrics.
+     */
+    protected Object fetchResponse(Call<?> methodResult, String methodName) {
+        return fetchResponse(methodResult, new CachedFetch(methodName));
+    }
+
+    /**
+     * @since 2.6
+     */
+    protected Object fetchResponse(Call<?> methodResult, CachedFetch fetch) {
+        ClientCallFactory callFactory = nuxeoClient.getCallFactory();
+        ResponseCapture previous = callFactory.bindCapture(fetch.capture);
+        try {
+            if (fetch.lookup(methodResult)) {
+                return fetch.hit;
+            }
+            Response<?> response = fetch.staleEntry == null ? methodResult.execute()
+                    : revalidate(methodResult, fetch.staleEntry);
+            return fetch.handle(response);
+        } catch (IOException reason) {
+            throw new NuxeoClientException(reason);
+        } finally {
+            callFactory.restoreCapture(previous);
+        }
+    }
+
+    /**
+     * Handle invocation of the API method named methodName asynchronously, through the same cache, error mapping and
+     * entity reconnection as {@link #fetchResponse(String, Object...)}.
+     * <p>
+     * The future is completed by the {@link #asyncExecutor} if any, otherwise by the thread receiving the response.
+     * Cancelling the future cancels the http call.
+     *
+     * @return the future response as business objects.
+     * @since 2.6
+     */
+    protected <R> CompletableFuture<R> fetchResponseAsync(String methodName, Object... parametersArray) {
+        return fetchResponseAsync(true, methodName, parametersArray);
+    }
+
+    /**
+     * Same as {@link #fetchResponseAsync(String, Object...)}, bypassing the client cache, for the responses not worth
+     * caching such as the pages of a large query.
+     *
+     * @since 2.6
+     */
+    protected <R> CompletableFuture<R> fetchUncachedAsync(String methodName, Object... parametersArray) {
+        return fetchResponseAsync(false, methodName, parametersArray);
+    }
+
+    /**
+     * @param cached false to bypass the client cache.
+     * @since 2.6
+     */
+    protected <R> CompletableFuture<R> fetchResponseAsync(boolean cached, String methodName,
+            Object... parametersArray) {
+        if (nuxeoClient == null) {
+            throw new NuxeoClientException("You should pass to your Nuxeo object the client instance");
+        }
+        if (api == null) {
+            api = nuxeoClient.getRetrofit().create(apiClass);
+        }
+        CompletableFuture<R> future = new CompletableFuture<>();
+        CachedFetch fetch = new CachedFetch(methodName, cached);
+        ClientCallFactory callFactory = nuxeoClient.getCallFactory();
+        RequestOptions previous = callFactory.bind(requestOptions);
+        ResponseCapture previousCapture = callFactory.bindCapture(fetch.capture);
+        Call<Object> call;
+        try {
+            Call<Object> methodResult = (Call<Object>) getCall(api, methodName, parametersArray);
+            if (fetch.lookup(methodResult)) {
+                future.complete((R) fetch.hit);
+                return future;
+            }
+            call = methodResult;
+            if (fetch.staleEntry != null) {
+                // the copy creates its http call on enqueue, with the bound options
+                call = methodResult.clone();
+                callFactory.bind(conditionalOptions(fetch.staleEntry));
+            }
+            call.enqueue(new Callback<Object>() {
+
+                @Override
+                public void onResponse(Call<Object> call, Response<Object> response) {
+                    complete(future, () -> (R) fetch.handle(response));
                 }
+
+                @Override
+                public void onFailure(Call<Object> call, Throwable reason) {
+                    future.completeExceptionally(
+                            reason instanceof NuxeoClientException ? reason : new NuxeoClientException(reason));
+                }
+            });
+        } catch (RuntimeException reason) {
+            future.completeExceptionally(reason);
+            return future;
+        } finally {
+            callFactory.restoreCapture(previousCapture);
+            callFactory.restore(previous);
+        }
+        Call<Object> enqueued = call;
+        future.whenComplete((result, reason) -> {
+            if (future.isCancelled()) {
+                enqueued.cancel();
             }
+        });
+        return future;
+    }
+
+    /**
+     * @return a future completed with the result of the source future mapped by the function. Cancelling it cancels
+     *         the source future, and the http call with it, which {@link CompletableFuture#thenApply} does not.
+     * @since 2.6
+     */
+    protected <S, R> CompletableFuture<R> mapResponseAsync(CompletableFuture<S> source,
+            Function<? super S, ? extends R> mapping) {
+        CompletableFuture<R> future = source.thenApply(mapping::apply);
+        future.whenComplete((result, reason) -> {
+            if (future.isCancelled()) {
+                source.cancel(false);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Completes the future with the result, by the {@link #asyncExecutor} if any.
+     *
+     * @since 2.6
+     */
+    protected <R> void complete(CompletableFuture<R> future, Callable<R> result) {
+        Runnable completion = () -> {
+            try {
+                future.complete(result.call());
+            } catch (Exception reason) {
+                future.completeExceptionally(
+                        reason instanceof NuxeoClientException ? reason : new NuxeoClientException(reason));
+            }
+        };
+        if (asyncExecutor == null) {
+            completion.run();
+            return;
+        }
+        try {
+            asyncExecutor.execute(completion);
+        } catch (RuntimeException reason) {
+            future.completeExceptionally(reason);
         }
+    }
+
+    /**
+     * Executes a copy of the call with the validators of the cached entry, the server answering 304 Not Modified if
+     * the entry is still valid.
+     *
+     * @since 2.6
+     */
+    protected Response<?> revalidate(Call<?> methodResult, CacheEntry entry) throws IOException {
+        // the copy creates its http call on execution, with the bound options
+        ClientCallFactory callFactory = nuxeoClient.getCallFactory();
+        RequestOptions previous = callFactory.bind(conditionalOptions(entry));
         try {
-            Response<?> response = methodResult.execute();
+            return methodResult.clone().execute();
+        } finally {
+            callFactory.restore(previous);
+        }
+    }
+
+    /**
+     * @return the options of this entity with the validators of the cached entry.
+     * @since 2.6
+     */
+    protected RequestOptions conditionalOptions(CacheEntry entry) {
+        RequestOptions.Builder conditional = requestOptions == null ? RequestOptions.builder()
+                : requestOptions.newBuilder();
+        if (entry.getETag() != null) {
+            conditional.header(ConstantsV1.HEADER_IF_NONE_MATCH, entry.getETag());
+        }
+        if (entry.getLastModified() != null) {
+            conditional.header(ConstantsV1.HEADER_IF_MODIFIED_SINCE, entry.getLastModified());
+        }
+        return conditional.build();
+    }
+
+    /**
+     * A call through the client cache: the lookup of a fresh or revalidable entry before the call, then the handling of
+     * the response, shared by the sync and async calls.
+     *
+     * @since 2.6
+     */
+    protected class CachedFetch {
+
+        protected final String methodName;
+
+        protected boolean cached;
+
+        protected Object cacheKey;
+
+        protected CacheEntry staleEntry;
+
+        protected CacheMetrics metrics = CacheMetrics.NONE;
+
+        protected Object hit;
+
+        protected long start;
+
+        /**
+         * The raw json of the response, captured for the calls going to the cache only.
+         */
+        protected final ResponseCapture capture;
+
+        /**
+         * @param methodName the API method name, for the cache metrics.
+         */
+        protected CachedFetch(String methodName) {
+            this(methodName, true);
+        }
+
+        /**
+         * @param methodName the API method name, for the cache metrics.
+         * @param cached false to bypass the client cache.
+         */
+        protected CachedFetch(String methodName, boolean cached) {
+            this.methodName = methodName;
+            this.cached = cached && nuxeoClient.isCacheEnabled() && isCached(methodName);
+            capture = this.cached ? new ResponseCapture() : null;
+        }
+
+        /**
+         * Looks up the cache entry of the call, keeping a stale entry with validators to revalidate.
+         *
+         * @return whether a fresh entry was found, its body being the {@link #hit}.
+         */
+        protected boolean lookup(Call<?> methodResult) {
+            if (cached) {
+                if (refreshCache) {
+                    refreshCache = false;
+                    nuxeoClient.getNuxeoCache().invalidateAll();
+                }
+                // the key does not hash the request body
+                cached = isCacheable(methodResult.request());
+            }
+            if (cached) {
+                cacheKey = computeCacheKey(methodResult);
+                NuxeoResponseCache cache = nuxeoClient.getNuxeoCache();
+                if (cache instanceof IndexedResponseCache) {
+                    metrics = ((IndexedResponseCache) cache).getMetrics();
+                }
+                CacheEntry entry = (CacheEntry) cache.getResponse(cacheKey);
+                if (entry != null) {
+                    // other caches expire their entries on their own
+                    if (!(cache instanceof IndexedResponseCache) || ((IndexedResponseCache) cache).isFresh(entry)) {
+                        metrics.recordHit(methodName);
+                        hit = reconnectObject(entry.getBody(), entry.getHeaders(), api, nuxeoClient);
+                        return true;
+                    } else if (entry.hasValidators()) {
+                        staleEntry = entry;
+                    }
+                }
+            }
+            start = System.nanoTime();
+            return false;
+        }
+
+        /**
+         * @return the response as business objects, cached if cacheable.
+         */
+        protected Object handle(Response<?> response) throws IOException {
+            metrics.recordLoad(methodName, System.nanoTime() - start);
+            if (staleEntry != null && response.code() == 304) {
+                metrics.recordHit(methodName);
+                staleEntry.revalidated();
+                return reconnectObject(staleEntry.getBody(), staleEntry.getHeaders(), api, nuxeoClient);
+            }
+            metrics.recordMiss(methodName);
             // For redirect 308 -> the response should be success
             if (!response.isSuccessful() && response.code() != 308) {
                 NuxeoClientException nuxeoClientException;
@@ -147,10 +514,14 @@ public abstract class NuxeoEntity<T> {
                 }
                 throw nuxeoClientException;
             }
-            if (nuxeoClient.isCacheEnabled()) {
-                nuxeoClient.getNuxeoCache().put(cacheKey, response);
-            }
             Object body = response.body();
+            if (cached && CacheEntry.isCacheable(body)) {
+                CacheEntry entry = CacheEntry.of(nuxeoClient.getConverterFactory(), body, capture.getJson(),
+                        response.headers(), response.raw().request().url());
+                if (entry != null) {
+                    putCache(cacheKey, entry);
+                }
+            }
             if (body instanceof ResponseBody) {
                 return body;
             } else if (body == null) {
@@ -164,63 +535,138 @@ public abstract class NuxeoEntity<T> {
             } else {
                 return reconnectObject(body, response.headers(), api, nuxeoClient);
             }
-        } catch (IOException reason) {
-            throw new NuxeoClientException(reason);
         }
     }
 
     /**
-     * Compute the cache key with request
+     * @return whether the responses of the API method go through the client cache, when it is enabled.
+     * @since 2.6
+     */
+    protected boolean isCached(String methodName) {
+        return true;
+    }
+
+    /**
+     * @return whether the response to the request can be cached: only the responses to GET requests are, as the
+     *         cache key does not hash the request body.
+     * @since 2.6
+     */
+    protected boolean isCacheable(Request request) {
+        return "GET".equals(request.method());
+    }
+
+    /**
+     * Caches the body as the response of the API method named methodName, as if it was fetched by it, for instance
+     * each document of a query as the response of its fetch by id.
+     *
+     * @since 2.6
      */
-    protected String computeCacheKey(Call<?> methodResult) {
-        Request originalRequest = methodResult.request();
-        MessageDigest digest;
+    protected void cacheResponse(Object body, String methodName, Object... parametersArray) {
+        if (!nuxeoClient.isCacheEnabled() || !isCached(methodName) || !CacheEntry.isCacheable(body)) {
+            return;
+        }
+        if (api == null) {
+            api = nuxeoClient.getRetrofit().create(apiClass);
+        }
+        ClientCallFactory callFactory = nuxeoClient.getCallFactory();
+        RequestOptions previous = callFactory.bind(requestOptions);
         try {
-            digest = MessageDigest.getInstance(ConstantsV1.MD_5);
-        } catch (NoSuchAlgorithmException e) {
-            return null;
+            Call<T> methodResult = getCall(api, methodName, parametersArray);
+            // no validators, the entry is only used while fresh
+            Headers headers = new Headers.Builder().build();
+            CacheEntry entry = CacheEntry.of(nuxeoClient.getConverterFactory(), body, headers,
+                    methodResult.request().url());
+            if (entry != null) {
+                putCache(computeCacheKey(methodResult), entry);
+            }
+        } finally {
+            callFactory.restore(previous);
         }
-        digest.update((originalRequest.toString() + originalRequest.headers().toString()).getBytes());
-        byte messageDigest[] = digest.digest();
-        StringBuilder hexString = new StringBuilder();
-        for (byte msg : messageDigest) {
-            hexString.append(Integer.toHexString(0xFF & msg));
+    }
+
+    /**
+     * @param key as computed by {@link #computeCacheKey(Call)}.
+     * @since 2.6
+     */
+    protected void putCache(Object key, CacheEntry entry) {
+        NuxeoResponseCache cache = nuxeoClient.getNuxeoCache();
+        if (cache instanceof IndexedResponseCache) {
+            ((IndexedResponseCache) cache).put(key, entry);
+        } else {
+            cache.put((String) key, entry);
         }
-        return hexString.toString();
     }
 
     /**
-     * Invoking the method of each class "API"
+     * Evicts the cached entries of the documents changed by a call, see {@link CacheIndex}. Caches which are not
+     * {@link IndexedResponseCache} are emptied.
+     *
+     * @since 2.6
      */
-    protected Call<T> getCall(Object api, String methodName, Object... parametersArray) {
-        try {
-            Method[] methods = api.getClass().getInterfaces()[0].getMethods();
-            if (repositoryName != null) {
-                int len = parametersArray.length;
-                parametersArray = Arrays.copyOf(parametersArray, len + 1);
-                parametersArray[len] = repositoryName;
+    protected void invalidateCache(Collection<String> names) {
+        if (nuxeoClient.isCacheEnabled() && !names.isEmpty()) {
+            NuxeoResponseCache cache = nuxeoClient.getNuxeoCache();
+            if (cache instanceof IndexedResponseCache) {
+                ((IndexedResponseCache) cache).invalidate(names);
+            } else {
+                cache.invalidateAll();
             }
-            Method method = null;
-            for (Method currentMethod : methods) {
-                if (currentMethod.getName().equals(methodName)) {
-                    if (currentMethod.getParameterTypes().length == parametersArray.length) {
-                        method = currentMethod;
-                        break;
-                    }
+        }
+    }
+
+    /**
+     * @param names the names to evict, see {@link CacheIndex}, from the body of the successful response.
+     * @return a callback evicting the cached entries of the documents changed by a successful call before calling
+     *         the given callback.
+     * @since 2.6
+     */
+    protected <R> Callback<R> invalidating(Callback<R> callback, Function<? super R, Collection<String>> names) {
+        return new Callback<R>() {
+
+            @Override
+            public void onResponse(Call<R> call, Response<R> response) {
+                if (response.isSuccessful()) {
+                    invalidateCache(names.apply(response.body()));
                 }
+                callback.onResponse(call, response);
             }
-            if (method == null) {
-                throw new NuxeoClientException(String.format(
-                        "No method found for API %s and method name '%s'. Check method name and parameters.", apiClass,
-                        methodName));
+
+            @Override
+            public void onFailure(Call<R> call, Throwable reason) {
+                callback.onFailure(call, reason);
             }
-            return (Call<T>) method.invoke(api, parametersArray);
-        } catch (IllegalArgumentException | IllegalAccessException reason) {
+        };
+    }
+
+    /**
+     * Compute the cache key with request, see {@link CacheKey}. The key is a string for caches which are not
+     * {@link IndexedResponseCache}.
+     */
+    protected Object computeCacheKey(Call<?> methodResult) {
+        CacheKey key = CacheKey.compute(methodResult.request(), repositoryName,
+                nuxeoClient.getClientInterceptor().getHeaders());
+        return nuxeoClient.getNuxeoCache() instanceof IndexedResponseCache ? key : key.toString();
+    }
+
+    /**
+     * Invoking the method of each class "API" through its dispatch table.
+     */
+    protected Call<T> getCall(Object api, String methodName, Object... parametersArray) {
+        if (repositoryName != null) {
+            int len = parametersArray.length;
+            parametersArray = Arrays.copyOf(parametersArray, len + 1);
+            parametersArray[len] = repositoryName;
+        }
+        try {
+            return (Call<T>) APIDispatchTable.of(apiClass).invoke(api, methodName, parametersArray);
+        } catch (NuxeoClientException reason) {
+            throw reason;
+        } catch (ClassCastException reason) {
             throw new NuxeoClientException(String.format(
                     "An issue has occured in the method found for API %s and method name '%s'. Check method and parameters types.",
                     apiClass, methodName), reason);
-        } catch (InvocationTargetException reason) {
-            throw new NuxeoClientException(reason.getTargetException().getMessage(), reason);
+        } catch (Throwable reason) {
+            throw new NuxeoClientException(reason.getMessage(), reason);
         }
     }
 
@@ -234,17 +680,20 @@ public abstract class NuxeoEntity<T> {
             ((NuxeoEntity) entity).nuxeoClient = nuxeoClient;
             ((NuxeoEntity) entity).api = api;
             ((NuxeoEntity) entity).apiClass = apiClass;
+            ((NuxeoEntity) entity).requestOptions = requestOptions;
             if (entity instanceof Documents) {
                 for (Document doc : ((Documents) entity).getDocuments()) {
                     doc.nuxeoClient = nuxeoClient;
                     doc.api = api;
                     doc.apiClass = apiClass;
+                    doc.requestOptions = requestOptions;
                 }
             } else if (entity instanceof Blobs) {
                 for (Blob blob : ((Blobs) entity).getBlobs()) {
                     blob.nuxeoClient = nuxeoClient;
                     blob.api = api;
                     blob.apiClass = apiClass;
+                    blob.requestOptions = requestOptions;
                 }
             } else if (entity instanceof Blob) {
                 String contentDisposition = headers.get("Content-Disposition");
@@ -267,6 +716,7 @@ public abstract class NuxeoEntity<T> {
                     ((NuxeoEntity) item).nuxeoClient = nuxeoClient;
                     ((NuxeoEntity) item).api = api;
                     ((NuxeoEntity) item).apiClass = apiClass;
+                    ((NuxeoEntity) item).requestOptions = requestOptions;
                     entities.add((NuxeoEntity) item);
                 }
             }
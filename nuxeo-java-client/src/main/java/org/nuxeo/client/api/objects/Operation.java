@@ -18,27 +18,42 @@
  */
 package org.nuxeo.client.api.objects;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
-import okhttp3.MediaType;
 import okhttp3.MultipartBody;
 import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
 
 import org.nuxeo.client.api.ConstantsV1;
 import org.nuxeo.client.api.NuxeoClient;
+import org.nuxeo.client.api.RequestOptions;
+import org.nuxeo.client.api.cache.CacheIndex;
+import org.nuxeo.client.api.marshaller.NuxeoResponseConverterFactory;
 import org.nuxeo.client.api.methods.OperationAPI;
 import org.nuxeo.client.api.objects.blob.Blob;
+import org.nuxeo.client.api.objects.blob.BlobPartHandler;
+import org.nuxeo.client.api.objects.blob.BlobPartHandlers;
 import org.nuxeo.client.api.objects.blob.Blobs;
 import org.nuxeo.client.api.objects.operation.OperationBody;
+import org.nuxeo.client.api.objects.operation.OperationExecutor;
+import org.nuxeo.client.api.objects.operation.OperationRequest;
+import org.nuxeo.client.internals.spi.NuxeoClientException;
 
 import retrofit2.Callback;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 /**
+ * An operation request, built by setting its id, input, parameters and context before executing it. As a builder, an
+ * operation is not thread-safe: each call of {@link NuxeoClient#automation()} returns a new one, and
+ * {@link #toRequest()} gives an immutable request to execute from several threads.
+ *
  * @since 0.1
  */
 public class Operation extends NuxeoEntity {
@@ -66,6 +81,64 @@ public class Operation extends NuxeoEntity {
         return this;
     }
 
+    /**
+     * @return a new operation request of the given id, without input, parameters nor context, sending the options of
+     *         this operation with its calls. This operation is left untouched.
+     * @since 2.6
+     */
+    public Operation newOperation(String operationId) {
+        Operation operation = new Operation(nuxeoClient);
+        operation.operationId = operationId;
+        operation.api = api;
+        operation.requestOptions = requestOptions;
+        operation.asyncExecutor = asyncExecutor;
+        return operation;
+    }
+
+    /**
+     * @return an operation request with the same id, input, parameters and context, sending the given options with
+     *         its calls. This operation is left untouched.
+     * @since 2.6
+     */
+    public Operation withOptions(RequestOptions requestOptions) {
+        Operation operation = new Operation(nuxeoClient);
+        operation.operationId = operationId;
+        operation.api = api;
+        operation.requestOptions = requestOptions;
+        operation.asyncExecutor = asyncExecutor;
+        operation.body.setInput(body.getInput());
+        operation.body.getParameters().putAll(body.getParameters());
+        operation.body.getContext().putAll(body.getContext());
+        return operation;
+    }
+
+    /**
+     * @return an operation request with the same id, input, parameters, context and options, completing the futures
+     *         of its async executions with the given executor. This operation is left untouched.
+     * @since 2.6
+     */
+    public Operation withExecutor(Executor asyncExecutor) {
+        Operation operation = withOptions(requestOptions);
+        operation.asyncExecutor = asyncExecutor;
+        return operation;
+    }
+
+    /**
+     * @return an immutable request of the current id, input, parameters and context of this operation, to execute
+     *         concurrently with other ones, see {@link OperationExecutor}.
+     * @since 2.6
+     */
+    public OperationRequest toRequest() {
+        OperationRequest.Builder request = OperationRequest.builder(operationId).input(body.getInput());
+        for (Map.Entry<String, Object> parameter : body.getParameters().entrySet()) {
+            request.param(parameter.getKey(), parameter.getValue());
+        }
+        for (Map.Entry<String, Object> context : body.getContext().entrySet()) {
+            request.context(context.getKey(), context.getValue());
+        }
+        return request.build();
+    }
+
     public Operation input(Object input) {
         body.setInput(input);
         return this;
@@ -102,33 +175,124 @@ public class Operation extends NuxeoEntity {
     /** Operation Execution Methods Sync **/
 
     public <T> T execute(String operationId, OperationBody body) {
+        return (T) invalidateCache(body, fetchExecute("execute", operationId, body));
+    }
+
+    /**
+     * Executes the operation, reading the blobs it returns one after the other from the response with the handler,
+     * instead of spooling them all to temporary files, see {@link BlobPartHandlers}.
+     *
+     * @since 2.6
+     */
+    public Blobs executeBlobs(BlobPartHandler handler) {
+        return executeBlobs(this.operationId, this.body, handler);
+    }
+
+    /**
+     * @see #executeBlobs(BlobPartHandler)
+     * @since 2.6
+     */
+    public Blobs executeBlobs(String operationId, OperationBody body, BlobPartHandler handler) {
+        Object result = fetchExecute("executeStream", operationId, body);
+        Blobs blobs;
+        if (result instanceof ResponseBody) {
+            try {
+                blobs = NuxeoResponseConverterFactory.readBlobs((ResponseBody) result, handler);
+            } catch (IOException reason) {
+                throw new NuxeoClientException(reason);
+            }
+        } else {
+            // no content
+            blobs = result instanceof Blobs ? (Blobs) result : new Blobs();
+        }
+        return (Blobs) invalidateCache(body, blobs);
+    }
+
+    /**
+     * Calls the method, sending the blob or blobs input of the operation as multipart.
+     *
+     * @since 2.6
+     */
+    protected Object fetchExecute(String methodName, String operationId, OperationBody body) {
+        return fetchResponse(methodName, executeArguments(operationId, body));
+    }
+
+    /**
+     * @return the arguments of the execute API methods, with the parts of the blob or blobs input of the operation.
+     * @since 2.6
+     */
+    protected Object[] executeArguments(String operationId, OperationBody body) {
         Object input = body.getInput();
         if (input instanceof Blob) { // If input is blob or blobs -> use multipart
             List<MultipartBody.Part> filePart = new ArrayList<>();
-            RequestBody fbody = RequestBody.create(MediaType.parse(((Blob) input).getMimeType()),
-                    ((Blob) input).getFile());
+            RequestBody fbody = ((Blob) input).toRequestBody();
             filePart.add(MultipartBody.Part.createFormData(INPUT_PART, ((Blob) input).getFileName(), fbody));
-            return (T) getResponse(operationId, body, filePart);
+            return new Object[] { operationId, body, filePart };
         } else if (input instanceof Blobs) { // If input is blob or blobs -> use multipart
             List<MultipartBody.Part> fileParts = new ArrayList<>();
             for (int i = 0; i < ((Blobs) input).size(); i++) {
                 Blob fileBlob = ((Blobs) input).getBlobs().get(i);
-                RequestBody fbody = RequestBody.create(MediaType.parse(fileBlob.getMimeType()), fileBlob.getFile());
+                RequestBody fbody = fileBlob.toRequestBody();
                 fileParts.add(MultipartBody.Part.createFormData(INPUT_PARTS + String.valueOf(i), fileBlob.getFileName(),
                         fbody));
             }
-            return (T) getResponse(operationId, body, fileParts);
+            return new Object[] { operationId, body, fileParts };
         } else {
-            return (T) getResponse(operationId, body);
+            return new Object[] { operationId, body };
         }
     }
 
+    /**
+     * The streamed responses are read once by their caller.
+     *
+     * @since 2.6
+     */
+    @Override
+    protected boolean isCached(String methodName) {
+        return !"executeStream".equals(methodName);
+    }
+
     public <T> T execute(String operationId) {
         return execute(operationId, this.body);
     }
 
+    /**
+     * Executes the request without reading nor changing the id, input, parameters and context of this operation, so
+     * that the same operation can execute requests from many threads.
+     *
+     * @since 2.6
+     */
+    public <T> T execute(OperationRequest request) {
+        return execute(request.getOperationId(), request.toBody());
+    }
+
     public <T> T execute(String batchId, String fileIdx, String operationId, OperationBody body) {
-        return (T) getResponse(batchId, fileIdx, operationId, body);
+        return (T) invalidateCache(body, fetchResponse("execute", batchId, fileIdx, operationId, body));
+    }
+
+    /**
+     * Evicts the cached entries of the input documents of the operation and of the documents it returns.
+     *
+     * @return the result.
+     * @since 2.6
+     */
+    protected Object invalidateCache(OperationBody body, Object result) {
+        if (nuxeoClient.isCacheEnabled()) {
+            invalidateCache(changed(body, result));
+        }
+        return result;
+    }
+
+    /**
+     * @return the names of the input documents of the operation and of the documents it returns, see
+     *         {@link CacheIndex}.
+     * @since 2.6
+     */
+    protected List<String> changed(OperationBody body, Object result) {
+        List<String> names = new ArrayList<>();
+        CacheIndex.addChanged(names, body.getInput());
+        CacheIndex.addChanged(names, result);
+        return names;
     }
 
     public <T> T execute() {
@@ -138,23 +302,23 @@ public class Operation extends NuxeoEntity {
     /** Operation Execution Methods Async **/
 
     public void execute(String operationId, OperationBody body, Callback<Object> callback) {
+        callback = invalidating(callback, result -> changed(body, result));
         Object input = body.getInput();
         if (input instanceof Blob) { // If input is blob or blobs -> use multipart
             Map<String, RequestBody> fbodys = new HashMap<>();
-            RequestBody fbody = RequestBody.create(MediaType.parse(((Blob) input).getMimeType()),
-                    ((Blob) input).getFile());
+            RequestBody fbody = ((Blob) input).toRequestBody();
             fbodys.put(INPUT_PART, fbody);
-            super.execute(callback, operationId, body, fbodys);
+            enqueue("execute", callback, operationId, body, fbodys);
         } else if (input instanceof Blobs) { // If input is blob or blobs -> use multipart
             Map<String, RequestBody> fbodys = new HashMap<>();
             for (int i = 0; i < ((Blobs) input).size(); i++) {
                 Blob fileBlob = ((Blobs) input).getBlobs().get(i);
-                RequestBody fbody = RequestBody.create(MediaType.parse(fileBlob.getMimeType()), fileBlob.getFile());
+                RequestBody fbody = fileBlob.toRequestBody();
                 fbodys.put(INPUT_PARTS + String.valueOf(i), fbody);
             }
-            super.execute(callback, operationId, body, fbodys);
+            enqueue("execute", callback, operationId, body, fbodys);
         } else {
-            super.execute(callback, operationId, body);
+            enqueue("execute", callback, operationId, body);
         }
     }
 
@@ -164,10 +328,53 @@ public class Operation extends NuxeoEntity {
 
     public void execute(String batchId, String fileIdx, String operationId, OperationBody body,
             Callback<Object> callback) {
-        execute(callback, batchId, fileIdx, operationId, body);
+        enqueue("execute", invalidating(callback, result -> changed(body, result)), batchId, fileIdx, operationId,
+                body);
     }
 
     public void execute(Callback<Object> callback) {
         this.execute(this.operationId, this.body, callback);
     }
+
+    /** Operation Execution Methods Future **/
+
+    /**
+     * @return the result of the operation, completed once executed, cancelling it cancels the execution.
+     * @since 2.6
+     */
+    public <T> CompletableFuture<T> executeAsync(String operationId, OperationBody body) {
+        CompletableFuture<Object> future = fetchResponseAsync("execute", executeArguments(operationId, body));
+        return mapResponseAsync(future, result -> (T) invalidateCache(body, result));
+    }
+
+    /**
+     * @since 2.6
+     */
+    public <T> CompletableFuture<T> executeAsync(String operationId) {
+        return executeAsync(operationId, this.body);
+    }
+
+    /**
+     * @see #execute(OperationRequest)
+     * @since 2.6
+     */
+    public <T> CompletableFuture<T> executeAsync(OperationRequest request) {
+        return executeAsync(request.getOperationId(), request.toBody());
+    }
+
+    /**
+     * @since 2.6
+     */
+    public <T> CompletableFuture<T> executeAsync(String batchId, String fileIdx, String operationId,
+            OperationBody body) {
+        CompletableFuture<Object> future = fetchResponseAsync("execute", batchId, fileIdx, operationId, body);
+        return mapResponseAsync(future, result -> (T) invalidateCache(body, result));
+    }
+
+    /**
+     * @since 2.6
+     */
+    public <T> CompletableFuture<T> executeAsync() {
+        return executeAsync(this.operationId, this.body);
+    }
 }
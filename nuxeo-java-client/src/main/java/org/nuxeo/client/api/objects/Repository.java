@@ -18,17 +18,41 @@
  */
 package org.nuxeo.client.api.objects;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
 import okhttp3.ResponseBody;
 
 import org.nuxeo.client.api.ConstantsV1;
 import org.nuxeo.client.api.NuxeoClient;
+import org.nuxeo.client.api.RequestOptions;
+import org.nuxeo.client.api.cache.CacheIndex;
 import org.nuxeo.client.api.methods.RepositoryAPI;
 import org.nuxeo.client.api.objects.acl.ACP;
 import org.nuxeo.client.api.objects.audit.Audit;
 import org.nuxeo.client.api.objects.blob.Blob;
+import org.nuxeo.client.api.objects.blob.SegmentedBlobDownload;
+import org.nuxeo.client.api.objects.blob.StreamBlob;
+import org.nuxeo.client.api.objects.bulk.BulkWriter;
 import org.nuxeo.client.api.objects.workflow.Graph;
 import org.nuxeo.client.api.objects.workflow.Workflow;
 import org.nuxeo.client.api.objects.workflow.Workflows;
+import org.nuxeo.client.internals.spi.NuxeoClientException;
 
 import retrofit2.Callback;
 
@@ -37,7 +61,53 @@ import retrofit2.Callback;
  */
 public class Repository extends NuxeoEntity {
 
-    protected Document root;
+    /**
+     * Number of pages fetched ahead of the one being iterated by the paginated queries.
+     *
+     * @since 2.6
+     */
+    protected static final int DOCUMENTS_PREFETCH = 1;
+
+    /**
+     * Number of retries of a page refused by a busy server, by the parallel queries.
+     *
+     * @since 2.6
+     */
+    protected static final int DOCUMENTS_MAX_RETRIES = 5;
+
+    /**
+     * Delay in milliseconds before the first retry of a page, doubled on each retry.
+     *
+     * @since 2.6
+     */
+    protected static final long DOCUMENTS_RETRY_DELAY = 200;
+
+    /**
+     * Number of ids fetched per query by {@link #fetchDocumentsByIds(Collection)}.
+     *
+     * @since 2.6
+     */
+    protected static final int DOCUMENTS_BATCH_SIZE = 50;
+
+    /**
+     * Number of queries in flight for {@link #fetchDocumentsByIds(Collection)}.
+     *
+     * @since 2.6
+     */
+    protected static final int DOCUMENTS_BATCH_PARALLELISM = 4;
+
+    /**
+     * Properties of a blob in the properties of its document.
+     *
+     * @since 2.6
+     */
+    protected static final String BLOB_LENGTH = "length";
+
+    protected static final String BLOB_DIGEST = "digest";
+
+    protected static final String BLOB_DIGEST_ALGORITHM = "digestAlgorithm";
+
+    protected volatile Document root;
 
     public Repository(NuxeoClient nuxeoClient) {
         super(ConstantsV1.ENTITY_TYPE_DOCUMENT, nuxeoClient, RepositoryAPI.class);
@@ -49,13 +119,43 @@ public class Repository extends NuxeoEntity {
     }
 
     /**
-     * Force the cache refresh.
+     * @return a repository sending the given options with its calls, this repository is left untouched.
+     * @since 2.6
+     */
+    public Repository withOptions(RequestOptions requestOptions) {
+        Repository repository = new Repository(nuxeoClient);
+        repository.repositoryName = repositoryName;
+        repository.api = api;
+        repository.requestOptions = requestOptions;
+        repository.asyncExecutor = asyncExecutor;
+        return repository;
+    }
+
+    /**
+     * @return a repository completing the futures of its async calls with the given executor, this repository is left
+     *         untouched.
+     * @since 2.6
+     */
+    public Repository withExecutor(Executor asyncExecutor) {
+        Repository repository = withOptions(requestOptions);
+        repository.asyncExecutor = asyncExecutor;
+        return repository;
+    }
+
+    /**
+     * Force the cache refresh: the cached responses are evicted at once, since 2.6, instead of by the next call of this
+     * repository, so that the repository holds no state of the next call.
      */
     public Repository refreshCache() {
-        this.refreshCache = true;
+        if (nuxeoClient.isCacheEnabled()) {
+            nuxeoClient.getNuxeoCache().invalidateAll();
+        }
         return this;
     }
 
+    /**
+     * @return the root document last fetched by this repository, from any thread.
+     */
     public Document getDocumentRoot() {
         return root;
     }
@@ -63,268 +163,839 @@ public class Repository extends NuxeoEntity {
     /* By Id - Sync */
 
     public Document fetchDocumentById(String documentId) {
-        return (Document) getResponse(documentId);
+        return (Document) fetchResponse("fetchDocumentById", documentId);
     }
 
     public Document createDocumentById(String parentId, Document document) {
-        return (Document) getResponse(parentId, document);
+        Document created = (Document) fetchResponse("createDocumentById", parentId, document);
+        invalidateCache(CacheIndex.of(created, CacheIndex.children(CacheIndex.id(parentId))));
+        return created;
     }
 
     public Document updateDocument(Document document) {
         document.setProperties(document.getDirtyProperties());
-        return (Document) getResponse(document.getId(), document);
+        Document updated = (Document) fetchResponse("updateDocument", document.getId(), document);
+        invalidateCache(CacheIndex.of(updated, CacheIndex.id(document.getId())));
+        return updated;
     }
 
     public void deleteDocument(Document document) {
-        getResponse(document.getId());
+        fetchResponse("deleteDocument", document.getId());
+        invalidateCache(CacheIndex.ofDeleted(document));
     }
 
     public void deleteDocument(String docId) {
-        getResponse(docId);
+        fetchResponse("deleteDocument", docId);
+        // the parent children listing is evicted with the cached document, if any
+        invalidateCache(Arrays.asList(CacheIndex.id(docId), CacheIndex.children(CacheIndex.id(docId))));
+    }
+
+    /**
+     * @return a writer of documents in bulk, with the options of this repository.
+     * @since 2.6
+     */
+    public BulkWriter bulkWriter() {
+        return new BulkWriter(this, nuxeoClient.getBlockingExecutor());
     }
 
     /* By Id - Async */
 
     public void fetchDocumentById(String documentId, Callback<Document> callback) {
-        execute(callback, documentId);
+        enqueue("fetchDocumentById", callback, documentId);
     }
 
     public void createDocumentById(String parentId, Document document, Callback<Document> callback) {
-        execute(callback, parentId, document);
+        enqueue("createDocumentById", invalidating(callback,
+                created -> CacheIndex.of((Document) created, CacheIndex.children(CacheIndex.id(parentId)))),
+                parentId, document);
     }
 
     public void updateDocument(Document document, Callback<Document> callback) {
         document.setProperties(document.getDirtyProperties());
-        execute(callback, document.getId(), document);
+        enqueue("updateDocument",
+                invalidating(callback, updated -> CacheIndex.of((Document) updated, CacheIndex.id(document.getId()))),
+                document.getId(), document);
     }
 
     public void deleteDocument(Document document, Callback<ResponseBody> callback) {
-        execute(callback, document.getId());
+        enqueue("deleteDocument", invalidating(callback, response -> CacheIndex.ofDeleted(document)),
+                document.getId());
+    }
+
+    /* By Id - Future */
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Document> fetchDocumentByIdAsync(String documentId) {
+        return fetchResponseAsync("fetchDocumentById", documentId);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Document> createDocumentByIdAsync(String parentId, Document document) {
+        return mapResponseAsync(fetchResponseAsync("createDocumentById", parentId, document), response -> {
+            Document created = (Document) response;
+            invalidateCache(CacheIndex.of(created, CacheIndex.children(CacheIndex.id(parentId))));
+            return created;
+        });
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Document> updateDocumentAsync(Document document) {
+        document.setProperties(document.getDirtyProperties());
+        return mapResponseAsync(fetchResponseAsync("updateDocument", document.getId(), document), response -> {
+            Document updated = (Document) response;
+            invalidateCache(CacheIndex.of(updated, CacheIndex.id(document.getId())));
+            return updated;
+        });
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Void> deleteDocumentAsync(Document document) {
+        return mapResponseAsync(fetchResponseAsync("deleteDocument", document.getId()), response -> {
+            invalidateCache(CacheIndex.ofDeleted(document));
+            return null;
+        });
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Void> deleteDocumentAsync(String docId) {
+        return mapResponseAsync(fetchResponseAsync("deleteDocument", docId), response -> {
+            invalidateCache(Arrays.asList(CacheIndex.id(docId), CacheIndex.children(CacheIndex.id(docId))));
+            return null;
+        });
     }
 
     /* By Path - Sync */
 
     public Document fetchDocumentRoot() {
-        root = (Document) getResponse();
+        root = (Document) fetchResponse("fetchDocumentRoot");
         return root;
     }
 
     public Document fetchDocumentByPath(String documentPath) {
-        return (Document) getResponse(documentPath);
+        return (Document) fetchResponse("fetchDocumentByPath", documentPath);
     }
 
     public Document createDocumentByPath(String parentPath, Document document) {
-        return (Document) getResponse(parentPath, document);
+        Document created = (Document) fetchResponse("createDocumentByPath", parentPath, document);
+        invalidateCache(CacheIndex.of(created, CacheIndex.children(CacheIndex.path(parentPath))));
+        return created;
     }
 
     /* By Path - Async */
 
     public void fetchDocumentRoot(Callback<Document> callback) {
-        execute(callback);
+        enqueue("fetchDocumentRoot", callback);
     }
 
     public void fetchDocumentByPath(String documentPath, Callback<Document> callback) {
-        execute(callback, documentPath);
+        enqueue("fetchDocumentByPath", callback, documentPath);
     }
 
     public void createDocumentByPath(String parentPath, Document document, Callback<Document> callback) {
-        execute(callback, parentPath, document);
+        enqueue("createDocumentByPath", invalidating(callback,
+                created -> CacheIndex.of((Document) created, CacheIndex.children(CacheIndex.path(parentPath)))),
+                parentPath, document);
+    }
+
+    /* By Path - Future */
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Document> fetchDocumentRootAsync() {
+        return mapResponseAsync(fetchResponseAsync("fetchDocumentRoot"), response -> {
+            root = (Document) response;
+            return root;
+        });
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Document> fetchDocumentByPathAsync(String documentPath) {
+        return fetchResponseAsync("fetchDocumentByPath", documentPath);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Document> createDocumentByPathAsync(String parentPath, Document document) {
+        return mapResponseAsync(fetchResponseAsync("createDocumentByPath", parentPath, document), response -> {
+            Document created = (Document) response;
+            invalidateCache(CacheIndex.of(created, CacheIndex.children(CacheIndex.path(parentPath))));
+            return created;
+        });
     }
 
     /* Query - Sync */
 
     public Documents query(String query) {
-        return (Documents) getResponse(query);
+        return (Documents) fetchResponse("query", query);
     }
 
     public Documents query(String query, String pageSize, String currentPageIndex, String maxResults, String sortBy,
             String sortOrder, String queryParams) {
-        return (Documents) getResponse(query, pageSize, currentPageIndex, maxResults, sortBy, sortOrder, queryParams);
+        return (Documents) fetchResponse("query", query, pageSize, currentPageIndex, maxResults, sortBy, sortOrder,
+                queryParams);
     }
 
     public Documents queryByProvider(String providerName, String pageSize, String currentPageIndex, String maxResults,
             String sortBy, String sortOrder, String queryParams) {
-        return (Documents) getResponse(providerName, pageSize, currentPageIndex, maxResults, sortBy, sortOrder,
-                queryParams);
+        return (Documents) fetchResponse("queryByProvider", providerName, pageSize, currentPageIndex, maxResults,
+                sortBy, sortOrder, queryParams);
+    }
+
+    /* Query - Paginated */
+
+    /**
+     * @return the documents of the query, fetched page by page while iterated. The pages bypass the client cache.
+     * @since 2.6
+     */
+    public DocumentsIterator queryIterator(String query, int pageSize) {
+        return queryIterator(query, pageSize, null, null, null);
+    }
+
+    /**
+     * @return the documents of the query, fetched page by page while iterated, the next page being fetched in the
+     *         background.
+     * @since 2.6
+     */
+    public DocumentsIterator queryIterator(String query, int pageSize, String sortBy, String sortOrder,
+            String queryParams) {
+        String size = String.valueOf(pageSize);
+        return newDocumentsIterator(pageIndex -> fetchUncachedAsync("query", query, size, String.valueOf(pageIndex),
+                null, sortBy, sortOrder, queryParams));
+    }
+
+    /**
+     * @return the documents of the page provider, fetched page by page while iterated, the next page being fetched in
+     *         the background.
+     * @since 2.6
+     */
+    public DocumentsIterator queryByProviderIterator(String providerName, int pageSize, String sortBy,
+            String sortOrder, String queryParams) {
+        String size = String.valueOf(pageSize);
+        return newDocumentsIterator(pageIndex -> fetchUncachedAsync("queryByProvider", providerName, size,
+                String.valueOf(pageIndex), null, sortBy, sortOrder, queryParams));
+    }
+
+    /**
+     * @return the documents of the query, the pages after the first one being fetched concurrently by at most
+     *         {@code parallelism} calls, and retried with a backoff when the server is busy.
+     * @param ordered whether the documents are returned in the query order or as soon as their page is received.
+     * @since 2.6
+     */
+    public DocumentsIterator queryParallel(String query, int pageSize, String sortBy, String sortOrder,
+            String queryParams, int parallelism, boolean ordered) {
+        String size = String.valueOf(pageSize);
+        return newDocumentsIterator(pageIndex -> fetchUncachedAsync("query", query, size, String.valueOf(pageIndex),
+                null, sortBy, sortOrder, queryParams), parallelism, ordered);
+    }
+
+    /**
+     * @return the documents of the page provider, the pages after the first one being fetched concurrently by at most
+     *         {@code parallelism} calls, and retried with a backoff when the server is busy.
+     * @param ordered whether the documents are returned in the query order or as soon as their page is received.
+     * @since 2.6
+     */
+    public DocumentsIterator queryByProviderParallel(String providerName, int pageSize, String sortBy,
+            String sortOrder, String queryParams, int parallelism, boolean ordered) {
+        String size = String.valueOf(pageSize);
+        return newDocumentsIterator(pageIndex -> fetchUncachedAsync("queryByProvider", providerName, size,
+                String.valueOf(pageIndex), null, sortBy, sortOrder, queryParams), parallelism, ordered);
+    }
+
+    /**
+     * @return the documents of the NXQL query ordered by uid, each page being fetched after the last uid received.
+     * @since 2.6
+     */
+    public DocumentsScroll queryScroll(String query, int pageSize) {
+        return queryScroll(query, pageSize, null);
+    }
+
+    /**
+     * @param cursor the {@link DocumentsScroll#getCursor() cursor} of an interrupted scroll, to resume it.
+     * @return the documents of the NXQL query ordered by uid, each page being fetched after the last uid received.
+     * @since 2.6
+     */
+    public DocumentsScroll queryScroll(String query, int pageSize, String cursor) {
+        // checks the query before the first fetch
+        DocumentsScroll.scrollQuery(query, null);
+        String size = String.valueOf(pageSize);
+        return new DocumentsScroll(after -> (Documents) fetchUncached("query",
+                DocumentsScroll.scrollQuery(query, after), size, "0", null, null, null, null), cursor);
+    }
+
+    /**
+     * @return the documents of the query as a stream, to close in order to cancel the pending page fetches.
+     * @since 2.6
+     */
+    public Stream<Document> queryStream(String query, int pageSize) {
+        return queryIterator(query, pageSize).stream();
+    }
+
+    /**
+     * @param pageFetcher the function starting the fetch of a page, cancelling its http call with its future.
+     * @since 2.6
+     */
+    protected DocumentsIterator newDocumentsIterator(IntFunction<CompletableFuture<Documents>> pageFetcher) {
+        return DocumentsIterator.of(pageFetcher, DOCUMENTS_PREFETCH, true);
+    }
+
+    /**
+     * @param pageFetcher the function starting the fetch of a page, cancelling its http call with its future.
+     * @since 2.6
+     */
+    protected DocumentsIterator newDocumentsIterator(IntFunction<CompletableFuture<Documents>> pageFetcher,
+            int parallelism, boolean ordered) {
+        if (parallelism < 1) {
+            throw new NuxeoClientException("parallelism < 1: " + parallelism);
+        }
+        return DocumentsIterator.of(DocumentsIterator.withBackoff(pageFetcher, DOCUMENTS_MAX_RETRIES,
+                DOCUMENTS_RETRY_DELAY, nuxeoClient.getBlockingExecutor()), parallelism, ordered);
+    }
+
+    /**
+     * Fetches the documents with the given ids in batches of {@link #DOCUMENTS_BATCH_SIZE} ids queried concurrently,
+     * see {@link #fetchDocumentsByIds(Collection, int, int)}.
+     *
+     * @since 2.6
+     */
+    public Map<String, Document> fetchDocumentsByIds(Collection<String> documentIds) {
+        return fetchDocumentsByIds(documentIds, DOCUMENTS_BATCH_SIZE, DOCUMENTS_BATCH_PARALLELISM);
+    }
+
+    /**
+     * Fetches the documents with the given ids with one query per batch of {@code batchSize} ids, at most
+     * {@code parallelism} queries being in flight. Smaller batches return their documents sooner, bigger ones need
+     * less requests. Each document is cached as the response of its fetch by id.
+     *
+     * @return the documents by id, in the order of the ids, with a null document for an id not found.
+     * @since 2.6
+     */
+    public Map<String, Document> fetchDocumentsByIds(Collection<String> documentIds, int batchSize,
+            int parallelism) {
+        if (batchSize < 1) {
+            throw new NuxeoClientException("batchSize < 1: " + batchSize);
+        }
+        if (parallelism < 1) {
+            throw new NuxeoClientException("parallelism < 1: " + parallelism);
+        }
+        Map<String, Document> documents = new LinkedHashMap<>();
+        for (String documentId : documentIds) {
+            documents.put(documentId, null);
+        }
+        List<String> ids = new ArrayList<>(documents.keySet());
+        ExecutorService executor = nuxeoClient.getBlockingExecutor();
+        CompletionService<Documents> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<Documents>> futures = new ArrayList<>();
+        int batches = (ids.size() + batchSize - 1) / batchSize;
+        int nextBatch = 0;
+        try {
+            for (int completed = 0; completed < batches; completed++) {
+                while (nextBatch < batches && nextBatch - completed < parallelism) {
+                    List<String> batch = ids.subList(nextBatch * batchSize,
+                            Math.min(ids.size(), ++nextBatch * batchSize));
+                    futures.add(completionService.submit(() -> query(idsQuery(batch), String.valueOf(batch.size()),
+                            "0", null, null, null, null)));
+                }
+                Documents page = completionService.take().get();
+                if (page.getDocuments() != null) {
+                    for (Document document : page.getDocuments()) {
+                        if (documents.containsKey(document.getId())) {
+                            documents.put(document.getId(), document);
+                            cacheResponse(document, "fetchDocumentById", document.getId());
+                        }
+                    }
+                }
+            }
+            return documents;
+        } catch (InterruptedException reason) {
+            Thread.currentThread().interrupt();
+            throw new NuxeoClientException("Interrupted while fetching documents", reason);
+        } catch (ExecutionException reason) {
+            if (reason.getCause() instanceof NuxeoClientException) {
+                throw (NuxeoClientException) reason.getCause();
+            }
+            throw new NuxeoClientException(reason.getCause());
+        } finally {
+            // stops the remaining batches on failure
+            for (Future<Documents> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * @return the query of the documents with the given ids.
+     * @since 2.6
+     */
+    protected static String idsQuery(List<String> documentIds) {
+        StringBuilder query = new StringBuilder("SELECT * FROM Document WHERE ecm:uuid IN (");
+        for (int i = 0; i < documentIds.size(); i++) {
+            if (i > 0) {
+                query.append(", ");
+            }
+            query.append('\'').append(documentIds.get(i).replace("'", "\\'")).append('\'');
+        }
+        return query.append(')').toString();
     }
 
     /* Query - Async */
 
     public void query(String query, Callback<Documents> callback) {
-        execute(callback, query);
+        enqueue("query", callback, query);
     }
 
     public void query(String query, String pageSize, String currentPageIndex, String maxResults, String sortBy,
             String sortOrder, String queryParams, Callback<Documents> callback) {
-        execute(callback, query, pageSize, currentPageIndex, maxResults, sortBy, sortOrder, queryParams);
+        enqueue("query", callback, query, pageSize, currentPageIndex, maxResults, sortBy, sortOrder, queryParams);
     }
 
     public void queryByProvider(String providerName, String pageSize, String currentPageIndex, String maxResults,
             String sortBy, String sortOrder, String queryParams, Callback<Documents> callback) {
-        execute(callback, providerName, pageSize, currentPageIndex, maxResults, sortBy, sortOrder, queryParams);
+        enqueue("queryByProvider", callback, providerName, pageSize, currentPageIndex, maxResults, sortBy, sortOrder,
+                queryParams);
+    }
+
+    /* Query - Future */
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Documents> queryAsync(String query) {
+        return fetchResponseAsync("query", query);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Documents> queryAsync(String query, String pageSize, String currentPageIndex,
+            String maxResults, String sortBy, String sortOrder, String queryParams) {
+        return fetchResponseAsync("query", query, pageSize, currentPageIndex, maxResults, sortBy, sortOrder,
+                queryParams);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Documents> queryByProviderAsync(String providerName, String pageSize,
+            String currentPageIndex, String maxResults, String sortBy, String sortOrder, String queryParams) {
+        return fetchResponseAsync("queryByProvider", providerName, pageSize, currentPageIndex, maxResults, sortBy,
+                sortOrder, queryParams);
     }
 
     /* Audit - Sync */
 
     public Audit fetchAuditByPath(String documentPath) {
-        return (Audit) getResponse(documentPath);
+        return (Audit) fetchResponse("fetchAuditByPath", documentPath);
     }
 
     public Audit fetchAuditById(String documentId) {
-        return (Audit) getResponse(documentId);
+        return (Audit) fetchResponse("fetchAuditById", documentId);
     }
 
     /* Audit - Async */
 
     public void fetchAuditByPath(String documentPath, Callback<Audit> callback) {
-        execute(callback, documentPath);
+        enqueue("fetchAuditByPath", callback, documentPath);
     }
 
     public void fetchAuditById(String documentId, Callback<Audit> callback) {
-        execute(callback, documentId);
+        enqueue("fetchAuditById", callback, documentId);
+    }
+
+    /* Audit - Future */
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Audit> fetchAuditByPathAsync(String documentPath) {
+        return fetchResponseAsync("fetchAuditByPath", documentPath);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Audit> fetchAuditByIdAsync(String documentId) {
+        return fetchResponseAsync("fetchAuditById", documentId);
     }
 
     /* ACP - Sync */
 
     public ACP fetchACPByPath(String documentPath) {
-        return (ACP) getResponse(documentPath);
+        return (ACP) fetchResponse("fetchPermissionsByPath", documentPath);
     }
 
     public ACP fetchACPById(String documentId) {
-        return (ACP) getResponse(documentId);
+        return (ACP) fetchResponse("fetchPermissionsById", documentId);
     }
 
     /* ACP - Async */
 
     public void fetchACPByPath(String documentPath, Callback<ACP> callback) {
-        execute(callback, documentPath);
+        enqueue("fetchPermissionsByPath", callback, documentPath);
     }
 
     public void fetchACPById(String documentId, Callback<ACP> callback) {
-        execute(callback, documentId);
+        enqueue("fetchPermissionsById", callback, documentId);
+    }
+
+    /* ACP - Future */
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<ACP> fetchACPByPathAsync(String documentPath) {
+        return fetchResponseAsync("fetchPermissionsByPath", documentPath);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<ACP> fetchACPByIdAsync(String documentId) {
+        return fetchResponseAsync("fetchPermissionsById", documentId);
     }
 
     /* Children - Sync */
 
     public Documents fetchChildrenByPath(String parentPath) {
-        return (Documents) getResponse(parentPath);
+        return (Documents) fetchResponse("fetchChildrenByPath", parentPath);
     }
 
     public Documents fetchChildrenById(String parentId) {
-        return (Documents) getResponse(parentId);
+        return (Documents) fetchResponse("fetchChildrenById", parentId);
     }
 
     /* Children - Async */
 
     public void fetchChildrenByPath(String parentPath, Callback<Documents> callback) {
-        execute(callback, parentPath);
+        enqueue("fetchChildrenByPath", callback, parentPath);
     }
 
     public void fetchChildrenById(String parentId, Callback<Documents> callback) {
-        execute(callback, parentId);
+        enqueue("fetchChildrenById", callback, parentId);
+    }
+
+    /* Children - Future */
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Documents> fetchChildrenByPathAsync(String parentPath) {
+        return fetchResponseAsync("fetchChildrenByPath", parentPath);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Documents> fetchChildrenByIdAsync(String parentId) {
+        return fetchResponseAsync("fetchChildrenById", parentId);
     }
 
     /* Blobs - Sync */
 
     public Blob fetchBlobByPath(String documentPath, String fieldPath) {
-        return (Blob) getResponse(documentPath, fieldPath);
+        return (Blob) fetchResponse("fetchBlobByPath", documentPath, fieldPath);
     }
 
     public Blob fetchBlobById(String documentId, String fieldPath) {
-        return (Blob) getResponse(documentId, fieldPath);
+        return (Blob) fetchResponse("fetchBlobById", documentId, fieldPath);
+    }
+
+    /**
+     * @return the blob streamed from the response, to close once read, see {@link StreamBlob}.
+     * @since 2.6
+     */
+    public StreamBlob streamBlobByPath(String documentPath, String fieldPath) {
+        return (StreamBlob) fetchResponse("streamBlobByPath", documentPath, fieldPath);
+    }
+
+    /**
+     * @return the blob streamed from the response, to close once read, see {@link StreamBlob}.
+     * @since 2.6
+     */
+    public StreamBlob streamBlobById(String documentId, String fieldPath) {
+        return (StreamBlob) fetchResponse("streamBlobById", documentId, fieldPath);
+    }
+
+    /**
+     * @return the range of the blob at the offset and of the length, streamed from the response, to close once read.
+     * @since 2.6
+     */
+    public StreamBlob streamBlobByPath(String documentPath, String fieldPath, long offset, long length) {
+        return withRange(offset, length).streamBlobByPath(documentPath, fieldPath);
+    }
+
+    /**
+     * @return the range of the blob at the offset and of the length, streamed from the response, to close once read.
+     * @since 2.6
+     */
+    public StreamBlob streamBlobById(String documentId, String fieldPath, long offset, long length) {
+        return withRange(offset, length).streamBlobById(documentId, fieldPath);
+    }
+
+    /**
+     * Downloads the blob to the target file in {@code segments} ranges fetched concurrently, then checks the digest of
+     * the file against the digest of the blob, see {@link SegmentedBlobDownload}.
+     *
+     * @return the target file.
+     * @since 2.6
+     */
+    public File downloadBlobByPath(String documentPath, String fieldPath, File target, int segments) {
+        Document document = withAllSchemas().fetchDocumentByPath(documentPath);
+        return downloadBlob(document, fieldPath, target, segments,
+                (offset, length) -> streamBlobByPath(documentPath, fieldPath, offset, length));
+    }
+
+    /**
+     * Downloads the blob to the target file in {@code segments} ranges fetched concurrently, then checks the digest of
+     * the file against the digest of the blob, see {@link SegmentedBlobDownload}.
+     *
+     * @return the target file.
+     * @since 2.6
+     */
+    public File downloadBlobById(String documentId, String fieldPath, File target, int segments) {
+        Document document = withAllSchemas().fetchDocumentById(documentId);
+        return downloadBlob(document, fieldPath, target, segments,
+                (offset, length) -> streamBlobById(documentId, fieldPath, offset, length));
+    }
+
+    /**
+     * @since 2.6
+     */
+    protected File downloadBlob(Document document, String fieldPath, File target, int segments,
+            BiFunction<Long, Long, StreamBlob> rangeLoader) {
+        Object property = document.getPropertyValue(fieldPath);
+        if (!(property instanceof Map)) {
+            throw new NuxeoClientException("No blob at " + fieldPath + " of document " + document.getId());
+        }
+        Map<?, ?> blob = (Map<?, ?>) property;
+        Object length = blob.get(BLOB_LENGTH);
+        if (length == null) {
+            throw new NuxeoClientException("Unknown length of the blob at " + fieldPath + " of " + document.getId());
+        }
+        Object digest = blob.get(BLOB_DIGEST);
+        Object digestAlgorithm = blob.get(BLOB_DIGEST_ALGORITHM);
+        return new SegmentedBlobDownload(rangeLoader, nuxeoClient.getBlockingExecutor(),
+                segments).download(target, Long.parseLong(length.toString()),
+                        digestAlgorithm == null ? ConstantsV1.MD_5 : digestAlgorithm.toString(),
+                        digest == null ? null : digest.toString());
+    }
+
+    /**
+     * @return a repository sending its calls with a range header, bounded when the length is not negative.
+     * @since 2.6
+     */
+    protected Repository withRange(long offset, long length) {
+        String range = "bytes=" + offset + "-" + (length < 0 ? "" : String.valueOf(offset + length - 1));
+        return withOptions(newOptionsBuilder().header(ConstantsV1.HEADER_RANGE, range).build());
+    }
+
+    /**
+     * @since 2.6
+     */
+    protected Repository withAllSchemas() {
+        return withOptions(newOptionsBuilder().schemas("*").build());
+    }
+
+    /**
+     * @return a builder of options starting from the options of this repository.
+     * @since 2.6
+     */
+    protected RequestOptions.Builder newOptionsBuilder() {
+        return requestOptions == null ? RequestOptions.builder() : requestOptions.newBuilder();
     }
 
     /* Blobs - Async */
 
     public void fetchBlobByPath(String documentPath, String fieldPath, Callback<Blob> callback) {
-        execute(callback, documentPath, fieldPath);
+        enqueue("fetchBlobByPath", callback, documentPath, fieldPath);
     }
 
     public void fetchBlobById(String documentId, String fieldPath, Callback<Blob> callback) {
-        execute(callback, documentId, fieldPath);
+        enqueue("fetchBlobById", callback, documentId, fieldPath);
+    }
+
+    /* Blobs - Future */
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Blob> fetchBlobByPathAsync(String documentPath, String fieldPath) {
+        return fetchResponseAsync("fetchBlobByPath", documentPath, fieldPath);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Blob> fetchBlobByIdAsync(String documentId, String fieldPath) {
+        return fetchResponseAsync("fetchBlobById", documentId, fieldPath);
     }
 
     /* Workflows - Sync */
 
     public Workflow startWorkflowInstanceWithDocPath(String documentPath, Workflow workflow) {
-        return (Workflow) getResponse(documentPath, workflow);
+        return (Workflow) fetchResponse("startWorkflowInstanceWithDocPath", documentPath, workflow);
     }
 
     public Workflow startWorkflowInstanceWithDocId(String documentId, Workflow workflow) {
-        return (Workflow) getResponse(documentId, workflow);
+        return (Workflow) fetchResponse("startWorkflowInstanceWithDocId", documentId, workflow);
     }
 
     public Workflows fetchWorkflowInstancesByDocId(String documentId) {
-        return (Workflows) getResponse(documentId);
+        return (Workflows) fetchResponse("fetchWorkflowInstances", documentId);
     }
 
     public Workflows fetchWorkflowInstancesByDocPath(String documentPath) {
-        return (Workflows) getResponse(documentPath);
+        return (Workflows) fetchResponse("fetchWorkflowInstancesByDocPath", documentPath);
     }
 
     public Workflow fetchWorkflowInstance(String workflowInstanceId) {
-        return (Workflow) getResponse(workflowInstanceId);
+        return (Workflow) fetchResponse("fetchWorkflowInstance", workflowInstanceId);
     }
 
     public void cancelWorkflowInstance(String workflowInstanceId) {
-        getResponse(workflowInstanceId);
+        fetchResponse("cancelWorkflowInstance", workflowInstanceId);
     }
 
     public Graph fetchWorkflowInstanceGraph(String workflowInstanceId) {
-        return (Graph) getResponse(workflowInstanceId);
+        return (Graph) fetchResponse("fetchWorkflowInstanceGraph", workflowInstanceId);
     }
 
     public Graph fetchWorkflowModelGraph(String workflowModelName) {
-        return (Graph) getResponse(workflowModelName);
+        return (Graph) fetchResponse("fetchWorkflowModelGraph", workflowModelName);
     }
 
     public Workflow fetchWorkflowModel(String workflowModelName) {
-        return (Workflow) getResponse(workflowModelName);
+        return (Workflow) fetchResponse("fetchWorkflowModel", workflowModelName);
     }
 
     public Workflows fetchWorkflowModels() {
-        return (Workflows) getResponse();
+        return (Workflows) fetchResponse("fetchWorkflowModels");
     }
 
     /* Workflows - Async */
 
     public void startWorkflowInstanceWithDocPath(String documentPath, Workflow workflow, Callback<Workflow> callback) {
-        execute(callback, documentPath, workflow);
+        enqueue("startWorkflowInstanceWithDocPath", callback, documentPath, workflow);
     }
 
     public void startWorkflowInstanceWithDocId(String documentId, Workflow workflow, Callback<Workflow> callback) {
-        execute(callback, documentId, workflow);
+        enqueue("startWorkflowInstanceWithDocId", callback, documentId, workflow);
     }
 
     public void fetchWorkflowInstancesByDocId(String documentId, Callback<Workflow> callback) {
-        execute(callback, documentId);
+        enqueue("fetchWorkflowInstances", callback, documentId);
     }
 
     public void fetchWorkflowInstancesByDocPath(String documentPath, Callback<Workflow> callback) {
-        execute(callback, documentPath);
+        enqueue("fetchWorkflowInstancesByDocPath", callback, documentPath);
     }
 
     public void fetchWorkflowInstance(String workflowInstanceId, Callback<Workflow> callback) {
-        execute(callback, workflowInstanceId);
+        enqueue("fetchWorkflowInstance", callback, workflowInstanceId);
     }
 
     public void deleteWorkflowInstance(String workflowInstanceId, Callback<ResponseBody> callback) {
-        execute(callback, workflowInstanceId);
+        enqueue("cancelWorkflowInstance", callback, workflowInstanceId);
     }
 
     public void fetchWorkflowInstanceGraph(String workflowInstanceId, Callback<Graph> callback) {
-        execute(callback, workflowInstanceId);
+        enqueue("fetchWorkflowInstanceGraph", callback, workflowInstanceId);
     }
 
     public void fetchWorkflowModelGraph(String workflowModelName, Callback<Graph> callback) {
-        execute(callback, workflowModelName);
+        enqueue("fetchWorkflowModelGraph", callback, workflowModelName);
     }
 
     public void fetchWorkflowModel(String workflowModelName, Callback<Workflow> callback) {
-        execute(callback, workflowModelName);
+        enqueue("fetchWorkflowModel", callback, workflowModelName);
     }
 
     public void fetchWorkflowModels(Callback<Workflows> callback) {
-        execute(callback);
+        enqueue("fetchWorkflowModels", callback);
+    }
+
+    /* Workflows - Future */
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Workflow> startWorkflowInstanceWithDocPathAsync(String documentPath, Workflow workflow) {
+        return fetchResponseAsync("startWorkflowInstanceWithDocPath", documentPath, workflow);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Workflow> startWorkflowInstanceWithDocIdAsync(String documentId, Workflow workflow) {
+        return fetchResponseAsync("startWorkflowInstanceWithDocId", documentId, workflow);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Workflows> fetchWorkflowInstancesByDocIdAsync(String documentId) {
+        return fetchResponseAsync("fetchWorkflowInstances", documentId);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Workflows> fetchWorkflowInstancesByDocPathAsync(String documentPath) {
+        return fetchResponseAsync("fetchWorkflowInstancesByDocPath", documentPath);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Workflow> fetchWorkflowInstanceAsync(String workflowInstanceId) {
+        return fetchResponseAsync("fetchWorkflowInstance", workflowInstanceId);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Void> cancelWorkflowInstanceAsync(String workflowInstanceId) {
+        return mapResponseAsync(fetchResponseAsync("cancelWorkflowInstance", workflowInstanceId), response -> null);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Graph> fetchWorkflowInstanceGraphAsync(String workflowInstanceId) {
+        return fetchResponseAsync("fetchWorkflowInstanceGraph", workflowInstanceId);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Graph> fetchWorkflowModelGraphAsync(String workflowModelName) {
+        return fetchResponseAsync("fetchWorkflowModelGraph", workflowModelName);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Workflow> fetchWorkflowModelAsync(String workflowModelName) {
+        return fetchResponseAsync("fetchWorkflowModel", workflowModelName);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Workflows> fetchWorkflowModelsAsync() {
+        return fetchResponseAsync("fetchWorkflowModels");
     }
 }
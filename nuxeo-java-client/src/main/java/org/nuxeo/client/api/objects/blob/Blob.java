@@ -26,9 +26,13 @@ import java.io.InputStream;
 import org.apache.commons.io.FileCleaningTracker;
 import org.nuxeo.client.api.ConstantsV1;
 import org.nuxeo.client.api.objects.NuxeoEntity;
+import org.nuxeo.client.api.objects.upload.FileRequestBody;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+
 /**
  * @since 0.1
  */
@@ -117,6 +121,14 @@ public class Blob extends NuxeoEntity {
         return fileName + " - " + mimeType + " - " + formatLength(getLength());
     }
 
+    /**
+     * @return the body sending this blob, transferred from its file.
+     * @since 2.6
+     */
+    public RequestBody toRequestBody() {
+        return new FileRequestBody(MediaType.parse(mimeType), file.toPath());
+    }
+
     public void track() {
         if (file != null) {
             fileCleaningTracker = new FileCleaningTracker();
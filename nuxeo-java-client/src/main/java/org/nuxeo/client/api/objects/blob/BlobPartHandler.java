@@ -0,0 +1,45 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.objects.blob;
+
+import java.io.IOException;
+
+import okio.BufferedSource;
+
+/**
+ * Handler of the blobs of a multipart response, called for each part while it is read from the response, see
+ * {@link org.nuxeo.client.api.objects.Operation#executeBlobs(BlobPartHandler)}.
+ * <p>
+ * The content of a part is only readable during the call, the handler decides where to keep it, see
+ * {@link BlobPartHandlers} for the usual ones.
+ *
+ * @since 2.6
+ */
+@FunctionalInterface
+public interface BlobPartHandler {
+
+    /**
+     * @param fileName the file name of the part, null if it has none.
+     * @param mimeType the mime type of the part, null if it has none.
+     * @param content the content of the part, readable during the call only.
+     * @return the blob of the part.
+     */
+    Blob handle(String fileName, String mimeType, BufferedSource content) throws IOException;
+
+}
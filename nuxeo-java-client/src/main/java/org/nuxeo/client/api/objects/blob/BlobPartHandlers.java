@@ -0,0 +1,95 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.objects.blob;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.BiFunction;
+
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.Okio;
+
+/**
+ * Usual handlers of the blobs of a multipart response.
+ *
+ * @since 2.6
+ */
+public final class BlobPartHandlers {
+
+    private BlobPartHandlers() {
+        // utility class
+    }
+
+    /**
+     * @return a handler spooling each part to a temporary file, deleted on exit.
+     */
+    public static BlobPartHandler toTempFile() {
+        return (fileName, mimeType, content) -> spool(fileName, mimeType, new Buffer(), content);
+    }
+
+    /**
+     * @return a handler keeping in memory the parts of at most {@code threshold} bytes, and spooling the bigger ones to
+     *         a temporary file, deleted on exit.
+     */
+    public static BlobPartHandler inMemory(long threshold) {
+        return (fileName, mimeType, content) -> {
+            Buffer buffer = new Buffer();
+            while (buffer.size() <= threshold && content.read(buffer, threshold + 1 - buffer.size()) != -1) {
+                // reads up to one byte more than the threshold
+            }
+            if (buffer.size() > threshold) {
+                return spool(fileName, mimeType, buffer, content);
+            }
+            return new StreamBlob(fileName, mimeType, buffer.inputStream(), buffer.size());
+        };
+    }
+
+    /**
+     * @param outputs the function opening the output of a part from its file name and mime type, closed once written.
+     * @return a handler copying each part to its output, the blobs returned hold no content.
+     */
+    public static BlobPartHandler toOutput(BiFunction<String, String, OutputStream> outputs) {
+        return (fileName, mimeType, content) -> {
+            try (BufferedSink sink = Okio.buffer(Okio.sink(outputs.apply(fileName, mimeType)))) {
+                sink.writeAll(content);
+            }
+            return new Blob(fileName, mimeType);
+        };
+    }
+
+    private static Blob spool(String fileName, String mimeType, Buffer head, BufferedSource content)
+            throws IOException {
+        File file = File.createTempFile("nx-", ".tmp");
+        file.deleteOnExit();
+        try (BufferedSink sink = Okio.buffer(Okio.sink(file))) {
+            sink.writeAll(head);
+            sink.writeAll(content);
+        }
+        Blob blob = new Blob(file);
+        blob.setFileName(fileName);
+        if (mimeType != null) {
+            blob.setMimeType(mimeType);
+        }
+        return blob;
+    }
+
+}
@@ -67,4 +67,12 @@ public class Blobs extends NuxeoEntity {
         blobs.add(blob);
     }
 
+    /**
+     * @since 2.6
+     */
+    @JsonIgnore
+    public void add(Blob blob) {
+        blobs.add(blob);
+    }
+
 }
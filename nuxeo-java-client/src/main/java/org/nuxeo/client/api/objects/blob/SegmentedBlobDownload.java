@@ -0,0 +1,175 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.objects.blob;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+
+import org.nuxeo.client.internals.spi.NuxeoClientException;
+
+import com.google.common.io.BaseEncoding;
+
+/**
+ * Download of a large blob split in byte ranges fetched concurrently, each range being written at its position in a
+ * file preallocated to the length of the blob, see
+ * {@link org.nuxeo.client.api.objects.Repository#downloadBlobById(String, String, File, int)}.
+ * <p>
+ * Once all the ranges are written, the digest of the file is checked against the digest of the blob on the server.
+ *
+ * @since 2.6
+ */
+public class SegmentedBlobDownload {
+
+    protected static final int BUFFER_SIZE = 64 * 1024;
+
+    protected final BiFunction<Long, Long, StreamBlob> rangeLoader;
+
+    protected final Executor executor;
+
+    protected final int segments;
+
+    /**
+     * @param rangeLoader the function streaming the range of the blob at an offset and of a length.
+     * @param executor the executor fetching the ranges.
+     * @param segments the number of ranges fetched concurrently.
+     */
+    public SegmentedBlobDownload(BiFunction<Long, Long, StreamBlob> rangeLoader, Executor executor, int segments) {
+        if (segments < 1) {
+            throw new NuxeoClientException("segments < 1: " + segments);
+        }
+        this.rangeLoader = rangeLoader;
+        this.executor = executor;
+        this.segments = segments;
+    }
+
+    /**
+     * Downloads the blob to the target file, which is deleted if the download fails or if its digest does not match.
+     *
+     * @param length the length of the blob.
+     * @param digestAlgorithm the algorithm of the digest, MD5 for instance.
+     * @param digest the hexadecimal digest of the blob on the server, null to skip the check.
+     * @return the target file.
+     */
+    public File download(File target, long length, String digestAlgorithm, String digest) {
+        boolean downloaded = false;
+        try (FileChannel channel = FileChannel.open(target.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (length > 0) {
+                // allocates the file once instead of growing it with each range
+                channel.write(ByteBuffer.allocate(1), length - 1);
+            }
+            long segmentSize = Math.max(1, (length + segments - 1) / segments);
+            List<CompletableFuture<Void>> ranges = new ArrayList<>(segments);
+            for (long offset = 0; offset < length; offset += segmentSize) {
+                long position = offset;
+                long count = Math.min(segmentSize, length - offset);
+                ranges.add(CompletableFuture.runAsync(() -> downloadRange(channel, position, count), executor));
+            }
+            await(ranges);
+            if (digest != null) {
+                String actual = digest(channel, digestAlgorithm);
+                if (!actual.equalsIgnoreCase(digest)) {
+                    throw new NuxeoClientException(
+                            "Digest mismatch of " + target + ": expected " + digest + " but was " + actual);
+                }
+            }
+            downloaded = true;
+            return target;
+        } catch (IOException reason) {
+            throw new NuxeoClientException(reason);
+        } finally {
+            if (!downloaded) {
+                try {
+                    Files.deleteIfExists(target.toPath());
+                } catch (IOException reason) {
+                    // the download failure is thrown
+                }
+            }
+        }
+    }
+
+    protected void downloadRange(FileChannel channel, long position, long count) {
+        try (StreamBlob blob = rangeLoader.apply(position, count)) {
+            // a server ignoring the range sends the whole blob
+            if (blob.getContentLength() >= 0 && blob.getContentLength() != count) {
+                throw new NuxeoClientException("Range at " + position + " of " + count + " bytes not honored, got "
+                        + blob.getContentLength() + " bytes");
+            }
+            ReadableByteChannel input = Channels.newChannel(blob.getStream());
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(BUFFER_SIZE, count));
+            long end = position + count;
+            for (long offset = position; offset < end;) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), end - offset));
+                if (input.read(buffer) < 0) {
+                    throw new EOFException("Range at " + position + " truncated at " + offset);
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    offset += channel.write(buffer, offset);
+                }
+            }
+        } catch (IOException reason) {
+            throw new NuxeoClientException(reason);
+        }
+    }
+
+    protected void await(List<CompletableFuture<Void>> ranges) {
+        try {
+            CompletableFuture.allOf(ranges.toArray(new CompletableFuture<?>[ranges.size()])).join();
+        } catch (CompletionException reason) {
+            if (reason.getCause() instanceof NuxeoClientException) {
+                throw (NuxeoClientException) reason.getCause();
+            }
+            throw new NuxeoClientException(reason.getCause());
+        }
+    }
+
+    protected static String digest(FileChannel channel, String digestAlgorithm) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(digestAlgorithm);
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            for (long position = 0; channel.read(buffer, position) >= 0;) {
+                buffer.flip();
+                position += buffer.remaining();
+                digest.update(buffer);
+                buffer.clear();
+            }
+            return BaseEncoding.base16().lowerCase().encode(digest.digest());
+        } catch (NoSuchAlgorithmException reason) {
+            throw new NuxeoClientException(reason);
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.objects.blob;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+import org.nuxeo.client.api.objects.upload.StreamRequestBody;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
+
+/**
+ * Blob streamed from an input stream, to send data generated on the fly without writing it to a file first, or to read
+ * a downloaded blob straight from the response, see {@link org.nuxeo.client.api.objects.Repository#streamBlobById}.
+ * <p>
+ * The stream can only be read once. A downloaded blob holds its connection until its stream is read to the end or
+ * closed, it has to be closed, for instance with a try-with-resources statement.
+ *
+ * @since 2.6
+ */
+public class StreamBlob extends Blob implements Closeable {
+
+    @JsonIgnore
+    protected final InputStream stream;
+
+    @JsonIgnore
+    protected final long length;
+
+    /**
+     * @param length the number of bytes of the stream, -1 if unknown.
+     */
+    public StreamBlob(String fileName, String mimeType, InputStream stream, long length) {
+        super(fileName, mimeType);
+        this.stream = stream;
+        this.length = length;
+    }
+
+    @JsonIgnore
+    @Override
+    public int getLength() {
+        return length > Integer.MAX_VALUE ? -1 : (int) length;
+    }
+
+    /**
+     * @return the number of bytes of the stream, -1 if unknown.
+     */
+    @JsonIgnore
+    public long getContentLength() {
+        return length;
+    }
+
+    @JsonIgnore
+    @Override
+    public InputStream getStream() {
+        return stream;
+    }
+
+    /**
+     * Copies the stream to the output stream, which is left open, and closes the stream.
+     *
+     * @return the number of bytes copied.
+     */
+    public long copyTo(OutputStream output) throws IOException {
+        try (Source source = Okio.source(stream)) {
+            BufferedSink sink = Okio.buffer(Okio.sink(output));
+            long copied = sink.writeAll(source);
+            sink.emit();
+            return copied;
+        }
+    }
+
+    /**
+     * Copies the stream to the channel, which is left open, and closes the stream.
+     *
+     * @return the number of bytes copied.
+     */
+    public long copyTo(WritableByteChannel channel) throws IOException {
+        return copyTo(Channels.newOutputStream(channel));
+    }
+
+    @Override
+    public void close() throws IOException {
+        stream.close();
+    }
+
+    @Override
+    public RequestBody toRequestBody() {
+        return new StreamRequestBody(MediaType.parse(mimeType), Okio.source(stream), length);
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.objects.bulk;
+
+import org.nuxeo.client.api.objects.Document;
+import org.nuxeo.client.api.objects.Repository;
+
+/**
+ * A document write of a {@link BulkWriter}.
+ *
+ * @since 2.6
+ */
+public final class BulkItem {
+
+    public enum Action {
+        CREATE, UPDATE, DELETE
+    }
+
+    protected final Action action;
+
+    protected final String parentId;
+
+    protected final Document document;
+
+    protected final String documentId;
+
+    protected BulkItem(Action action, String parentId, Document document, String documentId) {
+        this.action = action;
+        this.parentId = parentId;
+        this.document = document;
+        this.documentId = documentId;
+    }
+
+    /**
+     * @return the creation of the document in the parent with the given id.
+     */
+    public static BulkItem create(String parentId, Document document) {
+        return new BulkItem(Action.CREATE, parentId, document, null);
+    }
+
+    /**
+     * @return the update of the dirty properties of the document.
+     */
+    public static BulkItem update(Document document) {
+        return new BulkItem(Action.UPDATE, null, document, document.getId());
+    }
+
+    public static BulkItem delete(String documentId) {
+        return new BulkItem(Action.DELETE, null, null, documentId);
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public String getParentId() {
+        return parentId;
+    }
+
+    public Document getDocument() {
+        return document;
+    }
+
+    /**
+     * @return the id of the updated or deleted document, null for a creation.
+     */
+    public String getDocumentId() {
+        return documentId;
+    }
+
+    /**
+     * @return the document written by the repository, null for a deletion.
+     */
+    protected Document execute(Repository repository) {
+        switch (action) {
+        case CREATE:
+            return repository.createDocumentById(parentId, document);
+        case UPDATE:
+            return repository.updateDocument(document);
+        default:
+            repository.deleteDocument(documentId);
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return action + " " + (action == Action.CREATE ? document.getName() + " in " + parentId : documentId);
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.objects.bulk;
+
+import java.util.concurrent.TimeUnit;
+
+import org.nuxeo.client.api.objects.Document;
+import org.nuxeo.client.internals.spi.NuxeoClientException;
+
+/**
+ * Outcome of a {@link BulkItem}, once written or once its retries are exhausted.
+ *
+ * @since 2.6
+ */
+public final class BulkItemResult {
+
+    protected final BulkItem item;
+
+    protected final Document document;
+
+    protected final NuxeoClientException failure;
+
+    protected final int attempts;
+
+    protected final long nanos;
+
+    public BulkItemResult(BulkItem item, Document document, NuxeoClientException failure, int attempts, long nanos) {
+        this.item = item;
+        this.document = document;
+        this.failure = failure;
+        this.attempts = attempts;
+        this.nanos = nanos;
+    }
+
+    public BulkItem getItem() {
+        return item;
+    }
+
+    /**
+     * @return the document returned by the server, null for a deletion or a failure.
+     */
+    public Document getDocument() {
+        return document;
+    }
+
+    /**
+     * @return the failure of the last attempt, null on success.
+     */
+    public NuxeoClientException getFailure() {
+        return failure;
+    }
+
+    public boolean isSuccess() {
+        return failure == null;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * @return the time spent on the item, retries included.
+     */
+    public long getLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    @Override
+    public String toString() {
+        return item + (failure == null ? " succeeded" : " failed: " + failure.getMessage()) + " after " + attempts
+                + " attempt(s) in " + getLatencyMillis() + " ms";
+    }
+
+}
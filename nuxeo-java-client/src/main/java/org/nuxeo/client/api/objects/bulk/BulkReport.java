@@ -0,0 +1,121 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.objects.bulk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Report of a {@link BulkWriter} run: the counts of items, a latency histogram per action and the first failures, so
+ * that its size does not depend on the number of items. Each item outcome is given to the
+ * {@link BulkWriter#onResult(java.util.function.Consumer) listener} of the writer.
+ *
+ * @since 2.6
+ */
+public final class BulkReport {
+
+    protected final int maxFailures;
+
+    protected final Map<BulkItem.Action, LatencyHistogram> latencies = new EnumMap<>(BulkItem.Action.class);
+
+    protected final List<BulkItemResult> failures = new ArrayList<>();
+
+    protected long succeeded;
+
+    protected long failed;
+
+    protected long retries;
+
+    protected long nanos;
+
+    public BulkReport(int maxFailures) {
+        this.maxFailures = maxFailures;
+        for (BulkItem.Action action : BulkItem.Action.values()) {
+            latencies.put(action, new LatencyHistogram());
+        }
+    }
+
+    protected void add(BulkItemResult result) {
+        if (result.isSuccess()) {
+            succeeded++;
+        } else {
+            failed++;
+            if (failures.size() < maxFailures) {
+                failures.add(result);
+            }
+        }
+        retries += result.getAttempts() - 1;
+        latencies.get(result.getItem().getAction()).record(result.getLatencyMillis());
+    }
+
+    protected void setNanos(long nanos) {
+        this.nanos = nanos;
+    }
+
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getRetries() {
+        return retries;
+    }
+
+    /**
+     * @return the first failed items, up to the maximum kept by the writer.
+     */
+    public List<BulkItemResult> getFailures() {
+        return Collections.unmodifiableList(failures);
+    }
+
+    public LatencyHistogram getLatencies(BulkItem.Action action) {
+        return latencies.get(action);
+    }
+
+    public long getDurationMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(succeeded)
+              .append(" succeeded, ")
+              .append(failed)
+              .append(" failed, ")
+              .append(retries)
+              .append(" retries in ")
+              .append(getDurationMillis())
+              .append(" ms");
+        for (Map.Entry<BulkItem.Action, LatencyHistogram> entry : latencies.entrySet()) {
+            if (entry.getValue().getCount() > 0) {
+                report.append(", ").append(entry.getKey()).append(' ').append(entry.getValue());
+            }
+        }
+        return report.toString();
+    }
+
+}
@@ -0,0 +1,237 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.objects.bulk;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.nuxeo.client.api.RequestOptions;
+import org.nuxeo.client.api.objects.Document;
+import org.nuxeo.client.api.objects.Repository;
+import org.nuxeo.client.internals.spi.NuxeoClientException;
+
+/**
+ * Writer of documents in bulk, see {@link Repository#bulkWriter()}.
+ * <p>
+ * The items are read from the input in groups of {@link #itemsPerTask(int) itemsPerTask} items, each group being
+ * written item after item by a task of the executor, with at most {@link #concurrency(int) concurrency} tasks in
+ * flight. Only the items of these tasks are held in memory, whatever the size of the input. Nuxeo having no bulk
+ * document endpoint, each item is still written by its own request in its own transaction: grouping items only spares
+ * the scheduling of a task per item.
+ * <p>
+ * A failed item is retried according to the {@link #retryPolicy(RetryPolicy) retry policy}, then reported without
+ * stopping the other items. Each item outcome is given to the {@link #onResult(Consumer) listener} in the thread
+ * calling {@link #write(Iterable)}, which returns a {@link BulkReport}. When the write itself fails, for instance when
+ * interrupted, the tasks in flight are cancelled and the items they did not write yet are neither written nor
+ * reported.
+ *
+ * @since 2.6
+ */
+public class BulkWriter {
+
+    private static final Logger logger = LogManager.getLogger(BulkWriter.class);
+
+    protected static final int DEFAULT_CONCURRENCY = 4;
+
+    protected static final int DEFAULT_ITEMS_PER_TASK = 10;
+
+    protected static final int DEFAULT_MAX_FAILURES = 100;
+
+    protected final Repository repository;
+
+    protected final Executor executor;
+
+    protected int concurrency = DEFAULT_CONCURRENCY;
+
+    protected int itemsPerTask = DEFAULT_ITEMS_PER_TASK;
+
+    protected long transactionTimeout = -1;
+
+    protected RetryPolicy retryPolicy = RetryPolicy.NONE;
+
+    protected int maxFailures = DEFAULT_MAX_FAILURES;
+
+    protected Consumer<BulkItemResult> listener = result -> {
+    };
+
+    public BulkWriter(Repository repository, Executor executor) {
+        this.repository = repository;
+        this.executor = executor;
+    }
+
+    /**
+     * @param concurrency the maximum number of tasks writing items concurrently.
+     */
+    public BulkWriter concurrency(int concurrency) {
+        if (concurrency < 1) {
+            throw new NuxeoClientException("concurrency < 1: " + concurrency);
+        }
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    /**
+     * @param itemsPerTask the number of items written one after the other by a task, each by its own request.
+     */
+    public BulkWriter itemsPerTask(int itemsPerTask) {
+        if (itemsPerTask < 1) {
+            throw new NuxeoClientException("itemsPerTask < 1: " + itemsPerTask);
+        }
+        this.itemsPerTask = itemsPerTask;
+        return this;
+    }
+
+    /**
+     * @param timeout the transaction timeout in seconds of the writes on the server.
+     */
+    public BulkWriter transactionTimeout(long timeout) {
+        this.transactionTimeout = timeout;
+        return this;
+    }
+
+    public BulkWriter retryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+        return this;
+    }
+
+    /**
+     * @param maxFailures the maximum number of failed items kept by the report.
+     */
+    public BulkWriter maxFailures(int maxFailures) {
+        this.maxFailures = maxFailures;
+        return this;
+    }
+
+    /**
+     * @param listener the listener of the outcome of each item.
+     */
+    public BulkWriter onResult(Consumer<BulkItemResult> listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    public BulkReport write(Stream<BulkItem> items) {
+        return write(items::iterator);
+    }
+
+    public BulkReport write(Iterable<BulkItem> items) {
+        Repository target = repository;
+        if (transactionTimeout > 0) {
+            RequestOptions options = repository.getRequestOptions();
+            RequestOptions.Builder builder = options == null ? RequestOptions.builder() : options.newBuilder();
+            target = repository.withOptions(builder.transactionTimeout(transactionTimeout).build());
+        }
+        Repository writer = target;
+        BulkReport report = new BulkReport(maxFailures);
+        long start = System.nanoTime();
+        CompletionService<List<BulkItemResult>> completionService = new ExecutorCompletionService<>(executor);
+        Set<Future<List<BulkItemResult>>> inFlight = new HashSet<>();
+        try {
+            for (Iterator<BulkItem> it = items.iterator(); it.hasNext();) {
+                List<BulkItem> task = new ArrayList<>(itemsPerTask);
+                while (task.size() < itemsPerTask && it.hasNext()) {
+                    task.add(it.next());
+                }
+                if (inFlight.size() >= concurrency) {
+                    collect(completionService, inFlight, report);
+                }
+                inFlight.add(completionService.submit(() -> writeTask(writer, task)));
+            }
+            while (!inFlight.isEmpty()) {
+                collect(completionService, inFlight, report);
+            }
+        } catch (InterruptedException reason) {
+            Thread.currentThread().interrupt();
+            throw new NuxeoClientException("Interrupted while writing documents", reason);
+        } catch (ExecutionException reason) {
+            throw new NuxeoClientException(reason.getCause());
+        } finally {
+            // stops the remaining tasks on failure
+            for (Future<List<BulkItemResult>> future : inFlight) {
+                future.cancel(true);
+            }
+        }
+        report.setNanos(System.nanoTime() - start);
+        logger.debug("Bulk write: {}", report);
+        return report;
+    }
+
+    protected void collect(CompletionService<List<BulkItemResult>> completionService,
+            Set<Future<List<BulkItemResult>>> inFlight, BulkReport report)
+            throws InterruptedException, ExecutionException {
+        Future<List<BulkItemResult>> completed = completionService.take();
+        inFlight.remove(completed);
+        for (BulkItemResult result : completed.get()) {
+            report.add(result);
+            listener.accept(result);
+        }
+    }
+
+    /**
+     * Writes the items one after the other, until the task is cancelled.
+     */
+    protected List<BulkItemResult> writeTask(Repository writer, List<BulkItem> items) {
+        List<BulkItemResult> results = new ArrayList<>(items.size());
+        for (BulkItem item : items) {
+            if (Thread.currentThread().isInterrupted()) {
+                // cancelled by a failed write, which does not collect the results anymore
+                break;
+            }
+            results.add(writeItem(writer, item));
+        }
+        return results;
+    }
+
+    protected BulkItemResult writeItem(Repository writer, BulkItem item) {
+        long start = System.nanoTime();
+        for (int retry = 0;; retry++) {
+            NuxeoClientException failure;
+            try {
+                Document document = item.execute(writer);
+                return new BulkItemResult(item, document, null, retry + 1, System.nanoTime() - start);
+            } catch (NuxeoClientException reason) {
+                failure = reason;
+            } catch (RuntimeException reason) {
+                failure = new NuxeoClientException(reason);
+            }
+            if (!retryPolicy.shouldRetry(failure, retry)) {
+                return new BulkItemResult(item, null, failure, retry + 1, System.nanoTime() - start);
+            }
+            try {
+                Thread.sleep(retryPolicy.delay(retry));
+            } catch (InterruptedException reason) {
+                Thread.currentThread().interrupt();
+                return new BulkItemResult(item, null, failure, retry + 1, System.nanoTime() - start);
+            }
+        }
+    }
+
+}
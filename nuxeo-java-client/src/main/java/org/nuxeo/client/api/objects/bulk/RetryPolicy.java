@@ -0,0 +1,92 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.objects.bulk;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+import org.nuxeo.client.internals.spi.NuxeoClientException;
+
+/**
+ * Policy retrying the failed items of a {@link BulkWriter} after an exponential delay with jitter.
+ *
+ * @since 2.6
+ */
+public final class RetryPolicy {
+
+    protected static final int STATUS_TOO_MANY_REQUESTS = 429;
+
+    protected static final int STATUS_SERVICE_UNAVAILABLE = 503;
+
+    public static final RetryPolicy NONE = new RetryPolicy(0, 0, failure -> false);
+
+    protected final int maxRetries;
+
+    protected final long initialDelay;
+
+    protected final Predicate<NuxeoClientException> retryable;
+
+    /**
+     * @param maxRetries the maximum number of retries of an item.
+     * @param initialDelay the delay in milliseconds before the first retry, doubled on each retry.
+     * @param retryable whether a failure may succeed if retried.
+     */
+    public RetryPolicy(int maxRetries, long initialDelay, Predicate<NuxeoClientException> retryable) {
+        if (maxRetries < 0) {
+            throw new NuxeoClientException("maxRetries < 0: " + maxRetries);
+        }
+        this.maxRetries = maxRetries;
+        this.initialDelay = initialDelay;
+        this.retryable = retryable;
+    }
+
+    /**
+     * @return a policy retrying the items refused by a busy server, with status 429 or 503, which did not process
+     *         them, so that a retried creation does not create the document twice.
+     */
+    public static RetryPolicy busy(int maxRetries, long initialDelay) {
+        return new RetryPolicy(maxRetries, initialDelay, RetryPolicy::isBusy);
+    }
+
+    protected static boolean isBusy(NuxeoClientException failure) {
+        return failure.getStatus() == STATUS_TOO_MANY_REQUESTS || failure.getStatus() == STATUS_SERVICE_UNAVAILABLE;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * @param retry the number of retries already done.
+     */
+    public boolean shouldRetry(NuxeoClientException failure, int retry) {
+        return retry < maxRetries && retryable.test(failure);
+    }
+
+    /**
+     * @param retry the number of retries already done.
+     * @return the delay in milliseconds before the next retry.
+     */
+    public long delay(int retry) {
+        long delay = initialDelay << Math.min(retry, 20);
+        // jitter spreads the retries of the concurrent items
+        return delay + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+}
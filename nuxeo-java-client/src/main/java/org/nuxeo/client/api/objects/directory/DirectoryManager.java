@@ -32,25 +32,26 @@ public class DirectoryManager extends NuxeoEntity {
     }
 
     public Directory fetchDirectory(String directoryName) {
-        return (Directory) getResponse(directoryName);
+        return (Directory) fetchResponse("fetchDirectory", directoryName);
     }
 
     public Directory fetchDirectory(String directoryName, String currentPageIndex, String pageSize, String maxResults,
             String sortBy, String sortOrder) {
-        return (Directory) getResponse(directoryName, currentPageIndex, pageSize, maxResults, sortBy, sortOrder);
+        return (Directory) fetchResponse("fetchDirectory", directoryName, currentPageIndex, pageSize, maxResults, sortBy,
+                sortOrder);
     }
 
     public DirectoryEntry createDirectoryEntry(String directoryName, DirectoryEntry directoryEntry) {
-        return (DirectoryEntry) getResponse(directoryName, directoryEntry);
+        return (DirectoryEntry) fetchResponse("createDirectoryEntry", directoryName, directoryEntry);
     }
 
     public DirectoryEntry updateDirectoryEntry(String directoryName, String directoryEntryId,
             DirectoryEntry directoryEntry) {
-        return (DirectoryEntry) getResponse(directoryName, directoryEntryId, directoryEntry);
+        return (DirectoryEntry) fetchResponse("updateDirectoryEntry", directoryName, directoryEntryId, directoryEntry);
     }
 
     public void deleteDirectoryEntry(String directoryName, String directoryEntryId) {
-        getResponse(directoryName, directoryEntryId);
+        fetchResponse("deleteDirectoryEntry", directoryName, directoryEntryId);
     }
 
 }
@@ -0,0 +1,220 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.objects.operation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.nuxeo.client.api.objects.Operation;
+import org.nuxeo.client.internals.spi.NuxeoClientException;
+
+/**
+ * Executor of many {@link OperationRequest operation requests} over the same operation and client, with at most
+ * {@code maxInFlight} executions at a time, the next ones waiting for a slot, see
+ * {@link org.nuxeo.client.api.NuxeoClient#automationExecutor(int)}.
+ *
+ * @since 2.6
+ */
+public class OperationExecutor {
+
+    protected final Operation operation;
+
+    protected final Executor executor;
+
+    protected final int maxInFlight;
+
+    protected final Queue<Execution<?>> waiting = new ArrayDeque<>();
+
+    protected int inFlight;
+
+    /**
+     * @param operation the operation executing the requests, its own id, input, parameters and context are ignored.
+     * @param executor the executor running the requests.
+     * @param maxInFlight the maximum number of requests executed at a time.
+     */
+    public OperationExecutor(Operation operation, Executor executor, int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new NuxeoClientException("maxInFlight < 1: " + maxInFlight);
+        }
+        this.operation = operation;
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * @return the result of the request, completed once executed.
+     */
+    public <T> CompletableFuture<T> submit(OperationRequest request) {
+        Execution<T> task = new Execution<>(request);
+        synchronized (this) {
+            if (inFlight >= maxInFlight) {
+                waiting.add(task);
+                return task.future;
+            }
+            inFlight++;
+        }
+        start(task);
+        return task.future;
+    }
+
+    /**
+     * @return the results of the requests, in the order of the requests.
+     */
+    public <T> List<CompletableFuture<T>> submitAll(Iterable<OperationRequest> requests) {
+        List<CompletableFuture<T>> futures = new ArrayList<>();
+        for (OperationRequest request : requests) {
+            futures.add(submit(request));
+        }
+        return futures;
+    }
+
+    /**
+     * Executes the requests as the results are consumed, at most {@code maxInFlight} requests being executed ahead of
+     * the consumer, so that neither the requests nor the results are all held in memory.
+     *
+     * @return the results of the requests, in the order of the requests, closing the stream cancels the requests not
+     *         yet executed.
+     */
+    public <T> Stream<T> stream(Stream<OperationRequest> requests) {
+        Iterator<OperationRequest> source = requests.iterator();
+        Deque<CompletableFuture<T>> pending = new ArrayDeque<>();
+        Iterator<T> results = new Iterator<T>() {
+
+            @Override
+            public boolean hasNext() {
+                fill();
+                return !pending.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                T result = await(pending.poll());
+                fill();
+                return result;
+            }
+
+            protected void fill() {
+                while (pending.size() < maxInFlight && source.hasNext()) {
+                    pending.add(submit(source.next()));
+                }
+            }
+        };
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(results, Spliterator.ORDERED);
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            for (CompletableFuture<T> future : pending) {
+                future.cancel(false);
+            }
+            requests.close();
+        });
+    }
+
+    protected void start(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RuntimeException reason) {
+            // the executor is shut down
+            synchronized (this) {
+                inFlight--;
+            }
+            throw new NuxeoClientException(reason);
+        }
+    }
+
+    /**
+     * Starts the next waiting request in the slot released by a completed one. A request rejected by the executor is
+     * completed exceptionally, its slot being given to the next one.
+     */
+    protected void next() {
+        for (;;) {
+            Execution<?> task;
+            synchronized (this) {
+                task = waiting.poll();
+                if (task == null) {
+                    inFlight--;
+                    return;
+                }
+            }
+            try {
+                executor.execute(task);
+                return;
+            } catch (RuntimeException reason) {
+                // the executor is shut down
+                task.future.completeExceptionally(new NuxeoClientException(reason));
+            }
+        }
+    }
+
+    /**
+     * Execution of a request, completing its future and starting the next waiting request.
+     */
+    protected class Execution<T> implements Runnable {
+
+        protected final OperationRequest request;
+
+        protected final CompletableFuture<T> future = new CompletableFuture<>();
+
+        protected Execution(OperationRequest request) {
+            this.request = request;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (!future.isDone()) {
+                    future.complete(operation.execute(request));
+                }
+            } catch (RuntimeException reason) {
+                future.completeExceptionally(reason);
+            } finally {
+                next();
+            }
+        }
+
+    }
+
+    protected static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException reason) {
+            Thread.currentThread().interrupt();
+            throw new NuxeoClientException("Interrupted while executing an operation", reason);
+        } catch (ExecutionException reason) {
+            if (reason.getCause() instanceof NuxeoClientException) {
+                throw (NuxeoClientException) reason.getCause();
+            }
+            throw new NuxeoClientException(reason.getCause());
+        }
+    }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.objects.operation;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.nuxeo.client.api.objects.Operation;
+
+/**
+ * Immutable request of an operation execution, so that several requests can be executed concurrently by the same
+ * {@link Operation}, see {@link OperationExecutor}.
+ *
+ * @since 2.6
+ */
+public final class OperationRequest {
+
+    protected final String operationId;
+
+    protected final Map<String, Object> parameters;
+
+    protected final Map<String, Object> context;
+
+    protected final Object input;
+
+    protected OperationRequest(String operationId, Map<String, Object> parameters, Map<String, Object> context,
+            Object input) {
+        this.operationId = operationId;
+        this.parameters = Collections.unmodifiableMap(new HashMap<>(parameters));
+        this.context = Collections.unmodifiableMap(new HashMap<>(context));
+        this.input = input;
+    }
+
+    public static Builder builder(String operationId) {
+        return new Builder(operationId);
+    }
+
+    /**
+     * @return a builder of a request with the same operation, parameters, context and input.
+     */
+    public Builder newBuilder() {
+        Builder builder = new Builder(operationId).input(input);
+        builder.parameters.putAll(parameters);
+        builder.context.putAll(context);
+        return builder;
+    }
+
+    public String getOperationId() {
+        return operationId;
+    }
+
+    public Map<String, Object> getParameters() {
+        return parameters;
+    }
+
+    public Map<String, Object> getContext() {
+        return context;
+    }
+
+    public Object getInput() {
+        return input;
+    }
+
+    /**
+     * @return a new body of the request, the operation execution being free to change it.
+     */
+    public OperationBody toBody() {
+        OperationBody body = new OperationBody();
+        body.setInput(input);
+        body.getParameters().putAll(parameters);
+        body.getContext().putAll(context);
+        return body;
+    }
+
+    @Override
+    public String toString() {
+        return operationId + " " + parameters;
+    }
+
+    public static final class Builder {
+
+        protected final String operationId;
+
+        protected final Map<String, Object> parameters = new HashMap<>();
+
+        protected final Map<String, Object> context = new HashMap<>();
+
+        protected Object input;
+
+        protected Builder(String operationId) {
+            this.operationId = operationId;
+        }
+
+        public Builder param(String key, Object parameter) {
+            parameters.put(key, parameter);
+            return this;
+        }
+
+        public Builder context(String key, Object value) {
+            context.put(key, value);
+            return this;
+        }
+
+        public Builder input(Object input) {
+            this.input = input;
+            return this;
+        }
+
+        public OperationRequest build() {
+            return new OperationRequest(operationId, parameters, context, input);
+        }
+    }
+
+}
@@ -35,11 +35,11 @@ public class TaskManager extends NuxeoEntity {
     }
 
     public Tasks fetchTasks(String userId, String workflowInstanceId, String workflowModelName) {
-        return (Tasks) getResponse(userId, workflowInstanceId, workflowModelName);
+        return (Tasks) fetchResponse("fetchTasks", userId, workflowInstanceId, workflowModelName);
     }
 
     public Task fetchTask(String taskId) {
-        return (Task) getResponse(taskId);
+        return (Task) fetchResponse("fetchTask", taskId);
     }
 
     public Task reassign(String taskId, List<String> actors, String comment) {
@@ -48,7 +48,7 @@ public class TaskManager extends NuxeoEntity {
     }
 
     public Task reassign(String taskId, String actors, String comment) {
-        return (Task) getResponse(taskId, actors, comment);
+        return (Task) fetchResponse("reassign", taskId, actors, comment);
     }
 
     public Task delegate(String taskId, List<String> actors, String comment) {
@@ -57,10 +57,10 @@ public class TaskManager extends NuxeoEntity {
     }
 
     public Task delegate(String taskId, String actors, String comment) {
-        return (Task) getResponse(taskId, actors, comment);
+        return (Task) fetchResponse("delegate", taskId, actors, comment);
     }
 
     public Task complete(String taskId, String action, TaskCompletionRequest taskCompletionRequest) {
-        return (Task) getResponse(taskId, action, taskCompletionRequest);
+        return (Task) fetchResponse("complete", taskId, action, taskCompletionRequest);
     }
 }
@@ -18,33 +18,76 @@
  */
 package org.nuxeo.client.api.objects.upload;
 
-import java.io.BufferedInputStream;
+import java.io.EOFException;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.stream.LongStream;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.nuxeo.client.api.ConstantsV1;
 import org.nuxeo.client.api.NuxeoClient;
 import org.nuxeo.client.api.methods.BatchUploadAPI;
 import org.nuxeo.client.api.objects.NuxeoEntity;
 import org.nuxeo.client.api.objects.Operation;
+import org.nuxeo.client.api.objects.blob.Blob;
+import org.nuxeo.client.api.objects.blob.StreamBlob;
+import org.nuxeo.client.api.objects.upload.BatchUploadResult.FileStatus;
 import org.nuxeo.client.internals.spi.NuxeoClientException;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import okhttp3.MediaType;
 import okhttp3.RequestBody;
+import okio.BufferedSource;
+import okio.Okio;
+import okio.Source;
 
 /**
  * @since 0.1
  */
 public class BatchUpload extends NuxeoEntity {
 
+    private static final Logger logger = LogManager.getLogger(BatchUpload.class);
+
     @JsonIgnore
     protected int chunkSize;
 
+    /**
+     * @since 2.6
+     */
+    @JsonIgnore
+    protected int inFlightChunks = 1;
+
+    /**
+     * @since 2.6
+     */
+    @JsonIgnore
+    protected volatile UploadStats uploadStats;
+
     protected String batchId;
 
     protected String fileIdx;
@@ -78,38 +121,394 @@ public class BatchUpload extends NuxeoEntity {
     }
 
     public BatchUpload createBatch() {
-        return (BatchUpload) getResponse();
+        return (BatchUpload) fetchResponse("createBatch");
     }
 
     public BatchUpload upload(String name, long length, String fileType, String batchId, String fileIdx, File file) {
         if (chunkSize == 0) {
             // Post file
-            RequestBody fbody = RequestBody.create(MediaType.parse(fileType), file);
-            return (BatchUpload) getResponse(name, Objects.toString(length), fileType, ConstantsV1.UPLOAD_NORMAL_TYPE,
-                    "0", "1", batchId, fileIdx, fbody);
-        }
-        Object response = null;
-        int contentLength = 0;
-        byte[] buffer = new byte[chunkSize];
-        int chunkIndex = 0;
+            RequestBody fbody = new FileRequestBody(MediaType.parse(fileType), file.toPath());
+            return (BatchUpload) fetchResponse("upload", name, Objects.toString(length), fileType,
+                    ConstantsV1.UPLOAD_NORMAL_TYPE, "0", "1", batchId, fileIdx, fbody);
+        }
+        return uploadChunks(name, length, fileType, batchId, fileIdx, file, chunkSize, chunkIndex -> true);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public BatchUpload upload(String name, long length, String fileType, String batchId, String fileIdx, Path path) {
+        return upload(name, length, fileType, batchId, fileIdx, path.toFile());
+    }
+
+    /**
+     * Uploads data streamed from a channel, see {@link #upload(String, long, String, String, String, InputStream)}.
+     *
+     * @since 2.6
+     */
+    public BatchUpload upload(String name, long length, String fileType, String batchId, String fileIdx,
+            ReadableByteChannel channel) {
+        return upload(name, length, fileType, batchId, fileIdx, Okio.source(Channels.newInputStream(channel)));
+    }
+
+    /**
+     * Uploads data streamed from an input stream, see {@link #upload(String, long, String, String, String, Source)}.
+     *
+     * @since 2.6
+     */
+    public BatchUpload upload(String name, long length, String fileType, String batchId, String fileIdx,
+            InputStream stream) {
+        return upload(name, length, fileType, batchId, fileIdx, Okio.source(stream));
+    }
+
+    /**
+     * Uploads data streamed from a source, such as data generated on the fly, without writing it to a file first. The
+     * source is closed once uploaded.
+     * <p>
+     * Without chunks, the data is streamed as the request body and its length may be unknown, -1. Chunks are read one
+     * after the other from the source, so their upload is not concurrent, and the length must be known to give the
+     * number of chunks.
+     *
+     * @since 2.6
+     */
+    public BatchUpload upload(String name, long length, String fileType, String batchId, String fileIdx,
+            Source source) {
+        if (chunkSize == 0) {
+            RequestBody body = new StreamRequestBody(MediaType.parse(fileType), source, length);
+            return (BatchUpload) fetchResponse("upload", name, length < 0 ? null : Objects.toString(length), fileType,
+                    ConstantsV1.UPLOAD_NORMAL_TYPE, "0", "1", batchId, fileIdx, body);
+        }
+        if (length < 0) {
+            throw new NuxeoClientException("The length of a chunked upload must be known");
+        }
+        long chunkCount = (length + chunkSize - 1) / chunkSize;
+        long start = System.nanoTime();
+        BatchUpload response = null;
+        MediaType chunkType = MediaType.parse(ConstantsV1.APPLICATION_OCTET_STREAM);
+        // chunks are sent one after the other, they share a buffer of a chunk size
+        byte[] buffer = new byte[(int) Math.min(chunkSize, length)];
+        try (BufferedSource input = Okio.buffer(source)) {
+            for (long chunkIndex = 0; chunkIndex < chunkCount; chunkIndex++) {
+                int contentLength = (int) Math.min(chunkSize, length - chunkIndex * chunkSize);
+                for (int offset = 0; offset < contentLength;) {
+                    int read = input.read(buffer, offset, contentLength - offset);
+                    if (read < 0) {
+                        throw new EOFException("Stream ended before the length of the upload: " + length);
+                    }
+                    offset += read;
+                }
+                RequestBody requestBody = RequestBody.create(chunkType, buffer, 0, contentLength);
+                response = (BatchUpload) fetchResponse("upload", name, Objects.toString(length), fileType,
+                        ConstantsV1.UPLOAD_CHUNKED_TYPE, Objects.toString(chunkIndex), Objects.toString(chunkCount),
+                        batchId, fileIdx, requestBody);
+            }
+        } catch (IOException reason) {
+            throw new NuxeoClientException(reason);
+        }
+        uploadStats = new UploadStats(length, chunkCount, System.nanoTime() - start);
+        logger.debug("Uploaded {} with {}", name, uploadStats);
+        return response;
+    }
+
+    /**
+     * Uploads blobs, backed by files or {@link StreamBlob streams}, to the batch of this upload, created if there is
+     * none yet. The blobs are indexed in the batch from 0 in the given order, and uploaded by at most
+     * {@code parallelism} concurrent workers. A failed upload does not stop the others.
+     * <p>
+     * The chunks of each blob are uploaded one after the other by its worker, whatever {@link #inFlightChunks(int)},
+     * so that a worker never waits for other tasks of the {@link NuxeoClient#getBlockingExecutor() executor}. Each
+     * worker is a separate upload, the statistics of the successful uploads are only gathered in
+     * {@link #getUploadStats()} once they are all done.
+     *
+     * @return the future of the outcome of each upload, once they are all done.
+     * @since 2.6
+     */
+    public CompletableFuture<BatchUploadResult> uploadAll(List<? extends Blob> blobs, int parallelism) {
+        if (parallelism < 1) {
+            throw new NuxeoClientException("parallelism < 1: " + parallelism);
+        }
+        String batch = getOrCreateBatchId();
+        long start = System.nanoTime();
+        FileStatus[] statuses = new FileStatus[blobs.size()];
+        long[] chunks = new long[blobs.size()];
+        AtomicInteger nextBlob = new AtomicInteger();
+        ExecutorService executor = nuxeoClient.getBlockingExecutor();
+        CompletableFuture<?>[] workers = new CompletableFuture<?>[Math.min(parallelism, blobs.size())];
+        for (int i = 0; i < workers.length; i++) {
+            BatchUpload worker = newWorker();
+            workers[i] = CompletableFuture.runAsync(() -> {
+                int index;
+                while ((index = nextBlob.getAndIncrement()) < statuses.length) {
+                    worker.uploadStats = null;
+                    statuses[index] = worker.uploadBlob(batch, String.valueOf(index), blobs.get(index));
+                    UploadStats stats = worker.uploadStats;
+                    chunks[index] = stats == null ? 1 : stats.getChunks();
+                }
+            }, executor);
+        }
+        return CompletableFuture.allOf(workers).thenApply(done -> {
+            long nanos = System.nanoTime() - start;
+            long bytes = 0;
+            long chunkCount = 0;
+            for (int i = 0; i < statuses.length; i++) {
+                if (statuses[i].isSuccessful()) {
+                    bytes += Math.max(statuses[i].getBytes(), 0);
+                    chunkCount += chunks[i];
+                }
+            }
+            uploadStats = new UploadStats(bytes, chunkCount, nanos);
+            logger.debug("Uploaded {} blobs to batch {} with {}", statuses.length, batch, uploadStats);
+            return new BatchUploadResult(batch, Arrays.asList(statuses), nanos);
+        });
+    }
+
+    /**
+     * Creates the batch of this upload if there is none yet, once even when called concurrently.
+     *
+     * @return the id of the batch of this upload.
+     * @since 2.6
+     */
+    protected synchronized String getOrCreateBatchId() {
+        if (batchId == null) {
+            batchId = createBatch().getBatchId();
+        }
+        return batchId;
+    }
+
+    /**
+     * @return an upload with the same chunk size and options, uploading its chunks one after the other.
+     * @since 2.6
+     */
+    protected BatchUpload newWorker() {
+        BatchUpload worker = new BatchUpload(nuxeoClient);
+        worker.api = api;
+        worker.requestOptions = requestOptions;
+        worker.chunkSize = chunkSize;
+        return worker;
+    }
+
+    protected FileStatus uploadBlob(String batchId, String fileIdx, Blob blob) {
+        long length = blob instanceof StreamBlob ? ((StreamBlob) blob).getContentLength() : blob.getFile().length();
+        try {
+            if (blob instanceof StreamBlob) {
+                upload(blob.getFileName(), length, blob.getMimeType(), batchId, fileIdx,
+                        ((StreamBlob) blob).getStream());
+            } else {
+                upload(blob.getFileName(), length, blob.getMimeType(), batchId, fileIdx, blob.getFile());
+            }
+            return new FileStatus(batchId, fileIdx, blob.getFileName(), length, null);
+        } catch (RuntimeException reason) {
+            logger.debug("Failed to upload {} to batch {}", blob.getFileName(), batchId, reason);
+            return new FileStatus(batchId, fileIdx, blob.getFileName(), length, reason);
+        }
+    }
+
+    /**
+     * Resumes a chunked upload, only the chunks the server has not received yet are uploaded, see
+     * {@link BatchFile#getUploadedChunkIds()}. The chunk size must be the one of the interrupted upload.
+     *
+     * @return the response to the last chunk uploaded, or the upload itself when it was already complete.
+     * @since 2.6
+     */
+    public BatchUpload resumeUpload(String name, long length, String fileType, String batchId, String fileIdx,
+            File file) {
+        if (chunkSize == 0) {
+            throw new NuxeoClientException("Only chunked uploads can be resumed");
+        }
+        return resumeUpload(name, length, fileType, batchId, fileIdx, file, chunkSize);
+    }
+
+    /**
+     * Uploads the file in chunks, resuming the upload recorded in the given record file, if any, when it was made for
+     * this file. The record is created before the first chunk is sent and deleted once the upload is complete, so that
+     * an upload interrupted, even by a JVM restart, only sends the missing chunks when run again. When the batch of the
+     * record has expired on the server, the file is uploaded again in a new batch and the record is rewritten.
+     *
+     * @return the response to the last chunk uploaded, {@link #getBatchId()} and {@link #getFileIdx()} give the batch
+     *         file to attach.
+     * @since 2.6
+     */
+    public BatchUpload uploadResumable(String name, String fileType, File file, File recordFile) {
+        UploadResumeRecord record = UploadResumeRecord.load(recordFile);
+        // digests the file once, for the check of the record and the new record
+        String fingerprint = UploadResumeRecord.fingerprint(file);
+        if (record != null && !record.getFingerprint().equals(fingerprint)) {
+            record = null;
+        } else if (record != null && !batchExists(record.getBatchId())) {
+            logger.debug("Batch {} of the upload of {} has expired, uploading it again", record.getBatchId(), name);
+            record = null;
+        }
+        BatchUpload response;
+        if (record != null) {
+            logger.debug("Resuming upload of {} in batch {}", name, record.getBatchId());
+            response = resumeUpload(name, file.length(), fileType, record.getBatchId(), record.getFileIdx(), file,
+                    record.getChunkSize());
+        } else {
+            int size = chunkSize == 0 ? ConstantsV1.CHUNK_SIZE : chunkSize;
+            String newBatchId = createBatch().getBatchId();
+            record = new UploadResumeRecord(newBatchId, "0", size, fingerprint);
+            record.save(recordFile);
+            response = uploadChunks(name, file.length(), fileType, newBatchId, record.getFileIdx(), file, size,
+                    chunkIndex -> true);
+        }
+        try {
+            Files.deleteIfExists(recordFile.toPath());
+        } catch (IOException reason) {
+            throw new NuxeoClientException(reason);
+        }
+        return response;
+    }
+
+    protected BatchUpload resumeUpload(String name, long length, String fileType, String batchId, String fileIdx,
+            File file, int chunkSize) {
         long chunkCount = (file.length() + chunkSize - 1) / chunkSize;
-        try (BufferedInputStream bis = new BufferedInputStream(new FileInputStream(file))) {
-            while ((contentLength = bis.read(buffer)) > 0) {
+        BatchFile batchFile;
+        try {
+            batchFile = fetchBatchFile(batchId, fileIdx);
+        } catch (NuxeoClientException reason) {
+            if (reason.getStatus() != HttpURLConnection.HTTP_NOT_FOUND) {
+                throw reason;
+            }
+            if (!batchExists(batchId)) {
+                throw new NuxeoClientException(HttpURLConnection.HTTP_NOT_FOUND,
+                        String.format("Cannot resume upload of %s, the batch %s has expired", name, batchId));
+            }
+            // nothing received yet
+            batchFile = null;
+        }
+        Set<Long> uploaded = new HashSet<>();
+        if (batchFile != null && batchFile.getUploadedChunkIds() != null) {
+            if (batchFile.getChunkCount() != chunkCount) {
+                throw new NuxeoClientException(String.format("Cannot resume upload of %s, the server expects %d chunks",
+                        name, batchFile.getChunkCount()));
+            }
+            for (int chunkId : batchFile.getUploadedChunkIds()) {
+                uploaded.add((long) chunkId);
+            }
+        } else if (batchFile != null && batchFile.getSize() == length) {
+            // uploaded at once
+            LongStream.range(0, chunkCount).forEach(uploaded::add);
+        }
+        BatchUpload response = uploadChunks(name, length, fileType, batchId, fileIdx, file, chunkSize,
+                chunkIndex -> !uploaded.contains(chunkIndex));
+        if (response == null) {
+            response = new BatchUpload(nuxeoClient);
+            response.batchId = batchId;
+            response.fileIdx = fileIdx;
+            response.uploadType = ConstantsV1.UPLOAD_CHUNKED_TYPE;
+            response.uploadedSize = length;
+        }
+        return response;
+    }
+
+    /**
+     * Uploads the chunks of the file accepted by the given predicate.
+     *
+     * @return the response to the last completed chunk, null if no chunk was uploaded.
+     * @since 2.6
+     */
+    protected BatchUpload uploadChunks(String name, long length, String fileType, String batchId, String fileIdx,
+            File file, int chunkSize, LongPredicate chunkFilter) {
+        long fileLength = file.length();
+        long chunkCount = (fileLength + chunkSize - 1) / chunkSize;
+        long[] chunkIndexes = LongStream.range(0, chunkCount).filter(chunkFilter).toArray();
+        long start = System.nanoTime();
+        BatchUpload response;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MediaType chunkType = MediaType.parse(ConstantsV1.APPLICATION_OCTET_STREAM);
+            LongFunction<BatchUpload> uploadChunk = chunkIndex -> {
                 // Post chunk as a stream
-                RequestBody requestBody = RequestBody.create(MediaType.parse(ConstantsV1.APPLICATION_OCTET_STREAM),
-                        buffer, 0, contentLength);
-                response = getResponse(name, Objects.toString(length), fileType, ConstantsV1.UPLOAD_CHUNKED_TYPE,
-                        Objects.toString(chunkIndex), Objects.toString(chunkCount), batchId, fileIdx, requestBody);
-                chunkIndex++;
+                long position = chunkIndex * chunkSize;
+                RequestBody requestBody = new FileChunkRequestBody(chunkType, channel, position,
+                        Math.min(chunkSize, fileLength - position));
+                return (BatchUpload) fetchResponse("upload", name, Objects.toString(length), fileType,
+                        ConstantsV1.UPLOAD_CHUNKED_TYPE, Objects.toString(chunkIndex), Objects.toString(chunkCount),
+                        batchId, fileIdx, requestBody);
+            };
+            if (inFlightChunks > 1 && chunkIndexes.length > 1) {
+                response = uploadChunksConcurrently(uploadChunk, chunkIndexes);
+            } else {
+                response = null;
+                for (long chunkIndex : chunkIndexes) {
+                    response = uploadChunk.apply(chunkIndex);
+                }
             }
-            return (BatchUpload) response;
         } catch (IOException reason) {
             throw new NuxeoClientException(reason);
         }
+        long bytes = 0;
+        for (long chunkIndex : chunkIndexes) {
+            bytes += Math.min(chunkSize, fileLength - chunkIndex * chunkSize);
+        }
+        uploadStats = new UploadStats(bytes, chunkIndexes.length, System.nanoTime() - start);
+        logger.debug("Uploaded {} with {}", name, uploadStats);
+        return response;
+    }
+
+    /**
+     * Uploads the chunks with at most {@link #inFlightChunks} requests at a time, they may complete out of order.
+     *
+     * @return the response to the last completed chunk.
+     * @since 2.6
+     */
+    protected BatchUpload uploadChunksConcurrently(LongFunction<BatchUpload> uploadChunk, long[] chunkIndexes) {
+        ExecutorService executor = nuxeoClient.getBlockingExecutor();
+        CompletionService<BatchUpload> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<BatchUpload>> futures = new ArrayList<>();
+        BatchUpload response = null;
+        int nextChunk = 0;
+        try {
+            for (int completed = 0; completed < chunkIndexes.length; completed++) {
+                while (nextChunk < chunkIndexes.length && nextChunk - completed < inFlightChunks) {
+                    long chunkIndex = chunkIndexes[nextChunk++];
+                    futures.add(completionService.submit(() -> uploadChunk.apply(chunkIndex)));
+                }
+                response = completionService.take().get();
+            }
+            return response;
+        } catch (InterruptedException reason) {
+            Thread.currentThread().interrupt();
+            throw new NuxeoClientException("Interrupted while uploading chunks", reason);
+        } catch (ExecutionException reason) {
+            if (reason.getCause() instanceof NuxeoClientException) {
+                throw (NuxeoClientException) reason.getCause();
+            }
+            throw new NuxeoClientException(reason.getCause());
+        } finally {
+            // stops the remaining chunks on failure
+            for (Future<BatchUpload> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * The batch state changes with each upload, its calls never go through the client cache.
+     */
+    @Override
+    protected boolean isCached(String methodName) {
+        return false;
+    }
+
+    /**
+     * @return whether the batch still exists on the server, batches expire after some time.
+     * @since 2.6
+     */
+    protected boolean batchExists(String batchId) {
+        try {
+            // an empty batch is answered with 204 No Content, an unknown one with 404 Not Found
+            fetchResponse("fetchBatchFiles", batchId);
+            return true;
+        } catch (NuxeoClientException reason) {
+            if (reason.getStatus() != HttpURLConnection.HTTP_NOT_FOUND) {
+                throw reason;
+            }
+            return false;
+        }
     }
 
     public void cancel(String batchId) {
-        getResponse(batchId);
+        fetchResponse("cancel", batchId);
     }
 
     public void cancel() {
@@ -117,11 +516,11 @@ public class BatchUpload extends NuxeoEntity {
     }
 
     public List<BatchFile> fetchBatchFiles(String batchId) {
-        return (List<BatchFile>) getResponse(batchId);
+        return (List<BatchFile>) fetchResponse("fetchBatchFiles", batchId);
     }
 
     public BatchFile fetchBatchFile(String batchId, String fileIdx) {
-        return (BatchFile) getResponse(batchId, fileIdx);
+        return (BatchFile) fetchResponse("fetchBatchFile", batchId, fileIdx);
     }
 
     public BatchFile fetchBatchFile(String fileIdx) {
@@ -150,6 +549,27 @@ public class BatchUpload extends NuxeoEntity {
         return this;
     }
 
+    /**
+     * @param inFlightChunks the number of chunks uploaded concurrently, 1 to upload them one after the other.
+     * @since 2.6
+     */
+    public BatchUpload inFlightChunks(int inFlightChunks) {
+        if (inFlightChunks < 1) {
+            throw new NuxeoClientException("inFlightChunks < 1: " + inFlightChunks);
+        }
+        this.inFlightChunks = inFlightChunks;
+        return this;
+    }
+
+    /**
+     * @return the statistics of the last chunked upload, or of all the successful uploads of the last
+     *         {@link #uploadAll(List, int)}, null if none was made.
+     * @since 2.6
+     */
+    public UploadStats getUploadStats() {
+        return uploadStats;
+    }
+
     public Object execute(Operation operation) {
         return execute(batchId, fileIdx, operation);
     }
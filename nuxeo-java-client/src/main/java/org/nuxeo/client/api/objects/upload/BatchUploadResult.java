@@ -0,0 +1,139 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.objects.upload;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Outcome of the upload of several files to a batch, see {@link BatchUpload#uploadAll(java.util.List, int)}.
+ *
+ * @since 2.6
+ */
+public final class BatchUploadResult {
+
+    protected final String batchId;
+
+    protected final List<FileStatus> files;
+
+    protected final long nanos;
+
+    public BatchUploadResult(String batchId, List<FileStatus> files, long nanos) {
+        this.batchId = batchId;
+        this.files = Collections.unmodifiableList(files);
+        this.nanos = nanos;
+    }
+
+    public String getBatchId() {
+        return batchId;
+    }
+
+    /**
+     * @return the status of each file, in the order they were given.
+     */
+    public List<FileStatus> getFiles() {
+        return files;
+    }
+
+    public List<FileStatus> getFailures() {
+        return files.stream().filter(file -> !file.isSuccessful()).collect(Collectors.toList());
+    }
+
+    public boolean isSuccessful() {
+        return files.stream().allMatch(FileStatus::isSuccessful);
+    }
+
+    /**
+     * @return the bytes of the files successfully uploaded.
+     */
+    public long getTotalBytes() {
+        return files.stream().filter(FileStatus::isSuccessful).mapToLong(FileStatus::getBytes).sum();
+    }
+
+    public long getDurationMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("batch %s: %d files, %d failed, %d bytes in %d ms", batchId, files.size(),
+                getFailures().size(), getTotalBytes(), getDurationMillis());
+    }
+
+    /**
+     * Outcome of the upload of a file of the batch.
+     */
+    public static final class FileStatus {
+
+        protected final String batchId;
+
+        protected final String fileIdx;
+
+        protected final String name;
+
+        protected final long bytes;
+
+        protected final Throwable error;
+
+        public FileStatus(String batchId, String fileIdx, String name, long bytes, Throwable error) {
+            this.batchId = batchId;
+            this.fileIdx = fileIdx;
+            this.name = name;
+            this.bytes = bytes;
+            this.error = error;
+        }
+
+        public String getFileIdx() {
+            return fileIdx;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the length of the file, -1 if it was unknown.
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * @return the failure of the upload, null if it succeeded.
+         */
+        public Throwable getError() {
+            return error;
+        }
+
+        public boolean isSuccessful() {
+            return error == null;
+        }
+
+        /**
+         * @return the reference of the uploaded file, to give as an operation input or a document property.
+         */
+        public BatchBlob getBatchBlob() {
+            return new BatchBlob(batchId, fileIdx);
+        }
+
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.objects.upload;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+/**
+ * Request body of a chunk of a file, transferred with positional reads from a channel shared by the chunks of the file,
+ * so that the chunks can be written concurrently and written again when a request is retried.
+ *
+ * @since 2.6
+ */
+public class FileChunkRequestBody extends RequestBody {
+
+    protected final MediaType contentType;
+
+    protected final FileChannel channel;
+
+    protected final long position;
+
+    protected final long length;
+
+    public FileChunkRequestBody(MediaType contentType, FileChannel channel, long position, long length) {
+        this.contentType = contentType;
+        this.channel = channel;
+        this.position = position;
+        this.length = length;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return contentType;
+    }
+
+    @Override
+    public long contentLength() {
+        return length;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        transfer(channel, position, length, sink);
+    }
+
+    /**
+     * Sends a range of the channel with {@link FileChannel#transferTo(long, long, WritableByteChannel)},
+     * letting the platform move the bytes to the sink without going through a heap buffer of this class.
+     */
+    protected static void transfer(FileChannel channel, long position, long length, BufferedSink sink)
+            throws IOException {
+        // the sink is closed by the caller
+        WritableByteChannel target = Channels.newChannel(sink.outputStream());
+        long end = position + length;
+        for (long offset = position; offset < end;) {
+            long transferred = channel.transferTo(offset, end - offset, target);
+            if (transferred <= 0 && offset >= channel.size()) {
+                throw new EOFException("File truncated at " + offset + " while sending chunk at " + position);
+            }
+            offset += transferred;
+        }
+    }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.objects.upload;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.nuxeo.client.internals.spi.NuxeoClientException;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+/**
+ * Request body of a whole file, transferred from a file channel opened on each write, see
+ * {@link FileChunkRequestBody}.
+ *
+ * @since 2.6
+ */
+public class FileRequestBody extends RequestBody {
+
+    protected final MediaType contentType;
+
+    protected final Path path;
+
+    protected final long length;
+
+    public FileRequestBody(MediaType contentType, Path path) {
+        this.contentType = contentType;
+        this.path = path;
+        try {
+            length = Files.size(path);
+        } catch (IOException reason) {
+            throw new NuxeoClientException(reason);
+        }
+    }
+
+    @Override
+    public MediaType contentType() {
+        return contentType;
+    }
+
+    @Override
+    public long contentLength() {
+        return length;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            FileChunkRequestBody.transfer(channel, 0, length, sink);
+        }
+    }
+
+}
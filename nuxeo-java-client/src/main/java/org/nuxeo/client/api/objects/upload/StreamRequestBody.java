@@ -0,0 +1,76 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.objects.upload;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.Source;
+
+/**
+ * Request body streamed from a source, such as data generated on the fly, without buffering it.
+ * <p>
+ * The source can only be sent once and is closed once sent, a request retried after its body was sent fails. When the
+ * length is unknown, -1, the body is sent with a chunked transfer encoding.
+ *
+ * @since 2.6
+ */
+public class StreamRequestBody extends RequestBody {
+
+    protected final MediaType contentType;
+
+    protected final Source source;
+
+    protected final long length;
+
+    protected final AtomicBoolean consumed = new AtomicBoolean();
+
+    /**
+     * @param length the number of bytes of the source, -1 if unknown.
+     */
+    public StreamRequestBody(MediaType contentType, Source source, long length) {
+        this.contentType = contentType;
+        this.source = source;
+        this.length = length;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return contentType;
+    }
+
+    @Override
+    public long contentLength() {
+        return length;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        if (!consumed.compareAndSet(false, true)) {
+            throw new IOException("The stream of the request body was already sent");
+        }
+        try (Source input = source) {
+            sink.writeAll(input);
+        }
+    }
+
+}
@@ -0,0 +1,163 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.objects.upload;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+
+import org.nuxeo.client.api.ConstantsV1;
+import org.nuxeo.client.internals.spi.NuxeoClientException;
+
+import com.google.common.io.BaseEncoding;
+
+/**
+ * Local record of a chunked upload in progress, so that an upload interrupted, even by a JVM restart, can be resumed
+ * in the same batch, see {@link BatchUpload#uploadResumable(String, String, File, File)}.
+ * <p>
+ * The file is identified by a fingerprint of its length, its last modification time and a digest of its first and last
+ * bytes, a record of a changed file is not resumed.
+ *
+ * @since 2.6
+ */
+public final class UploadResumeRecord {
+
+    protected static final String BATCH_ID = "batchId";
+
+    protected static final String FILE_IDX = "fileIdx";
+
+    protected static final String CHUNK_SIZE = "chunkSize";
+
+    protected static final String FINGERPRINT = "fingerprint";
+
+    // bytes digested at the start and at the end of the file
+    protected static final int FINGERPRINT_SAMPLE = 64 * 1024;
+
+    protected final String batchId;
+
+    protected final String fileIdx;
+
+    protected final int chunkSize;
+
+    protected final String fingerprint;
+
+    public UploadResumeRecord(String batchId, String fileIdx, int chunkSize, String fingerprint) {
+        this.batchId = batchId;
+        this.fileIdx = fileIdx;
+        this.chunkSize = chunkSize;
+        this.fingerprint = fingerprint;
+    }
+
+    public String getBatchId() {
+        return batchId;
+    }
+
+    public String getFileIdx() {
+        return fileIdx;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * @return whether the record was made for this file, unchanged since.
+     */
+    public boolean matches(File file) {
+        return fingerprint.equals(fingerprint(file));
+    }
+
+    /**
+     * @return the record saved in the given file, null if there is none.
+     */
+    public static UploadResumeRecord load(File recordFile) {
+        if (!recordFile.isFile()) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(recordFile.toPath())) {
+            properties.load(input);
+        } catch (IOException reason) {
+            throw new NuxeoClientException(reason);
+        }
+        String batchId = properties.getProperty(BATCH_ID);
+        String fileIdx = properties.getProperty(FILE_IDX);
+        String chunkSize = properties.getProperty(CHUNK_SIZE);
+        String fingerprint = properties.getProperty(FINGERPRINT);
+        if (batchId == null || fileIdx == null || chunkSize == null || fingerprint == null) {
+            throw new NuxeoClientException("Invalid upload resume record: " + recordFile);
+        }
+        return new UploadResumeRecord(batchId, fileIdx, Integer.parseInt(chunkSize), fingerprint);
+    }
+
+    public void save(File recordFile) {
+        Properties properties = new Properties();
+        properties.setProperty(BATCH_ID, batchId);
+        properties.setProperty(FILE_IDX, fileIdx);
+        properties.setProperty(CHUNK_SIZE, String.valueOf(chunkSize));
+        properties.setProperty(FINGERPRINT, fingerprint);
+        try (OutputStream output = Files.newOutputStream(recordFile.toPath())) {
+            properties.store(output, null);
+        } catch (IOException reason) {
+            throw new NuxeoClientException(reason);
+        }
+    }
+
+    /**
+     * @return the fingerprint of the file, its length, its last modification time and a digest of its first and last
+     *         bytes.
+     */
+    public static String fingerprint(File file) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MessageDigest digest = MessageDigest.getInstance(ConstantsV1.MD_5);
+            long length = channel.size();
+            digest(digest, channel, 0, Math.min(length, FINGERPRINT_SAMPLE));
+            if (length > FINGERPRINT_SAMPLE) {
+                long start = Math.max(FINGERPRINT_SAMPLE, length - FINGERPRINT_SAMPLE);
+                digest(digest, channel, start, length - start);
+            }
+            return length + "-" + file.lastModified() + "-" + BaseEncoding.base16().lowerCase().encode(digest.digest());
+        } catch (IOException | NoSuchAlgorithmException reason) {
+            throw new NuxeoClientException(reason);
+        }
+    }
+
+    protected static void digest(MessageDigest digest, FileChannel channel, long position, long length)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) length);
+        while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) >= 0) {
+            // read the sample
+        }
+        buffer.flip();
+        digest.update(buffer);
+    }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.objects.upload;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of a chunked upload.
+ *
+ * @since 2.6
+ */
+public final class UploadStats {
+
+    protected final long bytes;
+
+    protected final long chunks;
+
+    protected final long nanos;
+
+    public UploadStats(long bytes, long chunks, long nanos) {
+        this.bytes = bytes;
+        this.chunks = chunks;
+        this.nanos = nanos;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getChunks() {
+        return chunks;
+    }
+
+    public long getDurationMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * @return the bytes uploaded per second.
+     */
+    public double getThroughput() {
+        return nanos == 0 ? 0 : bytes * 1e9 / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d bytes in %d chunks in %d ms (%.1f KB/s)", bytes, chunks, getDurationMillis(),
+                getThroughput() / 1024);
+    }
+
+}
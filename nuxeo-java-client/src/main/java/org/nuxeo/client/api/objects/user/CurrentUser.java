@@ -48,29 +48,29 @@ public class CurrentUser extends User {
     /** Sync **/
 
     public CurrentUser getCurrentUser() {
-        return (CurrentUser) getResponse();
+        return (CurrentUser) fetchResponse("getCurrentUser");
     }
 
     public Workflows fetchWorkflowInstances() {
-        return (Workflows) getResponse();
+        return (Workflows) fetchResponse("fetchWorkflowInstances");
     }
 
     public Workflow startWorkflowInstance(Workflow workflow) {
-        return (Workflow) getResponse(workflow);
+        return (Workflow) fetchResponse("startWorkflowInstance", workflow);
     }
 
     /** Async **/
 
     public void getCurrentUser(Callback<CurrentUser> callback) {
-        execute(callback);
+        enqueue("getCurrentUser", callback);
     }
 
     public void fetchWorkflowInstances(Callback<Workflows> callback) {
-        execute(callback);
+        enqueue("fetchWorkflowInstances", callback);
     }
 
     public void startWorkflowInstance(Workflow workflow, Callback<Workflow> callback) {
-        execute(callback, workflow);
+        enqueue("startWorkflowInstance", callback, workflow);
     }
 
 }
@@ -19,6 +19,9 @@
  */
 package org.nuxeo.client.api.objects.user;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 import org.nuxeo.client.api.NuxeoClient;
 import org.nuxeo.client.api.methods.UserManagerAPI;
 import org.nuxeo.client.api.objects.NuxeoEntity;
@@ -35,119 +38,246 @@ public class UserManager extends NuxeoEntity {
         super(null, nuxeoClient, UserManagerAPI.class);
     }
 
+    /**
+     * @return a user manager completing the futures of its async calls with the given executor, this user manager is
+     *         left untouched.
+     * @since 2.6
+     */
+    public UserManager withExecutor(Executor asyncExecutor) {
+        UserManager userManager = new UserManager(nuxeoClient);
+        userManager.api = api;
+        userManager.requestOptions = requestOptions;
+        userManager.asyncExecutor = asyncExecutor;
+        return userManager;
+    }
+
     /** Sync **/
 
     public Group fetchGroup(String groupName) {
-        return (Group) getResponse(groupName);
+        return (Group) fetchResponse("fetchGroup", groupName);
     }
 
     public Group updateGroup(String groupName, Group group) {
-        return (Group) getResponse(groupName, group);
+        return (Group) fetchResponse("updateGroup", groupName, group);
     }
 
     public Group updateGroup(Group group) {
-        return (Group) getResponse(group.getGroupName(), group);
+        return (Group) fetchResponse("updateGroup", group.getGroupName(), group);
     }
 
     public void deleteGroup(String groupName) {
-        getResponse(groupName);
+        fetchResponse("deleteGroup", groupName);
     }
 
     public Group createGroup(Group group) {
-        return (Group) getResponse(group);
+        return (Group) fetchResponse("createGroup", group);
     }
 
     public Groups searchGroup(String query) {
-        return (Groups) getResponse(query);
+        return (Groups) fetchResponse("searchGroup", query);
     }
 
     public Groups searchGroup(String query, int currentPageIndex, int pageSize) {
-        return (Groups) getResponse(query, currentPageIndex, pageSize);
+        return (Groups) fetchResponse("searchGroup", query, currentPageIndex, pageSize);
     }
 
     public User addUserToGroup(String userName, String groupName) {
-        return (User) getResponse(groupName, userName);
+        return (User) fetchResponse("addUserToGroup", groupName, userName);
     }
 
     public User fetchUser(String userName) {
-        return (User) getResponse(userName);
+        return (User) fetchResponse("fetchUser", userName);
     }
 
     public User updateUser(String userName, User user) {
-        return (User) getResponse(userName, user);
+        return (User) fetchResponse("updateUser", userName, user);
     }
 
     public User updateUser(User user) {
-        return (User) getResponse(user.getUserName(), user);
+        return (User) fetchResponse("updateUser", user.getUserName(), user);
     }
 
     public void deleteUser(String userName) {
-        getResponse(userName);
+        fetchResponse("deleteUser", userName);
     }
 
     public User createUser(User user) {
-        return (User) getResponse(user);
+        return (User) fetchResponse("createUser", user);
     }
 
     public Users searchUser(String query) {
-        return (Users) getResponse(query);
+        return (Users) fetchResponse("searchUser", query);
     }
 
     public Users searchUser(String query, int currentPageIndex, int pageSize) {
-        return (Users) getResponse(query, currentPageIndex, pageSize);
+        return (Users) fetchResponse("searchUser", query, currentPageIndex, pageSize);
     }
 
     public User attachGroupToUser(String groupName, String userName) {
-        return (User) getResponse(userName, groupName);
+        return (User) fetchResponse("attachGroupToUser", userName, groupName);
     }
 
     /** Async **/
 
     public void fetchGroup(String groupName, Callback<Group> callback) {
-        execute(callback, groupName);
+        enqueue("fetchGroup", callback, groupName);
     }
 
     public void updateGroup(String groupName, Group group, Callback<Group> callback) {
-        execute(callback, groupName, group);
+        enqueue("updateGroup", callback, groupName, group);
     }
 
     public void deleteGroup(String groupName, Callback<ResponseBody> callback) {
-        execute(callback, groupName);
+        enqueue("deleteGroup", callback, groupName);
     }
 
     public void createGroup(Group group, Callback<Group> callback) {
-        execute(callback, group);
+        enqueue("createGroup", callback, group);
     }
 
     public void searchGroup(String query, Callback<Groups> callback) {
-        execute(callback, query);
+        enqueue("searchGroup", callback, query);
     }
 
     public void addUserToGroup(String userName, String groupName, Callback<User> callback) {
-        execute(callback, groupName, userName);
+        enqueue("addUserToGroup", callback, groupName, userName);
     }
 
     public void fetchUser(String userName, Callback<User> callback) {
-        execute(callback, userName);
+        enqueue("fetchUser", callback, userName);
     }
 
     public void updateUser(String userName, User user, Callback<User> callback) {
-        execute(callback, userName, user);
+        enqueue("updateUser", callback, userName, user);
     }
 
     public void deleteUser(String userName, Callback<ResponseBody> callback) {
-        getResponse(userName);
+        enqueue("deleteUser", callback, userName);
     }
 
     public void createUser(User user, Callback<User> callback) {
-        execute(callback, user);
+        enqueue("createUser", callback, user);
     }
 
     public void searchUser(String query, Callback<Users> callback) {
-        execute(callback, query);
+        enqueue("searchUser", callback, query);
     }
 
     public void attachGroupToUser(String groupName, String userName, Callback<User> callback) {
-        execute(callback, userName, groupName);
+        enqueue("attachGroupToUser", callback, userName, groupName);
+    }
+
+    /** Future **/
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Group> fetchGroupAsync(String groupName) {
+        return fetchResponseAsync("fetchGroup", groupName);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Group> updateGroupAsync(String groupName, Group group) {
+        return fetchResponseAsync("updateGroup", groupName, group);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Group> updateGroupAsync(Group group) {
+        return fetchResponseAsync("updateGroup", group.getGroupName(), group);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Void> deleteGroupAsync(String groupName) {
+        return mapResponseAsync(fetchResponseAsync("deleteGroup", groupName), response -> null);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Group> createGroupAsync(Group group) {
+        return fetchResponseAsync("createGroup", group);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Groups> searchGroupAsync(String query) {
+        return fetchResponseAsync("searchGroup", query);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Groups> searchGroupAsync(String query, int currentPageIndex, int pageSize) {
+        return fetchResponseAsync("searchGroup", query, currentPageIndex, pageSize);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<User> addUserToGroupAsync(String userName, String groupName) {
+        return fetchResponseAsync("addUserToGroup", groupName, userName);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<User> fetchUserAsync(String userName) {
+        return fetchResponseAsync("fetchUser", userName);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<User> updateUserAsync(String userName, User user) {
+        return fetchResponseAsync("updateUser", userName, user);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<User> updateUserAsync(User user) {
+        return fetchResponseAsync("updateUser", user.getUserName(), user);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Void> deleteUserAsync(String userName) {
+        return mapResponseAsync(fetchResponseAsync("deleteUser", userName), response -> null);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<User> createUserAsync(User user) {
+        return fetchResponseAsync("createUser", user);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Users> searchUserAsync(String query) {
+        return fetchResponseAsync("searchUser", query);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<Users> searchUserAsync(String query, int currentPageIndex, int pageSize) {
+        return fetchResponseAsync("searchUser", query, currentPageIndex, pageSize);
+    }
+
+    /**
+     * @since 2.6
+     */
+    public CompletableFuture<User> attachGroupToUserAsync(String groupName, String userName) {
+        return fetchResponseAsync("attachGroupToUser", userName, groupName);
     }
 }
@@ -0,0 +1,111 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.internals.spi;
+
+import org.nuxeo.client.api.RequestOptions;
+
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+
+/**
+ * Call factory given to retrofit, created once per client.
+ * <p>
+ * It delegates to the current {@link OkHttpClient}, which can be replaced by a client derived from it with
+ * {@link OkHttpClient#newBuilder()} (sharing its connection pool and dispatcher) without rebuilding retrofit nor the
+ * API proxies. Calls created while {@link RequestOptions} are bound to the current thread carry them as request tag,
+ * for {@link ClientInterceptor}. The GET calls created while a {@link ResponseCapture} is bound capture their json
+ * response.
+ *
+ * @since 2.6
+ */
+public class ClientCallFactory implements Call.Factory {
+
+    protected final ThreadLocal<RequestOptions> boundOptions = new ThreadLocal<>();
+
+    protected final ThreadLocal<ResponseCapture> boundCapture = new ThreadLocal<>();
+
+    protected volatile OkHttpClient okHttpClient;
+
+    public ClientCallFactory(OkHttpClient okHttpClient) {
+        this.okHttpClient = okHttpClient;
+    }
+
+    public OkHttpClient getOkHttpClient() {
+        return okHttpClient;
+    }
+
+    public void setOkHttpClient(OkHttpClient okHttpClient) {
+        this.okHttpClient = okHttpClient;
+    }
+
+    /**
+     * Binds the options to the calls created by the current thread, retrofit creating them when a call is executed,
+     * enqueued or when its request is read.
+     *
+     * @return the previously bound options, to give back to {@link #restore(RequestOptions)}.
+     */
+    public RequestOptions bind(RequestOptions options) {
+        RequestOptions previous = boundOptions.get();
+        boundOptions.set(options);
+        return previous;
+    }
+
+    public void restore(RequestOptions previous) {
+        if (previous == null) {
+            boundOptions.remove();
+        } else {
+            boundOptions.set(previous);
+        }
+    }
+
+    /**
+     * Binds the capture to the GET calls created by the current thread, as {@link #bind(RequestOptions)} does.
+     *
+     * @return the previously bound capture, to give back to {@link #restoreCapture(ResponseCapture)}.
+     */
+    public ResponseCapture bindCapture(ResponseCapture capture) {
+        ResponseCapture previous = boundCapture.get();
+        boundCapture.set(capture);
+        return previous;
+    }
+
+    public void restoreCapture(ResponseCapture previous) {
+        if (previous == null) {
+            boundCapture.remove();
+        } else {
+            boundCapture.set(previous);
+        }
+    }
+
+    @Override
+    public Call newCall(Request request) {
+        RequestOptions options = boundOptions.get();
+        if (options != null) {
+            request = request.newBuilder().tag(options).build();
+        }
+        Call call = okHttpClient.newCall(request);
+        ResponseCapture capture = boundCapture.get();
+        if (capture != null && "GET".equals(request.method())) {
+            return capture.wrap(call);
+        }
+        return call;
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.internals.spi;
+
+import java.io.IOException;
+
+import org.nuxeo.client.api.RequestOptions;
+
+import okhttp3.Connection;
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * The single interceptor registered on the client http stack.
+ * <p>
+ * It adds the client headers and the {@link RequestOptions} carried by the request tag to each request, then hands it
+ * over to the authentication interceptor. Headers and authentication can be changed at any time without rebuilding
+ * the http client, so its connection pool and dispatcher are kept.
+ *
+ * @since 2.6
+ */
+public class ClientInterceptor implements Interceptor {
+
+    protected static final Headers NO_HEADERS = new Headers.Builder().build();
+
+    protected volatile Headers headers = NO_HEADERS;
+
+    protected volatile Interceptor authentication;
+
+    public Headers getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Adds a client header value, several values can be given for the same header.
+     */
+    public synchronized void addHeader(String header, String value) {
+        headers = headers.newBuilder().add(header, value).build();
+    }
+
+    public void setHeaders(Headers headers) {
+        this.headers = headers;
+    }
+
+    public void clearHeaders() {
+        headers = NO_HEADERS;
+    }
+
+    public Interceptor getAuthentication() {
+        return authentication;
+    }
+
+    public void setAuthentication(Interceptor authentication) {
+        this.authentication = authentication;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = applyHeaders(chain.request());
+        Interceptor authentication = this.authentication;
+        if (authentication == null) {
+            return chain.proceed(request);
+        }
+        return authentication.intercept(new RequestChain(chain, request));
+    }
+
+    /**
+     * @return the request with the client headers and the options headers if it carries some.
+     */
+    public Request applyHeaders(Request request) {
+        Headers clientHeaders = this.headers;
+        RequestOptions options = request.tag() instanceof RequestOptions ? (RequestOptions) request.tag() : null;
+        if (clientHeaders.size() == 0 && (options == null || options.isEmpty())) {
+            return request;
+        }
+        Request.Builder builder = request.newBuilder();
+        Headers overridden = options == null ? null : options.getHeaders();
+        for (int i = 0; i < clientHeaders.size(); i++) {
+            String name = clientHeaders.name(i);
+            // get() is case insensitive
+            if (overridden == null || overridden.get(name) == null) {
+                builder.addHeader(name, clientHeaders.value(i));
+            }
+        }
+        if (options != null) {
+            Headers optionHeaders = options.getHeaders();
+            for (int i = 0; i < optionHeaders.size(); i++) {
+                builder.addHeader(optionHeaders.name(i), optionHeaders.value(i));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Chain proceeding with the original chain, exposing the request with headers to the authentication interceptor.
+     */
+    protected static class RequestChain implements Chain {
+
+        protected final Chain chain;
+
+        protected final Request request;
+
+        protected RequestChain(Chain chain, Request request) {
+            this.chain = chain;
+            this.request = request;
+        }
+
+        @Override
+        public Request request() {
+            return request;
+        }
+
+        @Override
+        public Response proceed(Request request) throws IOException {
+            return chain.proceed(request);
+        }
+
+        @Override
+        public Connection connection() {
+            return chain.connection();
+        }
+    }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.internals.spi;
+
+import java.io.IOException;
+
+import org.nuxeo.client.api.ConstantsV1;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Keeps the raw json of the response to a call stored in the client cache, so that the cache entry holds the bytes
+ * of the server instead of the decoded body marshalled back.
+ * <p>
+ * Bound by {@link ClientCallFactory#bindCapture(ResponseCapture)} for the calls going to the cache only: the json of
+ * their successful response is read at once, then given to the response converter from memory. The responses of the
+ * other calls are decoded from the stream.
+ *
+ * @since 2.6
+ */
+public class ResponseCapture {
+
+    protected volatile byte[] json;
+
+    /**
+     * @return the raw json of the response, null if the response was not json or not successful.
+     */
+    public byte[] getJson() {
+        return json;
+    }
+
+    /**
+     * @return the response, its json body read into memory.
+     */
+    protected Response capture(Response response) throws IOException {
+        ResponseBody body = response.body();
+        if (!response.isSuccessful() || body == null || !isJson(body.contentType())) {
+            return response;
+        }
+        byte[] bytes = body.bytes();
+        json = bytes;
+        return response.newBuilder().body(ResponseBody.create(body.contentType(), bytes)).build();
+    }
+
+    protected static boolean isJson(MediaType mediaType) {
+        return mediaType != null && ConstantsV1.APPLICATION.equals(mediaType.type())
+                && (ConstantsV1.JSON.equals(mediaType.subtype())
+                        || ConstantsV1.JSON_NXENTITY.equals(mediaType.subtype()));
+    }
+
+    /**
+     * @return a call capturing the response of the delegate.
+     */
+    protected Call wrap(Call delegate) {
+        return new Call() {
+
+            @Override
+            public Request request() {
+                return delegate.request();
+            }
+
+            @Override
+            public Response execute() throws IOException {
+                return capture(delegate.execute());
+            }
+
+            @Override
+            public void enqueue(Callback callback) {
+                Call call = this;
+                delegate.enqueue(new Callback() {
+
+                    @Override
+                    public void onFailure(Call failed, IOException reason) {
+                        callback.onFailure(call, reason);
+                    }
+
+                    @Override
+                    public void onResponse(Call succeeded, Response response) throws IOException {
+                        Response captured;
+                        try {
+                            captured = capture(response);
+                        } catch (IOException reason) {
+                            callback.onFailure(call, reason);
+                            return;
+                        }
+                        callback.onResponse(call, captured);
+                    }
+                });
+            }
+
+            @Override
+            public void cancel() {
+                delegate.cancel();
+            }
+
+            @Override
+            public boolean isExecuted() {
+                return delegate.isExecuted();
+            }
+
+            @Override
+            public boolean isCanceled() {
+                return delegate.isCanceled();
+            }
+        };
+    }
+
+}
@@ -0,0 +1,171 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.internals.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.nuxeo.client.internals.spi.NuxeoClientException;
+
+import com.google.common.primitives.Primitives;
+
+/**
+ * Dispatch table of the methods of a retrofit API interface (RepositoryAPI, OperationAPI...), built once per interface.
+ * <p>
+ * Methods are indexed by name and arity, the arity of repository scoped methods including their trailing repository
+ * name parameter. Each method is bound to a cached {@link MethodHandle} so invoking it doesn't need to scan the
+ * interface methods nor to go through {@link Method#invoke(Object, Object...)}.
+ *
+ * @since 2.6
+ */
+public final class APIDispatchTable {
+
+    private static final ConcurrentMap<Class<?>, APIDispatchTable> TABLES = new ConcurrentHashMap<>();
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    private static final Invoker[] NO_INVOKERS = new Invoker[0];
+
+    private final Class<?> apiClass;
+
+    private final Map<String, Invoker[][]> invokers;
+
+    private APIDispatchTable(Class<?> apiClass) {
+        this.apiClass = apiClass;
+        Map<String, List<List<Invoker>>> byName = new HashMap<>();
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        for (Method method : apiClass.getMethods()) {
+            int arity = method.getParameterTypes().length;
+            List<List<Invoker>> byArity = byName.computeIfAbsent(method.getName(), k -> new ArrayList<>());
+            while (byArity.size() <= arity) {
+                byArity.add(new ArrayList<>());
+            }
+            try {
+                MethodHandle handle = lookup.unreflect(method).asSpreader(Object[].class, arity).asType(INVOKER_TYPE);
+                byArity.get(arity).add(new Invoker(method, handle));
+            } catch (IllegalAccessException reason) {
+                throw new NuxeoClientException(
+                        String.format("Unable to access method '%s' of API %s", method.getName(), apiClass), reason);
+            }
+        }
+        invokers = new HashMap<>(byName.size() * 2);
+        for (Map.Entry<String, List<List<Invoker>>> entry : byName.entrySet()) {
+            List<List<Invoker>> byArity = entry.getValue();
+            Invoker[][] table = new Invoker[byArity.size()][];
+            for (int i = 0; i < table.length; i++) {
+                table[i] = byArity.get(i).toArray(NO_INVOKERS);
+            }
+            invokers.put(entry.getKey(), table);
+        }
+    }
+
+    /**
+     * @return the dispatch table of the given API interface, built on first access.
+     */
+    public static APIDispatchTable of(Class<?> apiClass) {
+        // get first: on java 8 computeIfAbsent locks the bin even when the table is there, on each call
+        APIDispatchTable table = TABLES.get(apiClass);
+        return table != null ? table : TABLES.computeIfAbsent(apiClass, APIDispatchTable::new);
+    }
+
+    public Class<?> getApiClass() {
+        return apiClass;
+    }
+
+    /**
+     * @return the method named methodName accepting the given parameters, or null if there's no such method.
+     */
+    public Method lookup(String methodName, Object... parameters) {
+        Invoker invoker = find(methodName, parameters);
+        return invoker == null ? null : invoker.method;
+    }
+
+    /**
+     * Invokes the method named methodName accepting the given parameters on the api instance.
+     *
+     * @throws NuxeoClientException if there's no such method or if no method accepts the parameters.
+     */
+    public Object invoke(Object api, String methodName, Object... parameters) throws Throwable {
+        Invoker invoker = find(methodName, parameters);
+        if (invoker == null && invokers.containsKey(methodName)) {
+            throw new NuxeoClientException(String.format(
+                    "No method of API %s named '%s' accepts the parameters %s. Check parameters types.", apiClass,
+                    methodName, Arrays.toString(parameters)));
+        } else if (invoker == null) {
+            throw new NuxeoClientException(String.format(
+                    "No method found for API %s and method name '%s'. Check method name and parameters.", apiClass,
+                    methodName));
+        }
+        return (Object) invoker.handle.invokeExact(api, parameters);
+    }
+
+    private Invoker find(String methodName, Object[] parameters) {
+        Invoker[][] byArity = invokers.get(methodName);
+        if (byArity == null || parameters.length >= byArity.length) {
+            return null;
+        }
+        // Overloads with the same arity (OperationAPI#execute) - pick the first one accepting the parameters
+        for (Invoker candidate : byArity[parameters.length]) {
+            if (candidate.accepts(parameters)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static final class Invoker {
+
+        final Method method;
+
+        final MethodHandle handle;
+
+        final Class<?>[] parameterTypes;
+
+        Invoker(Method method, MethodHandle handle) {
+            this.method = method;
+            this.handle = handle;
+            this.parameterTypes = method.getParameterTypes();
+        }
+
+        boolean accepts(Object[] parameters) {
+            for (int i = 0; i < parameterTypes.length; i++) {
+                Object parameter = parameters[i];
+                if (parameterTypes[i].isPrimitive()) {
+                    // unboxed by the method handle
+                    if (parameter == null || !Primitives.wrap(parameterTypes[i]).isInstance(parameter)) {
+                        return false;
+                    }
+                } else if (parameter != null && !parameterTypes[i].isInstance(parameter)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+}
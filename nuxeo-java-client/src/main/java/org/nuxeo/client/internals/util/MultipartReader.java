@@ -0,0 +1,219 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.internals.util;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import okhttp3.Headers;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ByteString;
+import okio.Okio;
+import okio.Source;
+import okio.Timeout;
+
+/**
+ * Reader of a multipart body, reading its parts one after the other from the source, without holding more than a
+ * buffer of the body in memory.
+ * <p>
+ * The body of a part is only readable until the next part is requested, the rest of the part is then skipped.
+ *
+ * @since 2.6
+ */
+public final class MultipartReader implements Closeable {
+
+    private static final Pattern BOUNDARY = Pattern.compile(";\\s*boundary=(?:\"([^\"]*)\"|([^;\\s]+))",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern FILE_NAME = Pattern.compile(
+            ";\\s*filename(\\*)?=(?:\"([^\"]*)\"|(?:UTF-8'[^']*')?([^;\\s]+))", Pattern.CASE_INSENSITIVE);
+
+    private static final long SKIP_SIZE = 8192;
+
+    private final BufferedSource source;
+
+    private final ByteString dashBoundary;
+
+    // the boundary of a part after the first one, preceded by the line break ending the previous part
+    private final ByteString delimiter;
+
+    private PartSource currentPart;
+
+    private int partCount;
+
+    private boolean noMoreParts;
+
+    public MultipartReader(BufferedSource source, String boundary) {
+        this.source = source;
+        this.dashBoundary = ByteString.encodeUtf8("--" + boundary);
+        this.delimiter = ByteString.encodeUtf8("\r\n--" + boundary);
+    }
+
+    /**
+     * @return the boundary of a multipart content type, null if it has none.
+     */
+    public static String boundary(String contentType) {
+        Matcher matcher = BOUNDARY.matcher(contentType);
+        if (!matcher.find()) {
+            return null;
+        }
+        return matcher.group(1) != null ? matcher.group(1) : matcher.group(2);
+    }
+
+    /**
+     * @return the next part, null when there is no more part.
+     */
+    public Part nextPart() throws IOException {
+        if (noMoreParts) {
+            return null;
+        }
+        if (partCount == 0) {
+            // skips the preamble
+            long index = source.indexOf(dashBoundary);
+            if (index == -1) {
+                throw new EOFException("No multipart boundary found");
+            }
+            source.skip(index + dashBoundary.size());
+        } else {
+            Buffer skipped = new Buffer();
+            while (currentPart.read(skipped, SKIP_SIZE) != -1) {
+                skipped.clear();
+            }
+            source.skip(delimiter.size());
+        }
+        currentPart = null;
+        // the last boundary is followed by two dashes
+        if (source.request(2) && source.buffer().getByte(0) == '-' && source.buffer().getByte(1) == '-') {
+            noMoreParts = true;
+            return null;
+        }
+        // ignores the transport padding up to the end of the boundary line
+        source.readUtf8LineStrict();
+        Headers.Builder headers = new Headers.Builder();
+        for (String line = source.readUtf8LineStrict(); !line.isEmpty(); line = source.readUtf8LineStrict()) {
+            headers.add(line);
+        }
+        partCount++;
+        currentPart = new PartSource();
+        return new Part(headers.build(), Okio.buffer(currentPart));
+    }
+
+    @Override
+    public void close() throws IOException {
+        noMoreParts = true;
+        currentPart = null;
+        source.close();
+    }
+
+    /**
+     * Source of the body of the current part, reading up to the next delimiter.
+     */
+    private final class PartSource implements Source {
+
+        @Override
+        public long read(Buffer sink, long byteCount) throws IOException {
+            if (currentPart != this) {
+                throw new IllegalStateException("The part is closed");
+            }
+            if (!source.request(delimiter.size())) {
+                throw new EOFException("Multipart body truncated");
+            }
+            long index = source.buffer().indexOf(delimiter);
+            if (index == 0) {
+                return -1;
+            }
+            // the end of the buffer may be the start of the delimiter
+            long limit = index == -1 ? source.buffer().size() - delimiter.size() + 1 : index;
+            return source.read(sink, Math.min(byteCount, limit));
+        }
+
+        @Override
+        public Timeout timeout() {
+            return source.timeout();
+        }
+
+        @Override
+        public void close() {
+            // the rest of the part is skipped by the next one
+        }
+
+    }
+
+    /**
+     * A part of a multipart body, its body is readable until the next part is requested.
+     */
+    public static final class Part {
+
+        private final Headers headers;
+
+        private final BufferedSource body;
+
+        private Part(Headers headers, BufferedSource body) {
+            this.headers = headers;
+            this.body = body;
+        }
+
+        public Headers headers() {
+            return headers;
+        }
+
+        public BufferedSource body() {
+            return body;
+        }
+
+        /**
+         * @return the file name of the content disposition of the part, null if it has none.
+         */
+        public String fileName() {
+            String contentDisposition = headers.get("Content-Disposition");
+            if (contentDisposition == null) {
+                return null;
+            }
+            Matcher matcher = FILE_NAME.matcher(contentDisposition);
+            if (!matcher.find()) {
+                return null;
+            }
+            if (matcher.group(2) != null) {
+                return matcher.group(2);
+            }
+            try {
+                return matcher.group(1) == null ? matcher.group(3) : URLDecoder.decode(matcher.group(3), "UTF-8");
+            } catch (UnsupportedEncodingException e) {
+                // May not happen
+                return matcher.group(3);
+            }
+        }
+
+        /**
+         * @return the content type of the part, without its parameters, null if it has none.
+         */
+        public String mimeType() {
+            String contentType = headers.get("Content-Type");
+            return contentType == null ? null : contentType.replaceFirst(";.*", "").trim();
+        }
+
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+/**
+ * Base of the tests of the client against a mock server.
+ *
+ * @since 2.6
+ */
+public abstract class NuxeoClientTestBase {
+
+    protected static final String DOCUMENT = "{\"entity-type\":\"document\",\"repository\":\"default\","
+            + "\"uid\":\"a1b2\",\"path\":\"/folder\",\"type\":\"Folder\",\"properties\":{}}";
+
+    protected MockWebServer server;
+
+    protected NuxeoClient client;
+
+    @Before
+    public void setup() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        client = new NuxeoClient.Builder().url(server.url("/nuxeo").toString())
+                                          .authentication("Administrator", "Administrator")
+                                          .schemas("dublincore")
+                                          .build();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    protected void enqueueDocument() {
+        enqueueDocument(DOCUMENT);
+    }
+
+    protected void enqueueDocument(String document) {
+        server.enqueue(new MockResponse().setHeader("Content-Type", "application/json").setBody(document));
+    }
+
+    protected void awaitIdle(okhttp3.Dispatcher dispatcher) throws InterruptedException {
+        for (int i = 0; i < 50 && dispatcher.runningCallsCount() > 0; i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(0, dispatcher.runningCallsCount());
+    }
+
+}
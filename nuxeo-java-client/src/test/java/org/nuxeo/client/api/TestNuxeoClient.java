@@ -0,0 +1,186 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+import org.nuxeo.client.api.objects.Document;
+import org.nuxeo.client.api.objects.Operation;
+import org.nuxeo.client.api.objects.Repository;
+import org.nuxeo.client.api.objects.operation.OperationRequest;
+import org.nuxeo.client.internals.spi.NuxeoClientException;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * Tests of the client settings and of sharing it between threads.
+ *
+ * @since 2.6
+ */
+public class TestNuxeoClient extends NuxeoClientTestBase {
+
+    @Test
+    public void itCanRequireCredentials() {
+        try {
+            new NuxeoClient.Builder().url(server.url("/nuxeo").toString()).build();
+            fail("Building a client without credentials should fail");
+        } catch (NuxeoClientException reason) {
+            assertEquals("Define credentials", reason.getMessage());
+        }
+    }
+
+    @Test
+    public void itCanSendClientHeaders() throws InterruptedException {
+        enqueueDocument();
+        client.enrichers("acls");
+        Document document = client.repository().fetchDocumentById("a1b2");
+        assertEquals("/folder", document.getPath());
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("/nuxeo/api/v1/id/a1b2", request.getPath());
+        assertEquals("dublincore", request.getHeader(ConstantsV1.HEADER_PROPERTIES));
+        assertEquals("acls", request.getHeader(ConstantsV1.HEADER_ENRICHERS));
+        assertNotNull(request.getHeader("Authorization"));
+    }
+
+    @Test
+    public void itCanOverrideHeadersPerRequest() throws InterruptedException {
+        enqueueDocument();
+        server.enqueue(new MockResponse().setHeader("Content-Type", "application/json")
+                                         .setBody("{\"entity-type\":\"documents\",\"entries\":[]}"));
+        Repository repository = client.repository().withOptions(
+                RequestOptions.builder().schemas("*").fetch("properties", "versionLabel").build());
+        Document document = repository.fetchDocumentById("a1b2");
+        // the options follow the fetched entities
+        document.fetchChildren();
+
+        for (int i = 0; i < 2; i++) {
+            RecordedRequest request = server.takeRequest();
+            assertEquals(asList("*"), request.getHeaders().values(ConstantsV1.HEADER_PROPERTIES));
+            assertEquals(asList("properties", "versionLabel"), request.getHeaders().values(ConstantsV1.HEADER_FETCH));
+        }
+
+        // the client headers are left untouched
+        enqueueDocument();
+        client.repository().fetchDocumentById("a1b2");
+        assertEquals(asList("dublincore"), server.takeRequest().getHeaders().values(ConstantsV1.HEADER_PROPERTIES));
+    }
+
+    @Test
+    public void itCanKeepHttpClientWhenChangingSettings() throws InterruptedException {
+        OkHttpClient okHttpClient = client.getOkHttpClient();
+        client.header("X-Custom", "value").setAuthenticationMethod(chain -> chain.proceed(chain.request()));
+        assertSame(okHttpClient, client.getOkHttpClient());
+
+        client.timeout(30);
+        // a derived client sharing the connection pool and the dispatcher
+        assertEquals(30_000, client.getOkHttpClient().readTimeoutMillis());
+        assertSame(okHttpClient.connectionPool(), client.getOkHttpClient().connectionPool());
+        assertSame(okHttpClient.dispatcher(), client.getOkHttpClient().dispatcher());
+
+        enqueueDocument();
+        client.repository().fetchDocumentById("a1b2");
+        RecordedRequest request = server.takeRequest();
+        assertEquals("value", request.getHeader("X-Custom"));
+        // authentication has been replaced, not appended
+        assertNull(request.getHeader("Authorization"));
+    }
+
+    @Test
+    public void itCanFetchDocumentsFromManyThreads() throws Exception {
+        Pattern value = Pattern.compile("\"value\":\"([^\"]*)\"");
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if (request.getMethod().equals("POST")) {
+                    Matcher matcher = value.matcher(request.getBody().readUtf8());
+                    matcher.find();
+                    return new MockResponse().setHeader("Content-Type", "application/json; nuxeo-entity=document")
+                                             .setBody(DOCUMENT.replace("a1b2", matcher.group(1)));
+                }
+                String id = request.getPath().replaceAll(".*/id/([^/?]*).*", "$1");
+                if (!id.equals(request.getHeader("X-Caller"))) {
+                    return new MockResponse().setResponseCode(400);
+                }
+                return new MockResponse().setHeader("Content-Type", "application/json")
+                                         .setBody(DOCUMENT.replace("a1b2", id));
+            }
+        });
+        Repository repository = client.repository();
+        Operation operation = client.automation();
+        int threads = 32;
+        int calls = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<CompletableFuture<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int thread = i;
+                results.add(CompletableFuture.supplyAsync(() -> {
+                    for (int j = 0; j < calls; j++) {
+                        String id = "d" + thread + "-" + j;
+                        Document document;
+                        if (j % 3 == 0) {
+                            // per call headers are bound to the calling thread only
+                            RequestOptions options = RequestOptions.builder().header("X-Caller", id).build();
+                            document = repository.withOptions(options).fetchDocumentById(id);
+                        } else if (j % 3 == 1) {
+                            document = operation.execute(
+                                    OperationRequest.builder("Repository.GetDocument").param("value", id).build());
+                        } else {
+                            // a new operation per call
+                            document = client.automation("Repository.GetDocument").param("value", id).execute();
+                        }
+                        if (!id.equals(document.getId())) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }, executor));
+            }
+            for (CompletableFuture<Boolean> result : results) {
+                assertTrue(result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(threads * calls, server.getRequestCount());
+        // the shared operation is left untouched by the requests
+        assertNull(operation.getOperationId());
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.nuxeo.client.api.objects.Document;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * @since 2.6
+ */
+public class TestTransport {
+
+    protected MockWebServer server;
+
+    protected CountDownLatch release;
+
+    @Before
+    public void setup() throws IOException {
+        release = new CountDownLatch(0);
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                release.await(10, TimeUnit.SECONDS);
+                return new MockResponse().setHeader("Content-Type", "application/json")
+                                         .setBody(NuxeoClientTestBase.DOCUMENT);
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        release.countDown();
+        server.shutdown();
+    }
+
+    protected NuxeoClient newClient(Transport transport) {
+        return new NuxeoClient.Builder().url(server.url("/nuxeo").toString())
+                                        .authentication("Administrator", "Administrator")
+                                        .transport(transport)
+                                        .build();
+    }
+
+    @Test
+    public void itCanBeSharedByClients() {
+        Transport transport = Transport.builder()
+                                       .maxIdleConnections(2)
+                                       .keepAliveDuration(30, TimeUnit.SECONDS)
+                                       .maxRequests(10)
+                                       .maxRequestsPerHost(4)
+                                       .build();
+        NuxeoClient first = newClient(transport);
+        NuxeoClient second = newClient(transport);
+        assertSame(transport.getConnectionPool(), first.getOkHttpClient().connectionPool());
+        assertSame(transport.getDispatcher(), second.getOkHttpClient().dispatcher());
+        assertEquals(10, transport.getDispatcher().getMaxRequests());
+        assertEquals(4, transport.getDispatcher().getMaxRequestsPerHost());
+        // derived clients keep the shared transport
+        first.timeout(10);
+        assertSame(transport.getConnectionPool(), first.getTransport().getConnectionPool());
+        assertSame(transport.getConnectionPool(), first.getOkHttpClient().connectionPool());
+
+        first.repository().fetchDocumentById("a1b2");
+        second.repository().fetchDocumentById("a1b2");
+        Transport.Stats stats = transport.getStats();
+        // the connection of the first client has been reused by the second one
+        assertEquals(1, stats.getIdleConnections());
+        assertEquals(0, stats.getActiveConnections());
+        assertEquals(0, stats.getQueuedCalls());
+    }
+
+    @Test
+    public void itCanReportQueuedCalls() throws InterruptedException {
+        release = new CountDownLatch(1);
+        Transport transport = Transport.builder().maxRequests(1).build();
+        NuxeoClient client = newClient(transport);
+        CountDownLatch done = new CountDownLatch(2);
+        Callback<Document> callback = new Callback<Document>() {
+            @Override
+            public void onResponse(Call<Document> call, Response<Document> response) {
+                done.countDown();
+            }
+
+            @Override
+            public void onFailure(Call<Document> call, Throwable t) {
+                done.countDown();
+            }
+        };
+        client.repository().fetchDocumentById("a1b2", callback);
+        client.repository().fetchDocumentById("c3d4", callback);
+
+        Transport.Stats stats = transport.getStats();
+        assertEquals(1, stats.getRunningCalls());
+        assertEquals(1, stats.getQueuedCalls());
+
+        release.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void itHasOkHttpDefaults() {
+        NuxeoClient client = newClient(null);
+        assertEquals(Transport.DEFAULT_MAX_REQUESTS, client.getTransport().getDispatcher().getMaxRequests());
+        assertEquals(Transport.DEFAULT_MAX_REQUESTS_PER_HOST,
+                client.getTransport().getDispatcher().getMaxRequestsPerHost());
+    }
+
+}
@@ -0,0 +1,131 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.nuxeo.client.api.marshaller.NuxeoConverterFactory;
+import org.nuxeo.client.api.marshaller.NuxeoMarshaller;
+import org.nuxeo.client.api.objects.Document;
+import org.nuxeo.client.api.objects.blob.Blob;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import okhttp3.Headers;
+import okhttp3.HttpUrl;
+
+/**
+ * @since 2.6
+ */
+public class TestCacheEntry {
+
+    protected final NuxeoConverterFactory converterFactory = NuxeoConverterFactory.create();
+
+    protected static final Headers HEADERS = Headers.of("ETag", "\"1234\"", "Content-Type", "application/json",
+            "Date", "Mon, 23 Jan 2017 10:00:00 GMT", "Set-Cookie", "JSESSIONID=42");
+
+    protected static final HttpUrl URL = HttpUrl.parse("http://localhost:8080/nuxeo/api/v1/path/folder");
+
+    @Test
+    public void itKeepsOnlyDescriptiveHeaders() {
+        CacheEntry entry = CacheEntry.of(converterFactory, "{}", HEADERS, URL);
+        assertEquals(2, entry.getHeaders().size());
+        assertEquals("\"1234\"", entry.getHeaders().get("ETag"));
+        assertNull(entry.getHeaders().get("Set-Cookie"));
+        assertEquals("{}", entry.getBody());
+    }
+
+    @Test
+    public void itReturnsCopiesOfCachedDocuments() {
+        Document document = new Document("folder", "Folder");
+        document.setId("6d4bf6f8-4d2a-4a6b-8f3a-2a0cd0e2b8a1");
+        document.setPropertyValue("dc:title", "Folder");
+        ResultCacheInMemory cache = new ResultCacheInMemory();
+        cache.put("key", CacheEntry.of(converterFactory, document, HEADERS, URL));
+
+        Document cached = (Document) cache.getBody("key");
+        assertNotSame(document, cached);
+        assertEquals(document.getId(), cached.getId());
+        assertEquals("Folder", cached.getPropertyValue("dc:title"));
+        cached.setPropertyValue("dc:title", "Changed");
+        TokenBuffer tokens = ((CacheEntry) cache.getResponse("key")).tokens;
+        assertNotNull(tokens);
+        assertEquals("Folder", ((Document) cache.getBody("key")).getPropertyValue("dc:title"));
+        // the json is parsed once
+        assertSame(tokens, ((CacheEntry) cache.getResponse("key")).tokens);
+        assertTrue(((String) cache.getRaw("key")).contains("\"dc:title\":\"Folder\""));
+    }
+
+    @Test
+    public void itKeepsTheRawResponse() {
+        String json = "{\"entity-type\":\"document\",\"uid\":\"a1b2\",\"unknown\":true}";
+        Document document = new Document("folder", "Folder");
+        document.setId("a1b2");
+        CacheEntry entry = CacheEntry.of(converterFactory, document, json.getBytes(StandardCharsets.UTF_8), HEADERS,
+                URL);
+        assertEquals(json, entry.getRaw());
+        assertEquals("a1b2", ((Document) entry.getBody()).getId());
+    }
+
+    @Test
+    public void itSkipsBodiesThatCannotBeWritten() {
+        converterFactory.registerMarshaller(new NuxeoMarshaller<Document>() {
+            @Override
+            public Class<Document> getJavaType() {
+                return Document.class;
+            }
+
+            @Override
+            public Document read(JsonParser jp) throws IOException {
+                return jp.readValueAs(Document.class);
+            }
+
+            @Override
+            public void write(JsonGenerator jg, Object value) {
+                throw new UnsupportedOperationException();
+            }
+        });
+        try {
+            assertNull(CacheEntry.of(converterFactory, new Document("folder", "Folder"), HEADERS, URL));
+        } finally {
+            converterFactory.clearMarshaller();
+        }
+    }
+
+    @Test
+    public void itDoesNotCacheBlobs() {
+        assertFalse(CacheEntry.isCacheable(new Blob(new File("blob"))));
+        assertFalse(CacheEntry.isCacheable(null));
+        assertTrue(CacheEntry.isCacheable(new Document()));
+    }
+
+}
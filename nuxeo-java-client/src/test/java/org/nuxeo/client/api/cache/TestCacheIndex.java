@@ -0,0 +1,101 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.cache;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.nuxeo.client.api.marshaller.NuxeoConverterFactory;
+import org.nuxeo.client.api.objects.Document;
+
+import okhttp3.Headers;
+import okhttp3.HttpUrl;
+
+/**
+ * @since 2.6
+ */
+public class TestCacheIndex {
+
+    protected static final String BASE_URL = "http://localhost:8080/nuxeo/api/v1/";
+
+    protected static final Headers NO_HEADERS = new Headers.Builder().build();
+
+    protected static List<String> names(String url) {
+        return CacheIndex.of(HttpUrl.parse(BASE_URL + url), null);
+    }
+
+    protected static Document document(String uid, String path, String parentRef) {
+        Document document = new Document(uid, "Note", null, null, path, null, null, null, null, null, null, false,
+                null, null);
+        document.setParentRef(parentRef);
+        return document;
+    }
+
+    @Test
+    public void itIndexesRequestsByDocument() {
+        assertEquals(asList("id:a1b2"), names("id/a1b2"));
+        assertEquals(asList("id:a1b2"), names("repo/test/id/a1b2/@acl"));
+        assertEquals(asList("id:a1b2/@children"), names("id/a1b2/@children"));
+        assertEquals(asList("path:/folder_1/note_3"), names("path/folder_1/note_3"));
+        assertEquals(asList("path:/folder_1/@children"), names("repo/test/path/folder_1/@children"));
+        assertEquals(asList("path:/"), names("path/"));
+        assertEquals(Collections.emptyList(), names("query?query=SELECT%20*%20FROM%20Document"));
+        assertEquals(Collections.emptyList(), names("user/id"));
+    }
+
+    @Test
+    public void itIndexesChangedDocumentsAndParentListings() {
+        Document document = document("a1b2", "/folder_1/note_3", "c3d4");
+        assertEquals(asList("id:a1b2", "id:c3d4/@children", "path:/folder_1/note_3", "path:/folder_1/@children"),
+                CacheIndex.of(document));
+
+        List<String> names = new ArrayList<>();
+        CacheIndex.addChanged(names, "docs:a1b2,/folder_1");
+        assertEquals(asList("id:a1b2", "path:/folder_1"), names);
+    }
+
+    @Test
+    public void itEvictsOnlyEntriesOfTheChangedDocument() {
+        NuxeoConverterFactory converterFactory = NuxeoConverterFactory.create();
+        ResultCacheInMemory cache = new ResultCacheInMemory();
+        Document note = document("a1b2", "/folder_1/note_3", "c3d4");
+        Document other = document("e5f6", "/folder_2/note_4", "g7h8");
+        cache.put("note", CacheEntry.of(converterFactory, note, NO_HEADERS, HttpUrl.parse(BASE_URL + "id/a1b2")));
+        cache.put("acl", CacheEntry.of(converterFactory, "{}", NO_HEADERS, HttpUrl.parse(BASE_URL + "id/a1b2/@acl")));
+        cache.put("children", CacheEntry.of(converterFactory, "{}", NO_HEADERS,
+                HttpUrl.parse(BASE_URL + "path/folder_1/@children")));
+        cache.put("other", CacheEntry.of(converterFactory, other, NO_HEADERS, HttpUrl.parse(BASE_URL + "id/e5f6")));
+
+        // deleting by id also evicts the parent listing known from the cached document
+        cache.invalidate(asList(CacheIndex.id("a1b2")));
+        assertNull(cache.getResponse("note"));
+        assertNull(cache.getResponse("acl"));
+        assertNull(cache.getResponse("children"));
+        assertNotNull(cache.getResponse("other"));
+        assertEquals(1, cache.size());
+    }
+
+}
@@ -0,0 +1,230 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.cache;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+import org.nuxeo.client.api.ConstantsV1;
+import org.nuxeo.client.api.NuxeoClientTestBase;
+import org.nuxeo.client.api.marshaller.NuxeoMarshaller;
+import org.nuxeo.client.api.objects.Document;
+import org.nuxeo.client.api.objects.Repository;
+import org.nuxeo.client.api.objects.operation.OperationRequest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+
+import okhttp3.mockwebserver.MockResponse;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Tests of the client response cache.
+ *
+ * @since 2.6
+ */
+public class TestResponseCache extends NuxeoClientTestBase {
+
+    @Test
+    public void itCanRevalidateCachedDocuments() throws InterruptedException {
+        client.setCache(new ResultCacheInMemory(1, 10, 10, 0, TimeUnit.MINUTES));
+        server.enqueue(new MockResponse().setHeader("Content-Type", "application/json")
+                                         .setHeader(ConstantsV1.HEADER_ETAG, "\"1\"")
+                                         .setBody(DOCUMENT));
+        server.enqueue(new MockResponse().setResponseCode(304));
+        Document document = client.repository().fetchDocumentById("a1b2");
+        assertNull(server.takeRequest().getHeader(ConstantsV1.HEADER_IF_NONE_MATCH));
+
+        // the entry is stale right away
+        Document revalidated = client.repository().fetchDocumentById("a1b2");
+        assertEquals("\"1\"", server.takeRequest().getHeader(ConstantsV1.HEADER_IF_NONE_MATCH));
+        assertEquals(document.getPath(), revalidated.getPath());
+        assertEquals(1, client.getNuxeoCache().size());
+    }
+
+    @Test
+    public void itCanSkipCacheForOperations() {
+        client.setCache(new ResultCacheInMemory());
+        for (String id : asList("d1", "d2")) {
+            server.enqueue(new MockResponse().setHeader("Content-Type", "application/json; nuxeo-entity=document")
+                                             .setBody(DOCUMENT.replace("a1b2", id)));
+        }
+        // same operation id, different parameters: the request bodies are not part of the cache key
+        Document first = client.automation().execute(
+                OperationRequest.builder("Repository.GetDocument").param("value", "d1").build());
+        Document second = client.automation().execute(
+                OperationRequest.builder("Repository.GetDocument").param("value", "d2").build());
+        assertEquals("d1", first.getId());
+        assertEquals("d2", second.getId());
+        assertEquals(2, server.getRequestCount());
+        assertEquals(0, client.getNuxeoCache().size());
+    }
+
+    @Test
+    public void itCanRefreshCacheAtOnce() {
+        client.setCache(new ResultCacheInMemory());
+        enqueueDocument();
+        enqueueDocument();
+        Repository repository = client.repository();
+        repository.fetchDocumentById("a1b2");
+        assertEquals(1, client.getNuxeoCache().size());
+        // evicted at once, not by the next call of the repository
+        repository.refreshCache();
+        assertEquals(0, client.getNuxeoCache().size());
+        repository.fetchDocumentById("a1b2");
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void itCanInvalidateCacheOnCallbackUpdates() throws InterruptedException {
+        client.setCache(new ResultCacheInMemory());
+        enqueueDocument();
+        enqueueDocument();
+        Document document = client.repository().fetchDocumentById("a1b2");
+        assertEquals(1, client.getNuxeoCache().size());
+
+        CompletableFuture<Document> updated = new CompletableFuture<>();
+        client.repository().updateDocument(document, new Callback<Document>() {
+            @Override
+            public void onResponse(Call<Document> call, Response<Document> response) {
+                updated.complete(response.body());
+            }
+
+            @Override
+            public void onFailure(Call<Document> call, Throwable reason) {
+                updated.completeExceptionally(reason);
+            }
+        });
+        assertEquals("a1b2", updated.join().getId());
+        // evicted before the callback is called
+        assertEquals(0, client.getNuxeoCache().size());
+    }
+
+    @Test
+    public void itCanCacheWithLegacyCaches() {
+        Map<String, Object> entries = new ConcurrentHashMap<>();
+        client.setCache(new NuxeoResponseCache() {
+            @Override
+            public Object getResponse(Object key) {
+                return entries.get(key);
+            }
+
+            @Override
+            public void put(String key, Object value) {
+                entries.put(key, value);
+            }
+
+            @Override
+            public int size() {
+                return entries.size();
+            }
+
+            @Override
+            public Object getRaw(Object key) {
+                return null;
+            }
+
+            @Override
+            public Object getBody(Object key) {
+                return null;
+            }
+
+            @Override
+            public void invalidateAll() {
+                entries.clear();
+            }
+        });
+        enqueueDocument();
+        Document document = client.repository().fetchDocumentById("a1b2");
+        Document cached = client.repository().fetchDocumentById("a1b2");
+        assertEquals(1, server.getRequestCount());
+        assertEquals(document.getId(), cached.getId());
+        assertEquals(1, entries.size());
+    }
+
+    @Test
+    public void itCanCacheWithReadOnlyMarshallers() throws InterruptedException {
+        client.setCache(new ResultCacheInMemory());
+        client.registerMarshaller(new NuxeoMarshaller<Document>() {
+            @Override
+            public Class<Document> getJavaType() {
+                return Document.class;
+            }
+
+            @Override
+            public Document read(JsonParser jp) throws IOException {
+                return jp.readValueAs(Document.class);
+            }
+
+            @Override
+            public void write(JsonGenerator jg, Object value) {
+                throw new UnsupportedOperationException();
+            }
+        });
+        try {
+            enqueueDocument();
+            Document document = client.repository().fetchDocumentById("a1b2");
+            // the raw response is cached, the document is not written back
+            Document cached = client.repository().fetchDocumentById("a1b2");
+            assertEquals(1, server.getRequestCount());
+            assertEquals(document.getId(), cached.getId());
+            assertEquals(1, client.getNuxeoCache().size());
+        } finally {
+            client.clearMarshaller();
+        }
+    }
+
+    @Test
+    public void itCanRecordCacheMetrics() throws Exception {
+        InMemoryCacheMetrics metrics = new InMemoryCacheMetrics();
+        client.setCache(new ResultCacheInMemory().setMetrics(metrics));
+        enqueueDocument();
+        client.repository().fetchDocumentById("a1b2");
+        client.repository().fetchDocumentById("a1b2");
+
+        MethodMetrics method = metrics.getMethod("fetchDocumentById");
+        assertEquals(1, method.getHitCount());
+        assertEquals(1, method.getMissCount());
+        assertEquals(1, method.getLoadCount());
+        assertEquals(0.5, metrics.getHitRatio(), 0.0);
+
+        ObjectName objectName = metrics.registerMBean("test");
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(1L, server.getAttribute(objectName, "HitCount"));
+        } finally {
+            metrics.unregisterMBean(objectName);
+        }
+    }
+
+}
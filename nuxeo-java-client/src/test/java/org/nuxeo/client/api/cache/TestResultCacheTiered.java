@@ -0,0 +1,147 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.cache;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.nuxeo.client.api.marshaller.NuxeoConverterFactory;
+import org.nuxeo.client.api.objects.Document;
+
+import okhttp3.Headers;
+import okhttp3.HttpUrl;
+
+/**
+ * @since 2.6
+ */
+public class TestResultCacheTiered {
+
+    protected static final String BASE_URL = "http://localhost:8080/nuxeo/api/v1/";
+
+    protected final NuxeoConverterFactory converterFactory = NuxeoConverterFactory.create();
+
+    protected CacheEntry entry(int i) {
+        Document document = new Document("note_" + i, "Note");
+        document.setId("uid_" + i);
+        document.setPropertyValue("dc:title", "Note " + i);
+        return CacheEntry.of(converterFactory, document, Headers.of("ETag", "\"" + i + "\""),
+                HttpUrl.parse(BASE_URL + "id/uid_" + i));
+    }
+
+    @Test
+    public void itMovesEvictedEntriesToTheOverflowTier() {
+        // a single segment to get a deterministic eviction order
+        ResultCacheTiered cache = new ResultCacheTiered(1, 2, 1024 * 1024, 10, -1, TimeUnit.MINUTES);
+        for (int i = 0; i < 10; i++) {
+            cache.put("key" + i, entry(i));
+        }
+        assertEquals(10, cache.size());
+        assertEquals(8, cache.getHotStats().evictionCount());
+        assertTrue(cache.getOverflowBytes() > 0);
+
+        // found in the overflow tier and moved back
+        CacheEntry entry = (CacheEntry) cache.getResponse("key0");
+        assertEquals("\"0\"", entry.getETag());
+        assertEquals("Note 0", ((Document) entry.getBody()).getPropertyValue("dc:title"));
+        assertEquals(1, cache.getOverflowStats().hitCount());
+        assertNotNull(cache.getCache().getIfPresent("key0"));
+        assertNull(cache.getResponse("unknown"));
+        assertEquals(1, cache.getOverflowStats().missCount());
+
+        // overflowed and moved back entries stay indexed
+        cache.invalidate(asList(CacheIndex.id("uid_5"), CacheIndex.id("uid_0")));
+        assertNull(cache.getResponse("key5"));
+        assertNull(cache.getResponse("key0"));
+        assertEquals(8, cache.size());
+
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getOverflowBytes());
+    }
+
+    @Test
+    public void itDropsEntriesInvalidatedWhileMovedBack() {
+        boolean[] racing = { false };
+        ResultCacheTiered cache = new ResultCacheTiered(1, 1, 1024 * 1024, 10, -1, TimeUnit.MINUTES) {
+
+            @Override
+            public void put(Object key, Object value) {
+                super.put(key, value);
+                if (racing[0]) {
+                    racing[0] = false;
+                    invalidate(asList(CacheIndex.id("uid_0")));
+                }
+            }
+        };
+        cache.put("key0", entry(0));
+        cache.put("key1", entry(1));
+        racing[0] = true;
+        assertNull(cache.getResponse("key0"));
+        assertNull(cache.getCache().getIfPresent("key0"));
+        assertNull(cache.getResponse("key0"));
+        assertNotNull(cache.getResponse("key1"));
+    }
+
+    @Test
+    public void itEvictsOverflowedEntriesBySize() {
+        int weight = new ResultCacheTiered.OverflowEntry(entry(0)).getWeight();
+        ResultCacheTiered cache = new ResultCacheTiered(1, 1, weight * 3, 10, -1, TimeUnit.MINUTES);
+        for (int i = 0; i < 10; i++) {
+            cache.put("key" + i, entry(i));
+        }
+        // the on-heap entry and the three last overflowed ones
+        assertEquals(4, cache.size());
+        assertEquals(6, cache.getOverflowStats().evictionCount());
+        assertTrue(cache.getOverflowBytes() <= cache.getOverflowMaximumBytes());
+        assertNull(cache.getResponse("key0"));
+        assertNotNull(cache.getResponse("key8"));
+    }
+
+    @Test
+    public void itExpiresEntriesFromTheirResponseTime() throws InterruptedException {
+        ResultCacheTiered cache = new ResultCacheTiered(1, 1, 1024 * 1024, 2000, -1, TimeUnit.MILLISECONDS);
+        long now = System.nanoTime();
+        CacheEntry expired = entry(0);
+        expired.writtenAt = now - TimeUnit.MILLISECONDS.toNanos(3000);
+        cache.put("key0", expired);
+        for (int i = 1; i < 3; i++) {
+            CacheEntry entry = entry(i);
+            entry.writtenAt = now - TimeUnit.MILLISECONDS.toNanos(1500);
+            cache.put("key" + i, entry);
+        }
+        // the expired entry is dropped instead of being moved to the overflow tier
+        assertEquals(2, cache.size());
+        assertNull(cache.getResponse("key0"));
+
+        // moved back to the on-heap tier, key2 is moved to the overflow tier
+        assertNotNull(cache.getResponse("key1"));
+        Thread.sleep(700);
+        // both tiers would keep them until 2000 ms after their last move
+        assertNull(cache.getResponse("key1"));
+        assertNull(cache.getResponse("key2"));
+        assertEquals(0, cache.size());
+    }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.marshaller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.nuxeo.client.api.objects.Document;
+import org.nuxeo.client.api.objects.RecordSet;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+
+/**
+ * @since 2.6
+ */
+public class TestNuxeoResponseConverterFactory {
+
+    protected final NuxeoConverterFactory converterFactory = NuxeoConverterFactory.create();
+
+    protected Object convert(String contentType, String json) throws IOException {
+        Converter<ResponseBody, ?> converter = converterFactory.responseBodyConverter(Object.class,
+                new Annotation[0], null);
+        return converter.convert(ResponseBody.create(MediaType.parse(contentType), json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void itDecodesDocumentsFromTheResponseStream() throws IOException {
+        Object document = convert("application/json+nxentity; nuxeo-entity=document",
+                "{\"entity-type\":\"document\",\"uid\":\"a1b2\",\"type\":\"Note\",\"properties\":{\"dc:title\":\"Note\"}}");
+        assertTrue(document instanceof Document);
+        assertEquals("a1b2", ((Document) document).getId());
+        assertEquals("Note", ((Document) document).getPropertyValue("dc:title"));
+    }
+
+    @Test
+    public void itReturnsJsonAsIsUnlessItIsARecordSet() throws IOException {
+        String json = "{\"value\":{\"entity-type\":\"recordSet\"},\"entity-type\":\"string\"}";
+        assertEquals(json, convert("application/json", json));
+        assertEquals("[\"é\"]", convert("application/json; charset=UTF-8", "[\"é\"]"));
+
+        Object recordSet = convert("application/json",
+                "{\"entries\":[{\"k\":\"v\"}],\"entity-type\":\"recordSet\"}");
+        assertTrue(recordSet instanceof RecordSet);
+    }
+
+}
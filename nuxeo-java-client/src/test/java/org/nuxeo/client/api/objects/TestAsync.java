@@ -0,0 +1,109 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.objects;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+import org.nuxeo.client.api.NuxeoClientTestBase;
+import org.nuxeo.client.api.cache.ResultCacheInMemory;
+import org.nuxeo.client.internals.spi.NuxeoClientException;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.SocketPolicy;
+
+/**
+ * Tests of the {@link java.util.concurrent.CompletableFuture} calls.
+ *
+ * @since 2.6
+ */
+public class TestAsync extends NuxeoClientTestBase {
+
+    @Test
+    public void itCanFetchDocumentsAsync() throws Exception {
+        client.setCache(new ResultCacheInMemory());
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "async-test"));
+        try {
+            Repository repository = client.repository().withExecutor(executor);
+            enqueueDocument();
+            AtomicReference<String> thread = new AtomicReference<>();
+            CompletableFuture<Document> future = repository.fetchDocumentByIdAsync("a1b2");
+            assertEquals("a1b2", future.thenApply(document -> {
+                thread.set(Thread.currentThread().getName());
+                return document.getId();
+            }).get(5, TimeUnit.SECONDS));
+            assertEquals("async-test", thread.get());
+
+            // the same cache as the sync calls
+            assertEquals("a1b2", repository.fetchDocumentByIdAsync("a1b2").get().getId());
+            assertEquals("a1b2", client.repository().fetchDocumentById("a1b2").getId());
+            assertEquals(1, server.getRequestCount());
+
+            // the same error mapping as the sync calls
+            server.enqueue(new MockResponse().setResponseCode(404));
+            try {
+                repository.fetchDocumentByPathAsync("/missing").get(5, TimeUnit.SECONDS);
+                fail();
+            } catch (ExecutionException reason) {
+                assertEquals(404, ((NuxeoClientException) reason.getCause()).getStatus());
+            }
+
+            // cancelling the future cancels the call
+            server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+            okhttp3.Dispatcher dispatcher = client.getTransport().getDispatcher();
+            // the previous call is released by the dispatcher after its callback
+            awaitIdle(dispatcher);
+            CompletableFuture<Document> pending = repository.fetchDocumentByPathAsync("/pending");
+            assertEquals(1, dispatcher.runningCallsCount());
+            assertTrue(pending.cancel(true));
+            awaitIdle(dispatcher);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void itCancelsTheCallOfWritesAsync() throws Exception {
+        client.setCache(new ResultCacheInMemory());
+        enqueueDocument();
+        client.repository().fetchDocumentById("a1b2");
+
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.NO_RESPONSE));
+        okhttp3.Dispatcher dispatcher = client.getTransport().getDispatcher();
+        CompletableFuture<Void> pending = client.repository().deleteDocumentAsync("a1b2");
+        assertEquals(1, dispatcher.runningCallsCount());
+        // the future is derived from the one of the call, to evict the deleted document
+        assertTrue(pending.cancel(true));
+        awaitIdle(dispatcher);
+
+        // not evicted, the delete was not acknowledged
+        assertEquals("a1b2", client.repository().fetchDocumentById("a1b2").getId());
+        assertEquals(2, server.getRequestCount());
+    }
+
+}
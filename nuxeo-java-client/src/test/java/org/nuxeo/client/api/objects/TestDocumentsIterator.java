@@ -0,0 +1,199 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.objects;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Test;
+import org.nuxeo.client.internals.spi.NuxeoClientException;
+
+/**
+ * @since 2.6
+ */
+public class TestDocumentsIterator {
+
+    protected final ExecutorService executor = Executors.newFixedThreadPool(3);
+
+    protected final AtomicInteger fetched = new AtomicInteger();
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return the page of a query returning count documents by pages of pageSize.
+     */
+    protected Documents page(int pageIndex, int pageSize, int count) {
+        fetched.incrementAndGet();
+        List<Document> documents = new ArrayList<>();
+        for (int i = pageIndex * pageSize; i < Math.min(count, (pageIndex + 1) * pageSize); i++) {
+            documents.add(new Document("doc" + i, "Note"));
+        }
+        Documents page = new Documents(documents);
+        page.currentPageIndex = pageIndex;
+        page.numberOfPages = (count + pageSize - 1) / pageSize;
+        page.isNextPageAvailable = pageIndex + 1 < page.numberOfPages;
+        return page;
+    }
+
+    @Test
+    public void itIteratesOverAllPages() {
+        DocumentsIterator iterator = DocumentsIterator.of(
+                pageIndex -> CompletableFuture.supplyAsync(() -> page(pageIndex, 3, 10), executor), 2, true);
+        List<String> names = iterator.stream().map(Document::getName).collect(Collectors.toList());
+        assertEquals(10, names.size());
+        assertEquals("doc0", names.get(0));
+        assertEquals("doc9", names.get(9));
+        // no page fetched past the last one
+        assertEquals(4, fetched.get());
+    }
+
+    @Test
+    public void itStopsOnAnEmptyPage() {
+        DocumentsIterator iterator = DocumentsIterator.of(
+                pageIndex -> CompletableFuture.completedFuture(page(pageIndex, 5, 0)), 1, true);
+        assertFalse(iterator.hasNext());
+        assertEquals(1, fetched.get());
+    }
+
+    @Test
+    public void itFetchesPagesOnDemand() {
+        DocumentsIterator iterator = DocumentsIterator.of(
+                pageIndex -> CompletableFuture.completedFuture(page(pageIndex, 2, 100)), 0, true);
+        iterator.next();
+        iterator.next();
+        assertEquals(1, fetched.get());
+        iterator.next();
+        assertEquals(2, fetched.get());
+        iterator.close();
+        iterator.next();
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void itFansOutPagesUnordered() {
+        DocumentsIterator iterator = DocumentsIterator.of(pageIndex -> CompletableFuture.supplyAsync(() -> {
+            if (pageIndex == 1) {
+                // the page is received after the following ones
+                sleep(100);
+            }
+            return page(pageIndex, 3, 10);
+        }, executor), 3, false);
+        List<String> names = iterator.stream().map(Document::getName).collect(Collectors.toList());
+        assertEquals(10, new HashSet<>(names).size());
+        assertEquals("doc0", names.get(0));
+        assertEquals("doc5", names.get(9));
+        assertEquals(4, fetched.get());
+    }
+
+    @Test
+    public void itCancelsPendingFetchesOnClose() {
+        List<CompletableFuture<Documents>> fetches = new ArrayList<>();
+        DocumentsIterator iterator = DocumentsIterator.of(pageIndex -> {
+            if (pageIndex == 0) {
+                return CompletableFuture.completedFuture(page(pageIndex, 2, 6));
+            }
+            // never received
+            CompletableFuture<Documents> fetch = new CompletableFuture<>();
+            fetches.add(fetch);
+            return fetch;
+        }, 2, true);
+        iterator.next();
+        assertEquals(2, fetches.size());
+        iterator.close();
+        for (CompletableFuture<Documents> fetch : fetches) {
+            assertTrue(fetch.isCancelled());
+        }
+        iterator.next();
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void itRetriesBusyPages() {
+        AtomicInteger attempts = new AtomicInteger();
+        IntFunction<CompletableFuture<Documents>> pageFetcher = DocumentsIterator.withBackoff(pageIndex -> {
+            CompletableFuture<Documents> fetch = new CompletableFuture<>();
+            if (attempts.incrementAndGet() < 3) {
+                fetch.completeExceptionally(new NuxeoClientException(503, "Service Unavailable"));
+            } else {
+                fetch.complete(page(pageIndex, 3, 2));
+            }
+            return fetch;
+        }, 5, 1, executor);
+        assertEquals(2, pageFetcher.apply(0).join().size());
+        assertEquals(3, attempts.get());
+
+        IntFunction<CompletableFuture<Documents>> failing = DocumentsIterator.withBackoff(pageIndex -> {
+            attempts.incrementAndGet();
+            CompletableFuture<Documents> fetch = new CompletableFuture<>();
+            fetch.completeExceptionally(new NuxeoClientException(404, "Not Found"));
+            return fetch;
+        }, 5, 1, executor);
+        try {
+            failing.apply(0).join();
+            fail();
+        } catch (CompletionException reason) {
+            assertEquals(404, ((NuxeoClientException) reason.getCause()).getStatus());
+        }
+        assertEquals(4, attempts.get());
+    }
+
+    protected static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException reason) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    public void itRethrowsPrefetchFailures() {
+        DocumentsIterator iterator = DocumentsIterator.of(pageIndex -> CompletableFuture.supplyAsync(() -> {
+            if (pageIndex > 0) {
+                throw new NuxeoClientException("failure");
+            }
+            return page(pageIndex, 2, 4);
+        }, executor), 1, true);
+        iterator.next();
+        iterator.next();
+        try {
+            iterator.next();
+            fail();
+        } catch (NuxeoClientException reason) {
+            assertEquals("failure", reason.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.objects;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.nuxeo.client.internals.spi.NuxeoClientException;
+
+/**
+ * @since 2.6
+ */
+public class TestDocumentsScroll {
+
+    protected static final int COUNT = 7;
+
+    protected static final int PAGE_SIZE = 3;
+
+    protected final List<String> queries = new ArrayList<>();
+
+    /**
+     * @return the page of documents uid0 to uid6 following the given uid.
+     */
+    protected Documents page(String after) {
+        queries.add(DocumentsScroll.scrollQuery("SELECT * FROM Note WHERE ecm:isTrashed = 0", after));
+        int first = after == null ? 0 : Integer.parseInt(after.substring(3)) + 1;
+        List<Document> documents = new ArrayList<>();
+        for (int i = first; i < Math.min(COUNT, first + PAGE_SIZE); i++) {
+            Document document = new Document("doc" + i, "Note");
+            document.setId("uid" + i);
+            documents.add(document);
+        }
+        Documents page = new Documents(documents);
+        page.isNextPageAvailable = first + PAGE_SIZE < COUNT;
+        return page;
+    }
+
+    @Test
+    public void itRewritesTheQueryAfterTheLastKey() {
+        assertEquals("SELECT * FROM Note ORDER BY ecm:uuid", DocumentsScroll.scrollQuery("SELECT * FROM Note", null));
+        assertEquals("SELECT * FROM Note WHERE ecm:uuid > 'a1b2' ORDER BY ecm:uuid",
+                DocumentsScroll.scrollQuery("SELECT * FROM Note ", "a1b2"));
+        assertEquals("SELECT * FROM Note where (a = 1 OR b = 2) AND ecm:uuid > 'a1b2' ORDER BY ecm:uuid",
+                DocumentsScroll.scrollQuery("SELECT * FROM Note where a = 1 OR b = 2", "a1b2"));
+    }
+
+    @Test(expected = NuxeoClientException.class)
+    public void itRejectsOrderedQueries() {
+        DocumentsScroll.scrollQuery("SELECT * FROM Note ORDER BY dc:title", null);
+    }
+
+    @Test
+    public void itScrollsAndResumesFromTheCursor() {
+        Function<String, Documents> pageLoader = this::page;
+        DocumentsScroll scroll = new DocumentsScroll(pageLoader, null);
+        for (int i = 0; i < 4; i++) {
+            scroll.next();
+        }
+        scroll.close();
+        assertFalse(scroll.hasNext());
+        assertEquals("uid3", scroll.getCursor());
+        assertEquals(2, queries.size());
+
+        DocumentsScroll resumed = new DocumentsScroll(pageLoader, scroll.getCursor());
+        List<String> ids = resumed.stream().map(Document::getId).collect(Collectors.toList());
+        assertEquals(3, ids.size());
+        assertEquals("uid4", ids.get(0));
+        assertEquals("uid6", resumed.getCursor());
+        assertEquals("SELECT * FROM Note WHERE (ecm:isTrashed = 0) AND ecm:uuid > 'uid3' ORDER BY ecm:uuid",
+                queries.get(2));
+        // the last page tells there is no next one
+        assertEquals(3, queries.size());
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.objects;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.nuxeo.client.api.NuxeoClientTestBase;
+import org.nuxeo.client.api.cache.ResultCacheInMemory;
+
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * Tests of the repository queries over many documents.
+ *
+ * @since 2.6
+ */
+public class TestRepository extends NuxeoClientTestBase {
+
+    @Test
+    public void itCanFetchDocumentsByIds() throws IOException {
+        client.setCache(new ResultCacheInMemory());
+        Pattern quoted = Pattern.compile("'([^']*)'");
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String query = HttpUrl.parse("http://localhost" + request.getPath()).queryParameter("query");
+                List<String> entries = new ArrayList<>();
+                for (Matcher matcher = quoted.matcher(query); matcher.find();) {
+                    if (!matcher.group(1).equals("missing")) {
+                        entries.add(DOCUMENT.replace("a1b2", matcher.group(1)));
+                    }
+                }
+                return new MockResponse().setHeader("Content-Type", "application/json")
+                                         .setBody("{\"entity-type\":\"documents\",\"entries\":["
+                                                 + String.join(",", entries) + "]}");
+            }
+        });
+        Map<String, Document> documents = client.repository()
+                                                .fetchDocumentsByIds(asList("d3", "d1", "missing", "d2", "d1"), 2, 2);
+        assertEquals(asList("d3", "d1", "missing", "d2"), new ArrayList<>(documents.keySet()));
+        assertEquals("d3", documents.get("d3").getId());
+        assertEquals("d1", documents.get("d1").getId());
+        assertNull(documents.get("missing"));
+        assertEquals(2, server.getRequestCount());
+
+        // each document is cached as if it was fetched by id
+        assertEquals("d2", client.repository().fetchDocumentById("d2").getId());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void itCanIterateQueriesWithoutCaching() {
+        client.setCache(new ResultCacheInMemory());
+        for (int i = 0; i < 2; i++) {
+            server.enqueue(new MockResponse().setHeader("Content-Type", "application/json")
+                                             .setBody("{\"entity-type\":\"documents\",\"currentPageIndex\":" + i
+                                                     + ",\"numberOfPages\":2,\"isNextPageAvailable\":" + (i == 0)
+                                                     + ",\"entries\":[" + DOCUMENT.replace("a1b2", "d" + i) + "]}"));
+        }
+        try (Stream<Document> documents = client.repository().queryStream("SELECT * FROM Document", 1)) {
+            assertEquals(asList("d0", "d1"), documents.map(Document::getId).collect(Collectors.toList()));
+        }
+        assertEquals(2, server.getRequestCount());
+        assertEquals(0, client.getNuxeoCache().size());
+    }
+
+}
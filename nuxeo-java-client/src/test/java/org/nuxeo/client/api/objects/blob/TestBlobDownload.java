@@ -0,0 +1,173 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.objects.blob;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import org.nuxeo.client.api.NuxeoClientTestBase;
+import org.nuxeo.client.internals.spi.NuxeoClientException;
+import org.nuxeo.client.internals.util.IOUtils;
+
+import com.google.common.hash.Hashing;
+import com.google.common.io.BaseEncoding;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+
+/**
+ * Tests of the streamed and segmented blob downloads.
+ *
+ * @since 2.6
+ */
+public class TestBlobDownload extends NuxeoClientTestBase {
+
+    @Test
+    public void itCanStreamBlobs() throws IOException, InterruptedException {
+        server.enqueue(new MockResponse().setHeader("Content-Type", "text/plain; charset=UTF-8")
+                                         .setHeader("Content-Disposition", "attachment; filename=note.txt")
+                                         .setBody("streamed content"));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (StreamBlob blob = client.repository().streamBlobById("a1b2", "file:content")) {
+            assertEquals("note.txt", blob.getFileName());
+            assertEquals("text/plain", blob.getMimeType());
+            assertNull(blob.getFile());
+            assertEquals(16, blob.copyTo(output));
+        }
+        assertEquals("streamed content", output.toString("UTF-8"));
+        assertEquals("/nuxeo/api/v1/id/a1b2/@blob/file:content", server.takeRequest().getPath());
+    }
+
+    @Test
+    public void itCanDownloadBlobSegments() throws IOException, InterruptedException {
+        byte[] content = new byte[100_000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i * 31);
+        }
+        String digest = BaseEncoding.base16().lowerCase().encode(Hashing.md5().hashBytes(content).asBytes());
+        String document = DOCUMENT.replace("\"properties\":{}",
+                "\"properties\":{\"file:content\":{\"name\":\"data.bin\",\"length\":\"" + content.length
+                        + "\",\"digestAlgorithm\":\"MD5\",\"digest\":\"" + digest + "\"}}");
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String range = request.getHeader("Range");
+                if (range == null) {
+                    return new MockResponse().setHeader("Content-Type", "application/json").setBody(document);
+                }
+                String[] bounds = range.substring("bytes=".length()).split("-");
+                int start = Integer.parseInt(bounds[0]);
+                int end = Integer.parseInt(bounds[1]);
+                return new MockResponse().setResponseCode(206)
+                                         .setHeader("Content-Type", "application/octet-stream")
+                                         .setHeader("Content-Range",
+                                                 "bytes " + start + "-" + end + "/" + content.length)
+                                         .setBody(new Buffer().write(content, start, end - start + 1));
+            }
+        });
+        File target = File.createTempFile("download", ".bin");
+        try {
+            client.repository().downloadBlobById("a1b2", "file:content", target, 4);
+            assertArrayEquals(content, Files.readAllBytes(target.toPath()));
+            assertEquals("*", server.takeRequest().getHeader("X-NXproperties"));
+            Set<String> ranges = new HashSet<>();
+            for (int i = 0; i < 4; i++) {
+                ranges.add(server.takeRequest().getHeader("Range"));
+            }
+            assertEquals(new HashSet<>(asList("bytes=0-24999", "bytes=25000-49999", "bytes=50000-74999",
+                    "bytes=75000-99999")), ranges);
+        } finally {
+            target.delete();
+        }
+    }
+
+    @Test
+    public void itCanRejectCorruptedBlobSegments() throws IOException {
+        String document = DOCUMENT.replace("\"properties\":{}", "\"properties\":{\"file:content\":{"
+                + "\"length\":\"8\",\"digest\":\"00000000000000000000000000000000\"}}");
+        enqueueDocument(document);
+        server.enqueue(new MockResponse().setResponseCode(206)
+                                         .setHeader("Content-Type", "application/octet-stream")
+                                         .setBody("abcd"));
+        server.enqueue(new MockResponse().setResponseCode(206)
+                                         .setHeader("Content-Type", "application/octet-stream")
+                                         .setBody("efgh"));
+        File target = File.createTempFile("download", ".bin");
+        try {
+            client.repository().downloadBlobById("a1b2", "file:content", target, 2);
+            fail("A blob with a wrong digest should be rejected");
+        } catch (NuxeoClientException reason) {
+            assertTrue(reason.getMessage().startsWith("Digest mismatch"));
+            assertFalse(target.exists());
+        }
+    }
+
+    @Test
+    public void itCanStreamOperationBlobs() throws IOException, InterruptedException {
+        String multipart = "--b0und\r\n"
+                + "Content-Disposition: attachment; filename=\"small.txt\"\r\n"
+                + "Content-Type: text/plain\r\n\r\n"
+                + "small\r\n"
+                + "--b0und\r\n"
+                + "Content-Disposition: attachment; filename=\"large.txt\"\r\n"
+                + "Content-Type: text/plain\r\n\r\n"
+                + "large content\r\n"
+                + "--b0und--\r\n";
+        server.enqueue(new MockResponse().setHeader("Content-Type", "multipart/mixed; boundary=b0und")
+                                         .setBody(multipart));
+        server.enqueue(new MockResponse().setHeader("Content-Type", "multipart/mixed; boundary=b0und")
+                                         .setBody(multipart));
+        Blobs blobs = client.automation("Blob.Export").executeBlobs(BlobPartHandlers.inMemory(8));
+        assertEquals(2, blobs.size());
+        Blob small = blobs.getBlobs().get(0);
+        assertEquals("small.txt", small.getFileName());
+        assertEquals("text/plain", small.getMimeType());
+        assertNull(small.getFile());
+        assertEquals("small", IOUtils.read(small.getStream()));
+        Blob large = blobs.getBlobs().get(1);
+        assertEquals("large.txt", large.getFileName());
+        assertNotNull(large.getFile());
+        assertEquals("large content", IOUtils.read(large.getStream()));
+        assertEquals("/nuxeo/api/v1/automation/Blob.Export", server.takeRequest().getPath());
+
+        // the converter spools the parts to temporary files
+        blobs = client.automation("Blob.Export").execute();
+        assertEquals(2, blobs.size());
+        assertEquals("small.txt", blobs.getBlobs().get(0).getFileName());
+        assertEquals("small", IOUtils.read(blobs.getBlobs().get(0).getStream()));
+        assertEquals("large content", IOUtils.read(blobs.getBlobs().get(1).getStream()));
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.objects.bulk;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.nuxeo.client.api.ConstantsV1;
+import org.nuxeo.client.api.NuxeoClientTestBase;
+import org.nuxeo.client.api.objects.Document;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * Tests of the bulk writes of documents.
+ *
+ * @since 2.6
+ */
+public class TestBulkWriter extends NuxeoClientTestBase {
+
+    @Test
+    public void itCanWriteDocumentsInBulk() throws InterruptedException {
+        AtomicInteger busy = new AtomicInteger();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String path = request.getPath();
+                if (path.endsWith("/gone")) {
+                    return new MockResponse().setResponseCode(404);
+                }
+                if (request.getMethod().equals("POST") && request.getBody().readUtf8().contains("\"busy\"")
+                        && busy.getAndIncrement() == 0) {
+                    return new MockResponse().setResponseCode(503);
+                }
+                if (request.getMethod().equals("DELETE")) {
+                    return new MockResponse().setResponseCode(204);
+                }
+                return new MockResponse().setHeader("Content-Type", "application/json").setBody(DOCUMENT);
+            }
+        });
+        List<BulkItem> items = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            items.add(BulkItem.create("parent", new Document("doc" + i, "File")));
+        }
+        items.add(BulkItem.create("parent", new Document("busy", "File")));
+        items.add(BulkItem.delete("a1b2"));
+        items.add(BulkItem.delete("gone"));
+        List<BulkItemResult> results = new ArrayList<>();
+        BulkReport report = client.repository()
+                                  .bulkWriter()
+                                  .concurrency(2)
+                                  .itemsPerTask(3)
+                                  .transactionTimeout(60)
+                                  .retryPolicy(RetryPolicy.busy(2, 1))
+                                  .onResult(results::add)
+                                  .write(items.stream());
+        assertEquals(7, report.getSucceeded());
+        assertEquals(1, report.getFailed());
+        assertEquals(1, report.getRetries());
+        assertEquals(8, results.size());
+        assertEquals(6, report.getLatencies(BulkItem.Action.CREATE).getCount());
+        BulkItemResult failure = report.getFailures().get(0);
+        assertEquals("gone", failure.getItem().getDocumentId());
+        assertEquals(404, failure.getFailure().getStatus());
+        assertEquals(1, failure.getAttempts());
+        assertEquals(9, server.getRequestCount());
+        assertEquals("60", server.takeRequest().getHeader(ConstantsV1.HEADER_TX_TIMEOUT));
+    }
+
+}
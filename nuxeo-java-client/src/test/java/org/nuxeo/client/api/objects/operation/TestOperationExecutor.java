@@ -0,0 +1,133 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.objects.operation;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.nuxeo.client.api.NuxeoClientTestBase;
+import org.nuxeo.client.api.objects.Document;
+import org.nuxeo.client.internals.spi.NuxeoClientException;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * Tests of the concurrent execution of operation requests.
+ *
+ * @since 2.6
+ */
+public class TestOperationExecutor extends NuxeoClientTestBase {
+
+    @Test
+    public void itCanExecuteOperationsConcurrently() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        Pattern value = Pattern.compile("\"value\":\"([^\"]*)\"");
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);
+                    Matcher matcher = value.matcher(request.getBody().readUtf8());
+                    matcher.find();
+                    return new MockResponse().setHeader("Content-Type", "application/json; nuxeo-entity=document")
+                                             .setBody(DOCUMENT.replace("a1b2", matcher.group(1)));
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            }
+        });
+        OperationExecutor executor = client.automationExecutor(2);
+        List<String> ids = asList("d0", "d1", "d2", "d3", "d4");
+        List<String> fetched;
+        try (Stream<Document> documents = executor.stream(ids.stream().map(
+                id -> OperationRequest.builder("Repository.GetDocument").param("value", id).build()))) {
+            fetched = documents.map(Document::getId).collect(Collectors.toList());
+        }
+        assertEquals(ids, fetched);
+        assertEquals(2, maxInFlight.get());
+
+        List<CompletableFuture<Document>> futures = executor.submitAll(
+                asList(client.automation("Repository.GetDocument").param("value", "d5").toRequest(),
+                        OperationRequest.builder("Repository.GetDocument").param("value", "d6").build()));
+        assertEquals("d5", futures.get(0).get().getId());
+        assertEquals("d6", futures.get(1).get().getId());
+        assertEquals(7, server.getRequestCount());
+    }
+
+    @Test
+    public void itFailsOperationsRejectedByTheExecutor() throws Exception {
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setHeader("Content-Type", "application/json; nuxeo-entity=document")
+                                         .setBody(DOCUMENT);
+            }
+        });
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        // the second request waiting for a slot is rejected
+        OperationExecutor executor = new OperationExecutor(client.automation(), task -> {
+            if (executions.incrementAndGet() == 2) {
+                throw new RejectedExecutionException("shut down");
+            }
+            new Thread(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException reason) {
+                    Thread.currentThread().interrupt();
+                }
+                task.run();
+            }).start();
+        }, 1);
+        OperationRequest request = OperationRequest.builder("Repository.GetDocument").param("value", "a1b2").build();
+        CompletableFuture<Document> first = executor.submit(request);
+        CompletableFuture<Document> rejected = executor.submit(request);
+        release.countDown();
+        assertEquals("a1b2", first.get(10, TimeUnit.SECONDS).getId());
+        try {
+            rejected.get(10, TimeUnit.SECONDS);
+            fail("Rejected request should have failed");
+        } catch (ExecutionException reason) {
+            assertTrue(reason.getCause() instanceof NuxeoClientException);
+        }
+        // the slot of the rejected request is released
+        CompletableFuture<Document> next = executor.submit(request);
+        assertEquals("a1b2", next.get(10, TimeUnit.SECONDS).getId());
+    }
+
+}
@@ -0,0 +1,233 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.api.objects.upload;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.nuxeo.client.api.NuxeoClient;
+import org.nuxeo.client.api.NuxeoClientTestBase;
+import org.nuxeo.client.api.objects.blob.Blob;
+import org.nuxeo.client.api.objects.blob.StreamBlob;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * Tests of the chunked, resumable and concurrent uploads.
+ *
+ * @since 2.6
+ */
+public class TestBatchUpload extends NuxeoClientTestBase {
+
+    @Test
+    public void itCanUploadChunksConcurrently() throws IOException, InterruptedException {
+        File file = File.createTempFile("upload", ".txt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), "0123456789".getBytes(StandardCharsets.UTF_8));
+        for (int i = 0; i < 4; i++) {
+            server.enqueue(new MockResponse().setHeader("Content-Type", "application/json")
+                                             .setBody("{\"batchId\":\"b1\",\"fileIdx\":\"0\"}"));
+        }
+        BatchUpload batchUpload = new BatchUpload(client).chunkSize(3).inFlightChunks(3);
+        BatchUpload uploaded = batchUpload.upload("upload.txt", file.length(), "text/plain", "b1", "0", file);
+        assertEquals("b1", uploaded.getBatchId());
+        assertEquals(10, batchUpload.getUploadStats().getBytes());
+        assertEquals(4, batchUpload.getUploadStats().getChunks());
+
+        String[] chunks = new String[4];
+        for (int i = 0; i < 4; i++) {
+            RecordedRequest request = server.takeRequest();
+            assertEquals("/nuxeo/api/v1/upload/b1/0", request.getPath());
+            assertEquals("4", request.getHeader("X-Upload-Chunk-Count"));
+            chunks[Integer.parseInt(request.getHeader("X-Upload-Chunk-Index"))] = request.getBody().readUtf8();
+        }
+        assertEquals("0123456789", String.join("", chunks));
+    }
+
+    @Test
+    public void itCanResumeUploads() throws IOException, InterruptedException {
+        File file = File.createTempFile("upload", ".txt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), "0123456789".getBytes(StandardCharsets.UTF_8));
+        File recordFile = File.createTempFile("upload", ".resume");
+        recordFile.deleteOnExit();
+        new UploadResumeRecord("b1", "0", 3, UploadResumeRecord.fingerprint(file)).save(recordFile);
+        String batchFile = "{\"name\":\"upload.txt\",\"size\":10,\"uploadType\":\"chunked\","
+                + "\"uploadedChunkIds\":[0,2],\"chunkCount\":4}";
+        server.enqueue(new MockResponse().setHeader("Content-Type", "application/json")
+                                         .setBody("[" + batchFile + "]"));
+        server.enqueue(new MockResponse().setHeader("Content-Type", "application/json").setBody(batchFile));
+        for (int i = 0; i < 2; i++) {
+            server.enqueue(new MockResponse().setHeader("Content-Type", "application/json")
+                                             .setBody("{\"batchId\":\"b1\",\"fileIdx\":\"0\"}"));
+        }
+        BatchUpload batchUpload = new BatchUpload(client);
+        BatchUpload uploaded = batchUpload.uploadResumable("upload.txt", "text/plain", file, recordFile);
+        assertEquals("b1", uploaded.getBatchId());
+        assertEquals(4, batchUpload.getUploadStats().getBytes());
+        assertFalse(recordFile.exists());
+
+        assertEquals("/nuxeo/api/v1/upload/b1", server.takeRequest().getPath());
+        assertEquals("/nuxeo/api/v1/upload/b1/0", server.takeRequest().getPath());
+        RecordedRequest request = server.takeRequest();
+        assertEquals("1", request.getHeader("X-Upload-Chunk-Index"));
+        assertEquals("345", request.getBody().readUtf8());
+        request = server.takeRequest();
+        assertEquals("3", request.getHeader("X-Upload-Chunk-Index"));
+        assertEquals("9", request.getBody().readUtf8());
+    }
+
+    @Test
+    public void itCanRestartUploadsOfExpiredBatches() throws IOException, InterruptedException {
+        File file = File.createTempFile("upload", ".txt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), "0123456789".getBytes(StandardCharsets.UTF_8));
+        File recordFile = File.createTempFile("upload", ".resume");
+        recordFile.deleteOnExit();
+        new UploadResumeRecord("b1", "0", 3, UploadResumeRecord.fingerprint(file)).save(recordFile);
+        server.enqueue(new MockResponse().setResponseCode(404));
+        for (int i = 0; i < 5; i++) {
+            server.enqueue(new MockResponse().setHeader("Content-Type", "application/json")
+                                             .setBody("{\"batchId\":\"b2\",\"fileIdx\":\"0\"}"));
+        }
+        BatchUpload uploaded = new BatchUpload(client).chunkSize(3)
+                                                      .uploadResumable("upload.txt", "text/plain", file, recordFile);
+        assertEquals("b2", uploaded.getBatchId());
+        assertFalse(recordFile.exists());
+
+        assertEquals("/nuxeo/api/v1/upload/b1", server.takeRequest().getPath());
+        assertEquals("POST", server.takeRequest().getMethod());
+        StringBuilder chunks = new StringBuilder();
+        for (int i = 0; i < 4; i++) {
+            RecordedRequest request = server.takeRequest();
+            assertEquals("/nuxeo/api/v1/upload/b2/0", request.getPath());
+            chunks.append(request.getBody().readUtf8());
+        }
+        assertEquals("0123456789", chunks.toString());
+    }
+
+    @Test
+    public void itCanUploadStreams() throws InterruptedException {
+        for (int i = 0; i < 4; i++) {
+            server.enqueue(new MockResponse().setHeader("Content-Type", "application/json")
+                                             .setBody("{\"batchId\":\"b1\",\"fileIdx\":\"0\"}"));
+        }
+        byte[] data = "0123456789".getBytes(StandardCharsets.UTF_8);
+        BatchUpload batchUpload = new BatchUpload(client);
+        batchUpload.upload("stream.txt", -1, "text/plain", "b1", "0", new ByteArrayInputStream(data));
+        RecordedRequest request = server.takeRequest();
+        assertNull(request.getHeader("X-File-Size"));
+        assertEquals("chunked", request.getHeader("Transfer-Encoding"));
+        assertEquals("0123456789", request.getBody().readUtf8());
+
+        batchUpload.chunkSize(4).upload("stream.txt", data.length, "text/plain", "b1", "1",
+                new ByteArrayInputStream(data));
+        StringBuilder chunks = new StringBuilder();
+        for (int i = 0; i < 3; i++) {
+            request = server.takeRequest();
+            assertEquals(String.valueOf(i), request.getHeader("X-Upload-Chunk-Index"));
+            chunks.append(request.getBody().readUtf8());
+        }
+        assertEquals("0123456789", chunks.toString());
+    }
+
+    @Test
+    public void itCanUploadFilesConcurrently() throws Exception {
+        server.enqueue(new MockResponse().setHeader("Content-Type", "application/json")
+                                         .setBody("{\"batchId\":\"b1\"}"));
+        server.enqueue(new MockResponse().setHeader("Content-Type", "application/json")
+                                         .setBody("{\"batchId\":\"b1\",\"fileIdx\":\"0\"}"));
+        server.enqueue(new MockResponse().setResponseCode(500).setBody("failure"));
+        List<Blob> blobs = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            byte[] data = ("page" + i).getBytes(StandardCharsets.UTF_8);
+            blobs.add(new StreamBlob("page" + i + ".txt", "text/plain", new ByteArrayInputStream(data), data.length));
+        }
+        BatchUpload batchUpload = new BatchUpload(client);
+        BatchUploadResult result = batchUpload.uploadAll(blobs, 2).get(10, TimeUnit.SECONDS);
+        assertEquals("b1", result.getBatchId());
+        assertEquals("b1", batchUpload.getBatchId());
+        assertEquals(2, result.getFiles().size());
+        assertEquals(1, result.getFailures().size());
+        assertEquals(5, result.getTotalBytes());
+        assertEquals(5, batchUpload.getUploadStats().getBytes());
+        assertEquals(1, batchUpload.getUploadStats().getChunks());
+
+        assertEquals("/nuxeo/api/v1/upload", server.takeRequest().getPath());
+        Set<String> paths = new HashSet<>();
+        for (int i = 0; i < 2; i++) {
+            paths.add(server.takeRequest().getPath());
+        }
+        assertEquals(new HashSet<>(asList("/nuxeo/api/v1/upload/b1/0", "/nuxeo/api/v1/upload/b1/1")), paths);
+    }
+
+    @Test
+    public void itCanUploadChunkedFilesWithBoundedExecutor() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(1);
+        try {
+            NuxeoClient bounded = new NuxeoClient.Builder().url(server.url("/nuxeo").toString())
+                                                           .authentication("Administrator", "Administrator")
+                                                           .blockingExecutor(executor)
+                                                           .build();
+            server.setDispatcher(new Dispatcher() {
+                @Override
+                public MockResponse dispatch(RecordedRequest request) {
+                    return new MockResponse().setHeader("Content-Type", "application/json")
+                                             .setBody("{\"batchId\":\"b1\",\"fileIdx\":\"0\"}");
+                }
+            });
+            List<Blob> blobs = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                File file = File.createTempFile("chunks", ".txt");
+                file.deleteOnExit();
+                Files.write(file.toPath(), "0123456789".getBytes(StandardCharsets.UTF_8));
+                blobs.add(new Blob(file));
+            }
+            // the workers upload their chunks themselves instead of waiting for other tasks of the single thread
+            BatchUpload batchUpload = new BatchUpload(bounded).chunkSize(4).inFlightChunks(2);
+            BatchUploadResult result = batchUpload.uploadAll(blobs, 2).get(10, TimeUnit.SECONDS);
+            assertEquals(0, result.getFailures().size());
+            // batch creation and 3 chunks per file
+            assertEquals(7, server.getRequestCount());
+            assertEquals(20, batchUpload.getUploadStats().getBytes());
+            assertEquals(6, batchUpload.getUploadStats().getChunks());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
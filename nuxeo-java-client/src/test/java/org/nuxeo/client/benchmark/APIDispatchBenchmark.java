@@ -0,0 +1,108 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.benchmark;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+import org.nuxeo.client.api.methods.RepositoryAPI;
+import org.nuxeo.client.internals.util.APIDispatchTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Cost per call of resolving and invoking a RepositoryAPI method, the way NuxeoEntity did it before 2.6 (stack walk to
+ * get the caller name, interface methods scan, reflective invocation) and through {@link APIDispatchTable}.
+ * <p>
+ * The API instance is a stub proxy returning no call, so only the dispatch is measured. Run it with:
+ *
+ * <pre>
+ * mvn test-compile exec:java -pl nuxeo-java-client -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.nuxeo.client.benchmark.APIDispatchBenchmark
+ * </pre>
+ *
+ * @since 2.6
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class APIDispatchBenchmark {
+
+    protected Object api;
+
+    protected Object[] parameters;
+
+    @Setup
+    public void setup() {
+        api = Proxy.newProxyInstance(RepositoryAPI.class.getClassLoader(), new Class[] { RepositoryAPI.class },
+                (proxy, method, args) -> null);
+        parameters = new Object[] { "0bd1b3b8-4f0f-4c35-8d2b-ef6c7b1f0e5a", "default" };
+    }
+
+    @Benchmark
+    public Object fetchDocumentByIdLegacy() throws Exception {
+        return fetchDocumentById(parameters);
+    }
+
+    @Benchmark
+    public Object fetchDocumentByIdDispatchTable() throws Throwable {
+        return APIDispatchTable.of(RepositoryAPI.class).invoke(api, "fetchDocumentById", parameters);
+    }
+
+    /**
+     * Stands for the legacy Repository#fetchDocumentById.
+     */
+    protected Object fetchDocumentById(Object... parametersArray) throws Exception {
+        return legacyGetResponse(parametersArray);
+    }
+
+    /**
+     * Stands for the legacy NuxeoEntity#getResponse, without the cache and the call execution.
+     */
+    protected Object legacyGetResponse(Object... parametersArray) throws Exception {
+        String methodName = (new Throwable()).getStackTrace()[1].getMethodName();
+        Method[] methods = api.getClass().getInterfaces()[0].getMethods();
+        for (Method method : methods) {
+            if (method.getName().equals(methodName) && method.getParameterTypes().length == parametersArray.length) {
+                return method.invoke(api, parametersArray);
+            }
+        }
+        return null;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(APIDispatchBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.benchmark;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.nuxeo.client.api.NuxeoClient;
+import org.nuxeo.client.api.objects.Document;
+import org.nuxeo.client.api.objects.Repository;
+import org.nuxeo.client.api.objects.bulk.LatencyHistogram;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * Load of concurrent blocking {@link Repository#fetchDocumentById(String)} calls over one shared client, each from its
+ * own thread, against an in-process server. The throughput and the latency percentiles are printed at the end.
+ * <p>
+ * The threads are virtual ones when the JVM supports them (java 21 or later), platform ones otherwise. All the threads
+ * are started before releasing them at once. Run it with, the number of threads defaulting to 10000:
+ *
+ * <pre>
+ * mvn test-compile exec:java -pl nuxeo-java-client -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.nuxeo.client.benchmark.FetchDocumentLoad -Dexec.args=10000
+ * </pre>
+ *
+ * @since 2.6
+ */
+public class FetchDocumentLoad {
+
+    protected static final String DOCUMENT = "{\"entity-type\":\"document\",\"repository\":\"default\","
+            + "\"uid\":\"%s\",\"path\":\"/folder\",\"type\":\"Folder\",\"properties\":{}}";
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        MockWebServer server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String id = request.getPath().replaceAll(".*/id/([^/?]*).*", "$1");
+                return new MockResponse().setHeader("Content-Type", "application/json")
+                                         .setBody(String.format(DOCUMENT, id));
+            }
+        });
+        server.start();
+        ExecutorService executor = newThreadPerTaskExecutor();
+        try {
+            NuxeoClient client = new NuxeoClient.Builder().url(server.url("/nuxeo").toString())
+                                                          .authentication("Administrator", "Administrator")
+                                                          .schemas("dublincore")
+                                                          .build();
+            Repository repository = client.repository();
+            LatencyHistogram latencies = new LatencyHistogram();
+            AtomicInteger failures = new AtomicInteger();
+            CountDownLatch ready = new CountDownLatch(threads);
+            CountDownLatch go = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(threads);
+            for (int i = 0; i < threads; i++) {
+                String id = "doc-" + i;
+                executor.execute(() -> {
+                    try {
+                        ready.countDown();
+                        go.await();
+                        long start = System.nanoTime();
+                        Document document = repository.fetchDocumentById(id);
+                        latencies.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                        if (!id.equals(document.getId())) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (InterruptedException reason) {
+                        Thread.currentThread().interrupt();
+                        failures.incrementAndGet();
+                    } catch (RuntimeException reason) {
+                        failures.incrementAndGet();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            ready.await();
+            long start = System.nanoTime();
+            go.countDown();
+            done.await();
+            long nanos = System.nanoTime() - start;
+            System.out.printf("%n%d %s threads: %d calls in %d ms, %.0f calls/s, %d failures, %s%n", threads,
+                    executor.getClass().getSimpleName(), latencies.getCount(), TimeUnit.NANOSECONDS.toMillis(nanos),
+                    latencies.getCount() * 1e9 / nanos, failures.get(), latencies);
+        } finally {
+            executor.shutdownNow();
+            server.shutdown();
+        }
+    }
+
+    /**
+     * @return an executor starting a virtual thread per task if the JVM supports them, a platform thread otherwise.
+     */
+    protected static ExecutorService newThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException reason) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+}
@@ -0,0 +1,106 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.internals.spi;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+/**
+ * @since 2.6
+ */
+public class TestClientCallFactory {
+
+    protected static final String JSON = "{\"entity-type\":\"document\",\"uid\":\"1\"}";
+
+    protected MockWebServer server;
+
+    protected ClientCallFactory callFactory;
+
+    @Before
+    public void setup() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        callFactory = new ClientCallFactory(new OkHttpClient());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    protected String execute(Request request) throws IOException {
+        server.enqueue(new MockResponse().setHeader("Content-Type", "application/json")
+                                         .setBody(JSON));
+        return callFactory.newCall(request).execute().body().string();
+    }
+
+    @Test
+    public void itCapturesTheJsonOfBoundGetCallsOnly() throws IOException {
+        Request get = new Request.Builder().url(server.url("/doc")).build();
+        Request post = new Request.Builder().url(server.url("/doc"))
+                                            .post(RequestBody.create(MediaType.parse("application/json"), "{}"))
+                                            .build();
+        ResponseCapture capture = new ResponseCapture();
+        ResponseCapture previous = callFactory.bindCapture(capture);
+        try {
+            assertEquals(JSON, execute(post));
+            assertNull(capture.getJson());
+            // the converter still reads the whole response, from memory
+            assertEquals(JSON, execute(get));
+            assertArrayEquals(JSON.getBytes(StandardCharsets.UTF_8), capture.getJson());
+        } finally {
+            callFactory.restoreCapture(previous);
+        }
+        assertNull(previous);
+    }
+
+    @Test
+    public void itDoesNotCaptureFailedResponses() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(404)
+                                         .setHeader("Content-Type", "application/json")
+                                         .setBody("{}"));
+        ResponseCapture capture = new ResponseCapture();
+        ResponseCapture previous = callFactory.bindCapture(capture);
+        try {
+            Response response = callFactory.newCall(new Request.Builder().url(server.url("/doc")).build()).execute();
+            assertEquals(404, response.code());
+            response.body().close();
+        } finally {
+            callFactory.restoreCapture(previous);
+        }
+        assertNull(capture.getJson());
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.internals.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.nuxeo.client.api.methods.OperationAPI;
+import org.nuxeo.client.api.methods.RepositoryAPI;
+import org.nuxeo.client.api.methods.UserManagerAPI;
+import org.nuxeo.client.api.objects.operation.OperationBody;
+import org.nuxeo.client.internals.spi.NuxeoClientException;
+
+/**
+ * @since 2.6
+ */
+public class TestAPIDispatchTable {
+
+    protected Method invokedMethod;
+
+    protected Object[] invokedArgs;
+
+    /**
+     * Builds an API instance recording the invoked method and its arguments instead of returning a retrofit Call.
+     */
+    protected <T> T echo(Class<T> apiClass) {
+        return apiClass.cast(Proxy.newProxyInstance(apiClass.getClassLoader(), new Class[] { apiClass },
+                (proxy, method, args) -> {
+                    invokedMethod = method;
+                    invokedArgs = args == null ? new Object[0] : args;
+                    return null;
+                }));
+    }
+
+    @Test
+    public void itCanBeSharedPerAPI() {
+        assertSame(APIDispatchTable.of(RepositoryAPI.class), APIDispatchTable.of(RepositoryAPI.class));
+    }
+
+    @Test
+    public void itCanDispatchByArity() throws Throwable {
+        APIDispatchTable table = APIDispatchTable.of(RepositoryAPI.class);
+        RepositoryAPI api = echo(RepositoryAPI.class);
+
+        table.invoke(api, "fetchDocumentById", "docId");
+        assertEquals(RepositoryAPI.class.getMethod("fetchDocumentById", String.class), invokedMethod);
+        assertArrayEquals(new Object[] { "docId" }, invokedArgs);
+
+        // Repository scoped variant has the repository name as last parameter
+        table.invoke(api, "fetchDocumentById", "docId", "default");
+        assertEquals(RepositoryAPI.class.getMethod("fetchDocumentById", String.class, String.class), invokedMethod);
+        assertArrayEquals(new Object[] { "docId", "default" }, invokedArgs);
+
+        table.invoke(api, "fetchDocumentRoot");
+        assertEquals(RepositoryAPI.class.getMethod("fetchDocumentRoot"), invokedMethod);
+    }
+
+    @Test
+    public void itCanDispatchOverloadsWithSameArity() throws Throwable {
+        APIDispatchTable table = APIDispatchTable.of(OperationAPI.class);
+        OperationAPI api = echo(OperationAPI.class);
+        OperationBody body = new OperationBody();
+
+        Map<String, Object> parts = new HashMap<>();
+        table.invoke(api, "execute", "Blob.Attach", body, parts);
+        assertEquals(Map.class, invokedMethod.getParameterTypes()[2]);
+
+        List<Object> fileParts = new ArrayList<>();
+        table.invoke(api, "execute", "Blob.Attach", body, fileParts);
+        assertEquals(List.class, invokedMethod.getParameterTypes()[2]);
+    }
+
+    @Test
+    public void itCanUnboxPrimitiveParameters() throws Throwable {
+        APIDispatchTable.of(UserManagerAPI.class).invoke(echo(UserManagerAPI.class), "searchGroup", "query", 1, 50);
+        assertArrayEquals(new Object[] { "query", 1, 50 }, invokedArgs);
+    }
+
+    @Test
+    public void itCanRejectUnknownMethods() throws Throwable {
+        APIDispatchTable table = APIDispatchTable.of(RepositoryAPI.class);
+        assertNull(table.lookup("fetchDocumentById", "a", "b", "c"));
+        assertNull(table.lookup("unknown"));
+        try {
+            table.invoke(echo(RepositoryAPI.class), "unknown", "docId");
+            fail("Invoking an unknown method should fail");
+        } catch (NuxeoClientException reason) {
+            assertEquals(
+                    "No method found for API interface org.nuxeo.client.api.methods.RepositoryAPI and method name 'unknown'. Check method name and parameters.",
+                    reason.getMessage());
+        }
+    }
+
+    @Test
+    public void itCanRejectMismatchedParameters() throws Throwable {
+        APIDispatchTable table = APIDispatchTable.of(OperationAPI.class);
+        assertNull(table.lookup("execute", "Blob.Attach", new OperationBody(), "parts"));
+        try {
+            table.invoke(echo(OperationAPI.class), "execute", "Blob.Attach", new OperationBody(), "parts");
+            fail("Invoking a method with mismatched parameters should fail");
+        } catch (NuxeoClientException reason) {
+            assertTrue(reason.getMessage(), reason.getMessage().startsWith(
+                    "No method of API interface org.nuxeo.client.api.methods.OperationAPI named 'execute' accepts"));
+        }
+        try {
+            APIDispatchTable.of(UserManagerAPI.class).invoke(echo(UserManagerAPI.class), "searchGroup", "query", "1",
+                    null);
+            fail("Invoking a method with mismatched primitive parameters should fail");
+        } catch (NuxeoClientException reason) {
+            assertTrue(reason.getMessage(), reason.getMessage().startsWith("No method of API"));
+        }
+    }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * (C) Copyright 2017 Nuxeo (http://nuxeo.com/) and others.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributors:
+ *         Nuxeo
+ */
+package org.nuxeo.client.internals.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.EOFException;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.Okio;
+import okio.Source;
+import okio.Timeout;
+
+/**
+ * @since 2.6
+ */
+public class TestMultipartReader {
+
+    protected static final String BODY = "preamble\r\n"
+            + "--b0und\r\n"
+            + "Content-Disposition: form-data; name=\"file\"; filename=\"one.txt\"\r\n"
+            + "Content-Type: text/plain; charset=UTF-8\r\n"
+            + "\r\n"
+            + "first\r\ncontent--b0un\r\n"
+            + "--b0und  \r\n"
+            + "Content-Disposition: attachment; filename*=UTF-8''deux%20%C3%A9.bin\r\n"
+            + "\r\n"
+            + "second content\r\n"
+            + "--b0und--\r\n"
+            + "epilogue";
+
+    /**
+     * @return a source returning at most one byte per read, so that the delimiters are split between reads.
+     */
+    protected static BufferedSource trickle(String body) {
+        Buffer buffer = new Buffer().writeUtf8(body);
+        return Okio.buffer(new Source() {
+
+            @Override
+            public long read(Buffer sink, long byteCount) throws IOException {
+                return buffer.read(sink, Math.min(1, byteCount));
+            }
+
+            @Override
+            public Timeout timeout() {
+                return Timeout.NONE;
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+    }
+
+    @Test
+    public void itCanReadBoundary() {
+        assertEquals("b0und", MultipartReader.boundary("multipart/mixed; boundary=b0und"));
+        assertEquals("b 0und", MultipartReader.boundary("multipart/mixed; Boundary=\"b 0und\"; charset=UTF-8"));
+        assertNull(MultipartReader.boundary("application/octet-stream"));
+    }
+
+    @Test
+    public void itCanReadParts() throws IOException {
+        try (MultipartReader reader = new MultipartReader(trickle(BODY), "b0und")) {
+            MultipartReader.Part part = reader.nextPart();
+            assertEquals("one.txt", part.fileName());
+            assertEquals("text/plain", part.mimeType());
+            assertEquals("first\r\ncontent--b0un", part.body().readUtf8());
+            part = reader.nextPart();
+            assertEquals("deux é.bin", part.fileName());
+            assertNull(part.mimeType());
+            assertEquals("second content", part.body().readUtf8());
+            assertNull(reader.nextPart());
+            assertNull(reader.nextPart());
+        }
+    }
+
+    @Test
+    public void itCanSkipUnreadParts() throws IOException {
+        try (MultipartReader reader = new MultipartReader(trickle(BODY), "b0und")) {
+            MultipartReader.Part first = reader.nextPart();
+            assertEquals("first", first.body().readUtf8(5));
+            assertEquals("second content", reader.nextPart().body().readUtf8());
+            try {
+                first.body().readUtf8();
+                fail("A part should not be readable once the next one is requested");
+            } catch (IllegalStateException e) {
+                // expected
+            }
+            assertNull(reader.nextPart());
+        }
+    }
+
+    @Test
+    public void itCanRejectTruncatedBody() throws IOException {
+        String truncated = BODY.substring(0, BODY.indexOf("second content") + 6);
+        try (MultipartReader reader = new MultipartReader(trickle(truncated), "b0und")) {
+            reader.nextPart();
+            reader.nextPart().body().readUtf8();
+            fail("A truncated body should be rejected");
+        } catch (EOFException e) {
+            // expected
+        }
+    }
+
+}